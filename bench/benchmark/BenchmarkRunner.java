@@ -0,0 +1,31 @@
+package benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmark suite with the GC profiler, so every result reports allocation
+ * rate ({@code gc.alloc.rate.norm}, bytes per operation) next to throughput.
+ * <p>
+ * Build the {@code bench} source folder together with {@code src}, with
+ * {@code jmh-core} on the classpath and {@code jmh-generator-annprocess} as an
+ * annotation processor, then run this class. An optional argument selects
+ * benchmarks by regular expression, for example {@code HotelBenchmark.getRoom}.
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        String include = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackageName() + ".*Benchmark";
+        Options options = new OptionsBuilder()
+            .include(include)
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
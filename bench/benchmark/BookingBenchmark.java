@@ -0,0 +1,73 @@
+package benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import domain.Booking;
+import domain.Customer;
+import domain.Room;
+import domain.RoomType;
+
+/**
+ * Benchmarks for creating a {@link Booking} and pricing it
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookingBenchmark {
+
+    private Customer customer;
+    private Room room;
+    private Room seasonalRoom;
+    private LocalDate[] windows;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        customer = Fixtures.customer("C-BENCH");
+        room = new Room("R-BENCH", "101", RoomType.DOUBLE, 150.0, 2);
+        windows = Fixtures.windows(100, 11L);
+        seasonalRoom = new Room("R-SEASON", "102", RoomType.DOUBLE, 150.0, 2);
+        LocalDate day = LocalDate.now();
+        for (int week = 0; week < 104; week++, day = day.plusWeeks(1)) {
+            seasonalRoom.setRate(day.plusDays(5), day.plusDays(7), 190.0);
+        }
+    }
+
+    @Benchmark
+    public Booking construct() {
+        int i = (cursor++ & (Fixtures.WINDOWS - 1)) * 2;
+        return new Booking("B-BENCH", customer, room, windows[i], windows[i + 1]);
+    }
+
+    @Benchmark
+    public void constructAndPrice(Blackhole blackhole) {
+        int i = (cursor++ & (Fixtures.WINDOWS - 1)) * 2;
+        Booking booking = new Booking("B-BENCH", customer, room, windows[i], windows[i + 1]);
+        int nights = booking.calculateNights();
+        blackhole.consume(nights);
+        blackhole.consume(room.calculateTotalPrice(nights));
+        blackhole.consume(booking.getTotalPrice());
+    }
+
+    @Benchmark
+    public long quoteSeasonal() {
+        int i = (cursor++ & (Fixtures.WINDOWS - 1)) * 2;
+        return seasonalRoom.calculateTotalPriceMinor(windows[i], windows[i + 1]);
+    }
+}
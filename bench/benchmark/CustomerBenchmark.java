@@ -0,0 +1,79 @@
+package benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import domain.Booking;
+import domain.BookingStatus;
+import domain.Customer;
+
+/**
+ * Benchmarks for {@link Customer#cancelBooking(String)}.
+ * The customer holds every booking of the hotel, so the booking count scales
+ * with both parameters.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int roomsPerHotel;
+
+    @Param({"1", "10", "100"})
+    public int bookingsPerRoom;
+
+    private Customer customer;
+    private String[] bookingIds;
+    private Booking[] bookings;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        customer = Fixtures.customer("C-BENCH");
+        Fixtures.hotel(roomsPerHotel, bookingsPerRoom, customer);
+        List<Booking> all = customer.getBookings();
+        bookingIds = new String[Fixtures.WINDOWS];
+        bookings = new Booking[Fixtures.WINDOWS];
+        for (int i = 0; i < Fixtures.WINDOWS; i++) {
+            Booking booking = all.get((int) ((long) i * 7919 % all.size()));
+            bookingIds[i] = booking.getBookingId();
+            bookings[i] = booking;
+        }
+    }
+
+    /**
+     * Cancels a booking, then puts it back to pending so the next call can cancel it again.
+     * The reset re-blocks the booking's dates in its room, so both status changes are measured.
+     */
+    @Benchmark
+    public boolean cancelBooking() {
+        int i = cursor++ & (Fixtures.WINDOWS - 1);
+        boolean cancelled = customer.cancelBooking(bookingIds[i]);
+        bookings[i].setStatus(BookingStatus.PENDING);
+        return cancelled;
+    }
+
+    /**
+     * Looks up an ID the customer does not hold, the worst case for the search
+     */
+    @Benchmark
+    public boolean cancelBookingMissing() {
+        return customer.cancelBooking("B-MISSING");
+    }
+}
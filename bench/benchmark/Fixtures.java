@@ -0,0 +1,90 @@
+package benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import domain.Customer;
+import domain.Hotel;
+import domain.Room;
+import domain.RoomType;
+
+/**
+ * Builds the hotels and query windows shared by the benchmarks
+ */
+final class Fixtures {
+    /** Nights covered by each generated stay */
+    static final int STAY_NIGHTS = 2;
+    /** Days between the check-ins of consecutive stays in one room */
+    static final int STAY_SPACING = 4;
+    /** Number of precomputed query windows; a power of two so it can be masked */
+    static final int WINDOWS = 1024;
+
+    private static final RoomType[] TYPES = RoomType.values();
+
+    private Fixtures() {
+    }
+
+    /**
+     * First day used by generated stays. Kept close to today so the hotel's
+     * occupancy calendar covers every stay.
+     * @return Tomorrow
+     */
+    static LocalDate start() {
+        return LocalDate.now().plusDays(1);
+    }
+
+    static Customer customer(String customerId) {
+        return new Customer(customerId, "Benchmark Guest", "guest@example.com", "555-0100");
+    }
+
+    static List<Room> rooms(String prefix, int count) {
+        List<Room> rooms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rooms.add(new Room(prefix + i, Integer.toString(100 + i), TYPES[i % TYPES.length],
+                80.0 + (i % 50) * 5.0, 1 + i % 4));
+        }
+        return rooms;
+    }
+
+    /**
+     * Builds a hotel whose rooms each hold evenly spaced, non-overlapping stays
+     * @param roomsPerHotel Number of rooms
+     * @param bookingsPerRoom Number of stays per room
+     * @param customer Customer making every booking
+     * @return The populated hotel
+     */
+    static Hotel hotel(int roomsPerHotel, int bookingsPerRoom, Customer customer) {
+        Hotel hotel = new Hotel("H-BENCH", "Benchmark Hotel", "1 Benchmark Way, Springfield");
+        hotel.addRooms(rooms("R", roomsPerHotel));
+        LocalDate start = start();
+        for (int r = 0; r < roomsPerHotel; r++) {
+            for (int b = 0; b < bookingsPerRoom; b++) {
+                LocalDate checkIn = start.plusDays((long) b * STAY_SPACING);
+                hotel.reserve(customer, "R" + r, checkIn, checkIn.plusDays(STAY_NIGHTS));
+            }
+        }
+        return hotel;
+    }
+
+    /**
+     * Precomputes random stay windows inside the span covered by the generated stays,
+     * so some windows collide with bookings and some fall between them
+     * @param bookingsPerRoom Number of stays per room
+     * @param seed Random seed
+     * @return Check-in dates at even indexes, check-out dates at odd indexes
+     */
+    static LocalDate[] windows(int bookingsPerRoom, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        int span = Math.max(1, bookingsPerRoom * STAY_SPACING);
+        LocalDate start = start();
+        LocalDate[] windows = new LocalDate[WINDOWS * 2];
+        for (int i = 0; i < WINDOWS; i++) {
+            LocalDate checkIn = start.plusDays(random.nextInt(span));
+            windows[2 * i] = checkIn;
+            windows[2 * i + 1] = checkIn.plusDays(1 + random.nextInt(3));
+        }
+        return windows;
+    }
+}
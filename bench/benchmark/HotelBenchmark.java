@@ -0,0 +1,93 @@
+package benchmark;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import domain.Hotel;
+import domain.Room;
+
+/**
+ * Benchmarks for room lookup, availability search and room loading in {@link Hotel}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotelBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int roomsPerHotel;
+
+    @Param({"1", "10", "100"})
+    public int bookingsPerRoom;
+
+    private Hotel hotel;
+    private LocalDate[] windows;
+    private String[] roomIds;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        hotel = Fixtures.hotel(roomsPerHotel, bookingsPerRoom, Fixtures.customer("C-BENCH"));
+        windows = Fixtures.windows(bookingsPerRoom, 42L);
+        roomIds = new String[Fixtures.WINDOWS];
+        for (int i = 0; i < roomIds.length; i++) {
+            roomIds[i] = "R" + (i * 7919 % roomsPerHotel);
+        }
+    }
+
+    @Benchmark
+    public List<Room> findAvailableRooms() {
+        int i = (cursor++ & (Fixtures.WINDOWS - 1)) * 2;
+        return hotel.findAvailableRooms(windows[i], windows[i + 1]);
+    }
+
+    @Benchmark
+    public List<Room> findCheapestAvailableRooms() {
+        int i = (cursor++ & (Fixtures.WINDOWS - 1)) * 2;
+        return hotel.findCheapestAvailableRooms(windows[i], windows[i + 1], 5);
+    }
+
+    @Benchmark
+    public Room getRoom() {
+        return hotel.getRoom(roomIds[cursor++ & (Fixtures.WINDOWS - 1)]);
+    }
+
+    /**
+     * Loads a fresh hotel one room at a time; includes building the rooms
+     */
+    @Benchmark
+    public void bulkLoadAddRoom(Blackhole blackhole) {
+        Hotel fresh = new Hotel("H-LOAD", "Load Hotel", "2 Benchmark Way, Springfield");
+        for (Room room : Fixtures.rooms("L", roomsPerHotel)) {
+            fresh.addRoom(room);
+        }
+        blackhole.consume(fresh);
+    }
+
+    /**
+     * Loads a fresh hotel with a single addRooms call; includes building the rooms
+     */
+    @Benchmark
+    public void bulkLoadAddRooms(Blackhole blackhole) {
+        Hotel fresh = new Hotel("H-LOAD", "Load Hotel", "2 Benchmark Way, Springfield");
+        fresh.addRooms(Fixtures.rooms("L", roomsPerHotel));
+        blackhole.consume(fresh);
+    }
+}
@@ -0,0 +1,54 @@
+package benchmark;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import domain.Hotel;
+import domain.Room;
+
+/**
+ * Benchmarks for {@link Room#isAvailable(LocalDate, LocalDate)}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoomBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int roomsPerHotel;
+
+    @Param({"1", "10", "100"})
+    public int bookingsPerRoom;
+
+    private Room room;
+    private LocalDate[] windows;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        Hotel hotel = Fixtures.hotel(roomsPerHotel, bookingsPerRoom, Fixtures.customer("C-BENCH"));
+        room = hotel.getRoom("R" + (roomsPerHotel / 2));
+        windows = Fixtures.windows(bookingsPerRoom, 7L);
+    }
+
+    @Benchmark
+    public boolean isAvailable() {
+        int i = (cursor++ & (Fixtures.WINDOWS - 1)) * 2;
+        return room.isAvailable(windows[i], windows[i + 1]);
+    }
+}
@@ -3,6 +3,8 @@ import domain.*;
 import java.time.LocalDate;
 import java.util.List;
 
+import metrics.Metrics;
+
 /**
  * Main class demonstrating all use cases of the Hotel Room Reservation System
  * This program shows the complete functionality including:
@@ -18,6 +20,9 @@ import java.util.List;
  */
 public class Main {
     
+    /** Every hotel the demonstrations create; adding one registers its gauges */
+    private static final HotelPortfolio PORTFOLIO = new HotelPortfolio();
+    
     public static void main(String[] args) {
         printHeader("HOTEL ROOM RESERVATION SYSTEM");
         printLine();
@@ -36,6 +41,10 @@ public class Main {
             printSuccess("ALL USE CASES COMPLETED SUCCESSFULLY!");
             printLine();
             
+            // Publish the latencies recorded along the way, and the gauges of the
+            // portfolio's hotels, over JMX and as text
+            Metrics.registry().export();
+            
         } catch (Exception e) {
             System.err.println("\n❌ ERROR: " + e.getMessage());
             e.printStackTrace();
@@ -51,6 +60,7 @@ public class Main {
         
         // Create a hotel
         Hotel grandHotel = new Hotel("H001", "Grand Plaza Hotel", "123 Main Street, Karachi");
+        PORTFOLIO.addHotel(grandHotel);
         System.out.println("✓ Hotel Created: " + grandHotel.getName());
         System.out.println("  Address: " + grandHotel.getAddress());
         
@@ -119,6 +129,7 @@ public class Main {
         
         // Setup hotel with rooms
         Hotel hotel = new Hotel("H002", "Seaside Resort", "456 Beach Road, Karachi");
+        PORTFOLIO.addHotel(hotel);
         Room room201 = new Room("R201", "201", RoomType.DOUBLE, 180.0, 2);
         Room room202 = new Room("R202", "202", RoomType.SUITE, 350.0, 4);
         Room room203 = new Room("R203", "203", RoomType.SINGLE, 120.0, 1);
@@ -297,6 +308,7 @@ public class Main {
         // Step 1: Setup Hotel
         System.out.println("STEP 1: Setting up hotel...");
         Hotel hotel = new Hotel("H999", "Pearl Continental Hotel", "Shahrah-e-Faisal, Karachi");
+        PORTFOLIO.addHotel(hotel);
         
         Room room501 = new Room("R501", "501", RoomType.DOUBLE, 220.0, 2);
         Room room502 = new Room("R502", "502", RoomType.SUITE, 450.0, 4);
@@ -385,11 +397,9 @@ public class Main {
         System.out.println("Hotels: 1");
         System.out.println("Total Rooms: " + hotel.getRooms().size());
         System.out.println("Registered Customers: 3");
-        System.out.println("Active Bookings: " + 
-            (customer1.getBookings().size() + customer2.getBookings().size() + customer3.getBookings().size()));
-        
-        double totalRevenue = booking1.getTotalPrice() + booking2.getTotalPrice() + booking3.getTotalPrice();
-        System.out.println("Total Revenue: Rs. " + String.format("%.2f", totalRevenue));
+        SalesStatistics sales = hotel.getSalesStatistics();
+        System.out.println("Active Bookings: " + sales.getActiveBookings(null));
+        System.out.println("Total Revenue: Rs. " + Money.format(sales.getTotalRevenueMinor(null)));
         
         System.out.println("\nBooking Breakdown:");
         System.out.println("  • " + customer1.getName() + ": 1 booking(s)");
@@ -0,0 +1,342 @@
+package domain;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers the results of a hotel's room searches for repeated date windows.
+ * <p>
+ * Entries are kept up to a fixed count and expire after a fixed time; when the count
+ * is exceeded, the least recently used of a small sample of entries is dropped. When
+ * a stay starts or stops blocking a room, only the entries whose dates overlap that
+ * stay are dropped, found through indexes of entries by check-in day, one for each
+ * power-of-two range of stay lengths so that each index is searched only as far back
+ * as its own longest stay. Adding, removing or changing a room drops every entry.
+ * <p>
+ * No operation takes a lock: entries live in a concurrent map and the indexes are
+ * concurrent skip lists, so invalidations made while rooms are locked for a booking
+ * never wait for searches or for each other. A search that misses computes its result
+ * without holding the cache. Every invalidation advances a generation number, and a
+ * result is only kept if the generation is still the one read before the search
+ * began, checked again once the result is stored, so a result computed while a
+ * booking changed is never kept.
+ */
+public class AvailabilityCache {
+    static final int ALL_ROOMS = 0;
+    static final int FILTERED = 1;
+    static final int CHEAPEST = 2;
+
+    /** Entries compared when choosing which to evict */
+    private static final int EVICTION_SAMPLE = 8;
+    private static final Comparator<Entry> BY_CHECK_IN =
+        Comparator.<Entry>comparingInt(entry -> entry.key.checkIn).thenComparingLong(entry -> entry.order);
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final ConcurrentHashMap<Key, Entry> entries;
+    private final NavigableSet<Entry>[] byLengthClass;
+    private final AtomicLong generation;
+    private final AtomicLong nextOrder;
+
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private final LongAdder expirations;
+    private final LongAdder invalidations;
+    private final LongAdder invalidatedEntries;
+
+    /**
+     * @param maxEntries Most results kept at once
+     * @param ttlNanos How long a result is kept, in nanoseconds
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    AvailabilityCache(int maxEntries, long ttlNanos) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        if (ttlNanos <= 0) {
+            throw new IllegalArgumentException("Time to live must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttlNanos;
+        this.entries = new ConcurrentHashMap<>();
+        this.byLengthClass = new NavigableSet[Integer.SIZE];
+        for (int i = 0; i < byLengthClass.length; i++) {
+            byLengthClass[i] = new ConcurrentSkipListSet<>(BY_CHECK_IN);
+        }
+        this.generation = new AtomicLong();
+        this.nextOrder = new AtomicLong();
+        this.hits = new LongAdder();
+        this.misses = new LongAdder();
+        this.evictions = new LongAdder();
+        this.expirations = new LongAdder();
+        this.invalidations = new LongAdder();
+        this.invalidatedEntries = new LongAdder();
+    }
+
+    /**
+     * Looks up a stored search result
+     * @param key The search
+     * @return The rooms found, or null on a miss
+     */
+    List<Room> get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - entry.expiresAt >= 0) {
+            if (drop(entry)) {
+                expirations.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        entry.lastUsed = now;
+        hits.increment();
+        return entry.rooms;
+    }
+
+    /**
+     * Gets the generation a search must read before computing a result to store
+     * @return Current generation
+     */
+    long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Stores a search result unless the cache was invalidated since it was computed
+     * @param key The search
+     * @param rooms The rooms found
+     * @param observed Generation read before the search began
+     */
+    void put(Key key, List<Room> rooms, long observed) {
+        if (generation.get() != observed || entries.containsKey(key)) {
+            return;
+        }
+        long now = System.nanoTime();
+        Entry entry = new Entry(key, List.copyOf(rooms), now + ttlNanos, nextOrder.getAndIncrement(), now);
+        if (entries.putIfAbsent(key, entry) != null) {
+            return;
+        }
+        byLengthClass[lengthClass(key)].add(entry);
+        // An invalidation that ran before the entry was indexed could not see it,
+        // but it advanced the generation first
+        if (generation.get() != observed) {
+            drop(entry);
+            return;
+        }
+        if (entries.size() > maxEntries) {
+            evictOne(entry);
+        }
+    }
+
+    /**
+     * Drops the results whose dates overlap a stay, both ends included
+     * @param from First day of the stay
+     * @param to Last day of the stay
+     */
+    void invalidate(int from, int to) {
+        generation.incrementAndGet();
+        invalidations.increment();
+        int dropped = 0;
+        for (int lengthClass = 1; lengthClass < byLengthClass.length; lengthClass++) {
+            NavigableSet<Entry> index = byLengthClass[lengthClass];
+            if (index.isEmpty()) {
+                continue;
+            }
+            long longest = (1L << lengthClass) - 1;
+            int earliest = (int) Math.max(Integer.MIN_VALUE, from - longest);
+            for (Entry entry : index.subSet(Entry.bound(earliest, Long.MIN_VALUE), true,
+                                            Entry.bound(to, Long.MAX_VALUE), true)) {
+                if (entry.key.checkOut >= from && drop(entry)) {
+                    dropped++;
+                }
+            }
+        }
+        invalidatedEntries.add(dropped);
+    }
+
+    /**
+     * Drops every result
+     */
+    void invalidateAll() {
+        generation.incrementAndGet();
+        invalidations.increment();
+        int dropped = 0;
+        for (Entry entry : entries.values()) {
+            if (drop(entry)) {
+                dropped++;
+            }
+        }
+        invalidatedEntries.add(dropped);
+    }
+
+    /**
+     * Removes an entry from the map and its index
+     * @return true if this call removed it from the map
+     */
+    private boolean drop(Entry entry) {
+        boolean removed = entries.remove(entry.key, entry);
+        byLengthClass[lengthClass(entry.key)].remove(entry);
+        return removed;
+    }
+
+    /**
+     * Drops the least recently used of a sample of entries, never the one just stored
+     */
+    private void evictOne(Entry stored) {
+        Entry eldest = null;
+        Iterator<Entry> it = entries.values().iterator();
+        for (int i = 0; i < EVICTION_SAMPLE && it.hasNext(); i++) {
+            Entry entry = it.next();
+            if (entry != stored && (eldest == null || entry.lastUsed - eldest.lastUsed < 0)) {
+                eldest = entry;
+            }
+        }
+        if (eldest != null && drop(eldest)) {
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Power-of-two class of a search's stay length: class c holds lengths below 2^c
+     */
+    private static int lengthClass(Key key) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(Math.max(1, key.checkOut - key.checkIn));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the share of lookups answered from the cache
+     * @return Hits divided by lookups, or 0 before the first lookup
+     */
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long lookups = hitCount + misses.sum();
+        return lookups == 0 ? 0.0 : (double) hitCount / lookups;
+    }
+
+    /**
+     * Gets how many results were dropped to make room for newer ones
+     * @return Number of evictions
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Gets how many results were found expired when looked up
+     * @return Number of expirations
+     */
+    public long getExpirationCount() {
+        return expirations.sum();
+    }
+
+    /**
+     * Gets how many booking or room changes invalidated the cache
+     * @return Number of invalidations
+     */
+    public long getInvalidationCount() {
+        return invalidations.sum();
+    }
+
+    /**
+     * Gets how many results invalidations dropped in total; divided by the invalidation
+     * count this is the average fan-out of a change
+     * @return Number of results dropped by invalidations
+     */
+    public long getInvalidatedEntryCount() {
+        return invalidatedEntries.sum();
+    }
+
+    /**
+     * One kind of search over one date range; days are epoch days, both ends included
+     */
+    static final class Key {
+        final int kind;
+        final int checkIn;
+        final int checkOut;
+        final RoomType type;
+        final int minCapacity;
+        final double maxPrice;
+        final int limit;
+
+        Key(int kind, int checkIn, int checkOut, RoomType type, int minCapacity, double maxPrice, int limit) {
+            this.kind = kind;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+            this.type = type;
+            this.minCapacity = minCapacity;
+            this.maxPrice = maxPrice;
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return kind == other.kind && checkIn == other.checkIn && checkOut == other.checkOut
+                && type == other.type && minCapacity == other.minCapacity
+                && Double.compare(maxPrice, other.maxPrice) == 0 && limit == other.limit;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = kind;
+            hash = 31 * hash + checkIn;
+            hash = 31 * hash + checkOut;
+            hash = 31 * hash + (type == null ? -1 : type.ordinal());
+            hash = 31 * hash + minCapacity;
+            hash = 31 * hash + Double.hashCode(maxPrice);
+            return 31 * hash + limit;
+        }
+    }
+
+    private static final class Entry {
+        final Key key;
+        final List<Room> rooms;
+        final long expiresAt;
+        final long order;
+        volatile long lastUsed;
+
+        Entry(Key key, List<Room> rooms, long expiresAt, long order, long lastUsed) {
+            this.key = key;
+            this.rooms = rooms;
+            this.expiresAt = expiresAt;
+            this.order = order;
+            this.lastUsed = lastUsed;
+        }
+
+        /**
+         * Probe that sorts before or after every entry with the given check-in day
+         */
+        static Entry bound(int checkIn, long order) {
+            return new Entry(new Key(ALL_ROOMS, checkIn, checkIn, null, 0, 0.0, 0), null, 0L, order, 0L);
+        }
+    }
+}
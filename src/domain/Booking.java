@@ -1,16 +1,39 @@
 package domain;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.time.LocalDate;
-import java.time.temporal.ChronoUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import metrics.Metrics;
+import metrics.Operation;
 
 public class Booking {
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+    /** Total passed by the public constructor to price the stay at the room's rates */
+    private static final long UNPRICED = Long.MIN_VALUE;
+    private static final VarHandle STATUS;
+    
+    static {
+        try {
+            STATUS = MethodHandles.lookup().findVarHandle(Booking.class, "status", BookingStatus.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
     private final String bookingId;
     private final Customer customer;
     private final Room room;
-    private final LocalDate checkInDate;
-    private final LocalDate checkOutDate;
-    private final double totalPrice;
-    private BookingStatus status;
+    private final int checkInDay;
+    private final int checkOutDay;
+    private final long totalPrice;
+    private volatile BookingStatus status;
+    private final long sequence;
+    private boolean listedInRoom;
+    private volatile int customerSlot = -1;
+    private volatile int archivedRow = -1;
+    private int salesMark = -1;
     
     /**
      * Creates a new Booking instance
@@ -23,27 +46,72 @@ public class Booking {
      */
     public Booking(String bookingId, Customer customer, Room room, 
                    LocalDate checkInDate, LocalDate checkOutDate) {
-        validateString(bookingId, "Booking ID");
-        if (customer == null) {
-            throw new IllegalArgumentException("Customer cannot be null");
-        }
-        if (room == null) {
-            throw new IllegalArgumentException("Room cannot be null");
-        }
-        if (checkInDate == null || checkOutDate == null) {
-            throw new IllegalArgumentException("Dates cannot be null");
+        this(bookingId, customer, room, checkInDate, checkOutDate, UNPRICED);
+    }
+    
+    /**
+     * Creates a booking with a total price fixed earlier, such as one read back from
+     * a journal or snapshot, instead of pricing the stay at the room's current rates
+     * @param bookingId Unique identifier
+     * @param customer Customer making the booking
+     * @param room Room being booked
+     * @param checkInDate Check-in date
+     * @param checkOutDate Check-out date
+     * @param totalPriceMinor Total price in minor units
+     * @return The booking
+     * @throws IllegalArgumentException if parameters are invalid
+     */
+    public static Booking ofTotalPriceMinor(String bookingId, Customer customer, Room room,
+                                            LocalDate checkInDate, LocalDate checkOutDate, long totalPriceMinor) {
+        if (totalPriceMinor < 0) {
+            throw new IllegalArgumentException("Total price cannot be negative");
         }
-        if (checkOutDate.isBefore(checkInDate) || checkOutDate.equals(checkInDate)) {
-            throw new IllegalArgumentException("Check-out must be after check-in");
+        return new Booking(bookingId, customer, room, checkInDate, checkOutDate, totalPriceMinor);
+    }
+    
+    private Booking(String bookingId, Customer customer, Room room,
+                    LocalDate checkInDate, LocalDate checkOutDate, long totalPriceMinor) {
+        long start = Metrics.start();
+        try {
+            validateString(bookingId, "Booking ID");
+            if (customer == null) {
+                throw new IllegalArgumentException("Customer cannot be null");
+            }
+            if (room == null) {
+                throw new IllegalArgumentException("Room cannot be null");
+            }
+            if (checkInDate == null || checkOutDate == null) {
+                throw new IllegalArgumentException("Dates cannot be null");
+            }
+            if (checkOutDate.isBefore(checkInDate) || checkOutDate.equals(checkInDate)) {
+                throw new IllegalArgumentException("Check-out must be after check-in");
+            }
+            
+            this.bookingId = bookingId;
+            this.customer = customer;
+            this.room = room;
+            this.checkInDay = toEpochDay(checkInDate);
+            this.checkOutDay = toEpochDay(checkOutDate);
+            this.totalPrice = totalPriceMinor == UNPRICED ? room.totalPrice(checkInDay, checkOutDay) : totalPriceMinor;
+            this.status = BookingStatus.PENDING;
+            this.sequence = SEQUENCE.incrementAndGet();
+        } finally {
+            Metrics.stop(Operation.BOOKING_CREATE, start);
         }
-        
-        this.bookingId = bookingId;
-        this.customer = customer;
-        this.room = room;
-        this.checkInDate = checkInDate;
-        this.checkOutDate = checkOutDate;
-        this.totalPrice = room.calculateTotalPrice(calculateNights());
-        this.status = BookingStatus.PENDING;
+    }
+    
+    /**
+     * Creates an empty shell for subclasses that keep their state elsewhere,
+     * such as views over a {@link BookingStore}
+     */
+    Booking() {
+        this.bookingId = null;
+        this.customer = null;
+        this.room = null;
+        this.checkInDay = 0;
+        this.checkOutDay = 0;
+        this.totalPrice = 0;
+        this.sequence = 0;
     }
     
     /**
@@ -51,7 +119,7 @@ public class Booking {
      * @return Number of nights
      */
     public int calculateNights() {
-        return (int) ChronoUnit.DAYS.between(checkInDate, checkOutDate);
+        return checkOutDay() - checkInDay();
     }
     
     /**
@@ -59,27 +127,38 @@ public class Booking {
      * @throws IllegalStateException if booking is already cancelled or completed
      */
     public void cancel() {
-        if (status == BookingStatus.CANCELLED) {
-            throw new IllegalStateException("Booking is already cancelled");
-        }
-        if (status == BookingStatus.COMPLETED) {
-            throw new IllegalStateException("Cannot cancel completed booking");
+        while (true) {
+            BookingStatus status = getStatus();
+            if (status == BookingStatus.CANCELLED) {
+                throw new IllegalStateException("Booking is already cancelled");
+            }
+            if (status == BookingStatus.COMPLETED) {
+                throw new IllegalStateException("Cannot cancel completed booking");
+            }
+            if (transition(status, BookingStatus.CANCELLED)) {
+                return;
+            }
         }
-        this.status = BookingStatus.CANCELLED;
     }
     
     /**
-     * Confirms this booking
+     * Confirms this booking. The check and the change are one atomic step, so a
+     * confirmation racing with a cancellation or an expired hold either wins or fails.
      * @throws IllegalStateException if booking is cancelled or completed
      */
     public void confirm() {
-        if (status == BookingStatus.CANCELLED) {
-            throw new IllegalStateException("Cannot confirm cancelled booking");
-        }
-        if (status == BookingStatus.COMPLETED) {
-            throw new IllegalStateException("Cannot confirm completed booking");
+        while (true) {
+            BookingStatus status = getStatus();
+            if (status == BookingStatus.CANCELLED) {
+                throw new IllegalStateException("Cannot confirm cancelled booking");
+            }
+            if (status == BookingStatus.COMPLETED) {
+                throw new IllegalStateException("Cannot confirm completed booking");
+            }
+            if (status == BookingStatus.CONFIRMED || transition(status, BookingStatus.CONFIRMED)) {
+                return;
+            }
         }
-        this.status = BookingStatus.CONFIRMED;
     }
     
     public String getBookingId() {
@@ -95,14 +174,52 @@ public class Booking {
     }
     
     public LocalDate getCheckInDate() {
-        return checkInDate;
+        return LocalDate.ofEpochDay(checkInDay());
     }
     
     public LocalDate getCheckOutDate() {
-        return checkOutDate;
+        return LocalDate.ofEpochDay(checkOutDay());
+    }
+    
+    /**
+     * Check-in date as days since 1970-01-01, for comparisons on the availability path
+     * @return Check-in epoch day
+     */
+    int checkInDay() {
+        return checkInDay;
+    }
+    
+    /**
+     * Check-out date as days since 1970-01-01, for comparisons on the availability path
+     * @return Check-out epoch day
+     */
+    int checkOutDay() {
+        return checkOutDay;
+    }
+    
+    /**
+     * Converts a date to the primitive day number used by the availability indexes
+     * @param date The date to convert
+     * @return Days since 1970-01-01
+     * @throws IllegalArgumentException if the date is too far from the epoch to fit an int
+     */
+    static int toEpochDay(LocalDate date) {
+        long day = date.toEpochDay();
+        if (day != (int) day) {
+            throw new IllegalArgumentException("Date out of supported range: " + date);
+        }
+        return (int) day;
     }
     
     public double getTotalPrice() {
+        return Money.toMajor(getTotalPriceMinor());
+    }
+    
+    /**
+     * Gets the total price in minor units, for exact sums
+     * @return Total price in minor units
+     */
+    public long getTotalPriceMinor() {
         return totalPrice;
     }
     
@@ -114,7 +231,101 @@ public class Booking {
         if (status == null) {
             throw new IllegalArgumentException("Status cannot be null");
         }
-        this.status = status;
+        while (!transition(getStatus(), status)) {
+            // Lost a race with another change; retry against the new status
+        }
+    }
+    
+    /**
+     * Changes the status only if it is still the expected one, and propagates the change
+     * @param expected Status the booking must have
+     * @param next Status to change to
+     * @return true if the booking had the expected status
+     */
+    boolean transition(BookingStatus expected, BookingStatus next) {
+        if (!compareAndSetStatus(expected, next)) {
+            return false;
+        }
+        if (expected != next) {
+            statusChanged(expected);
+        }
+        return true;
+    }
+    
+    /**
+     * Creation order of this booking, used to order stays that share a check-in date
+     * @return Sequence number unique within the running JVM
+     */
+    long sequence() {
+        return sequence;
+    }
+    
+    boolean isListedInRoom() {
+        return listedInRoom;
+    }
+    
+    void markListedInRoom() {
+        this.listedInRoom = true;
+    }
+    
+    /**
+     * Position of this booking in its customer's booking log
+     * @return The position, or -1 if the booking has not been added to its customer
+     */
+    int customerSlot() {
+        return customerSlot;
+    }
+    
+    void markListedInCustomer(int slot) {
+        this.customerSlot = slot;
+    }
+    
+    /**
+     * Row holding this booking in its room's archive; an archived booking stays there
+     * even if it blocks its room again
+     * @return The row, or -1 if the booking has not been archived
+     */
+    int archivedRow() {
+        return archivedRow;
+    }
+    
+    void markArchived(int row) {
+        this.archivedRow = row;
+    }
+    
+    /**
+     * Status and room type this booking is counted under in its hotel's
+     * {@link SalesStatistics}, or -1; guarded by the room's lock
+     */
+    int salesMark() {
+        return salesMark;
+    }
+    
+    void setSalesMark(int mark) {
+        this.salesMark = mark;
+    }
+    
+    /**
+     * Atomically replaces the status value; overridden by views that keep it in a store
+     * @param expected Status the booking must have
+     * @param next The new status
+     * @return true if the status was replaced
+     */
+    boolean compareAndSetStatus(BookingStatus expected, BookingStatus next) {
+        return STATUS.compareAndSet(this, expected, next);
+    }
+    
+    /**
+     * Propagates a status change to the indexes that depend on it
+     * @param previous Status before the change
+     */
+    void statusChanged(BookingStatus previous) {
+        if (listedInRoom) {
+            room.bookingStatusChanged(this, previous);
+        }
+        if (customerSlot >= 0) {
+            customer.bookingStatusChanged(this);
+        }
     }
     
     private void validateString(String value, String fieldName) {
@@ -126,6 +337,7 @@ public class Booking {
     @Override
     public String toString() {
         return String.format("Booking{id='%s', customer='%s', room='%s', nights=%d, price=%.2f, status=%s}", 
-            bookingId, customer.getName(), room.getRoomNumber(), calculateNights(), totalPrice, status);
+            getBookingId(), getCustomer().getName(), getRoom().getRoomNumber(), calculateNights(), 
+            getTotalPrice(), getStatus());
     }
 }
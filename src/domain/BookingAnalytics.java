@@ -0,0 +1,217 @@
+package domain;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Builds {@link BookingReport}s over the whole booking history of many hotels in
+ * parallel.
+ * <p>
+ * Every room's history, live and archived, is cut into segments of at most
+ * {@value #SEGMENT_SIZE} consecutive bookings. The segments are split in halves
+ * on a fork-join pool down to single segments, each tallied into its own
+ * accumulator with no shared state, and the accumulators are merged pairwise as
+ * the halves join. Long histories thus spread over all workers, and idle workers
+ * steal the halves not yet started.
+ */
+public class BookingAnalytics {
+    /** Most bookings a single task tallies */
+    static final int SEGMENT_SIZE = 1024;
+
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates an engine that runs on the common fork-join pool
+     */
+    public BookingAnalytics() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an engine that runs on a given pool
+     * @param pool Pool to run reports on
+     * @throws IllegalArgumentException if pool is null
+     */
+    public BookingAnalytics(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        this.pool = pool;
+    }
+
+    /**
+     * Reports on every hotel of a portfolio
+     * @param portfolio The portfolio
+     * @param from First night of the occupancy period
+     * @param to Day after the last night of the occupancy period
+     * @return The report
+     * @throws IllegalArgumentException if portfolio or a date is null, or to is not after from
+     */
+    public BookingReport analyze(HotelPortfolio portfolio, LocalDate from, LocalDate to) {
+        if (portfolio == null) {
+            throw new IllegalArgumentException("Portfolio cannot be null");
+        }
+        return analyze(portfolio.getHotels(), from, to);
+    }
+
+    /**
+     * Reports on every booking of the rooms of some hotels
+     * @param hotels The hotels; a hotel listed twice is counted once
+     * @param from First night of the occupancy period
+     * @param to Day after the last night of the occupancy period
+     * @return The report
+     * @throws IllegalArgumentException if hotels or a date is null, or to is not after from
+     */
+    public BookingReport analyze(Collection<Hotel> hotels, LocalDate from, LocalDate to) {
+        if (hotels == null) {
+            throw new IllegalArgumentException("Hotels cannot be null");
+        }
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        if (!to.isAfter(from)) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+
+        Set<Hotel> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<List<Booking>> lists = new ArrayList<>();
+        List<int[]> bounds = new ArrayList<>();
+        int roomCount = 0;
+        for (Hotel hotel : hotels) {
+            if (hotel == null || !seen.add(hotel)) {
+                continue;
+            }
+            for (Room room : hotel.roomsByOrdinal()) {
+                if (room == null) {
+                    continue;
+                }
+                roomCount++;
+                List<Booking> history = room.getBookings();
+                for (int start = 0; start < history.size(); start += SEGMENT_SIZE) {
+                    lists.add(history);
+                    bounds.add(new int[] {start, Math.min(history.size(), start + SEGMENT_SIZE)});
+                }
+            }
+        }
+
+        Tally tally = lists.isEmpty()
+            ? new Tally()
+            : pool.invoke(new Count(lists, bounds, 0, lists.size(),
+                Booking.toEpochDay(from), Booking.toEpochDay(to)));
+        Map<String, Long> revenue = new HashMap<>(tally.revenueByCustomer.size() * 2);
+        for (Map.Entry<String, long[]> entry : tally.revenueByCustomer.entrySet()) {
+            revenue.put(entry.getKey(), entry.getValue()[0]);
+        }
+        return new BookingReport(from, to, roomCount, tally.roomNightsSold, tally.bookings,
+            tally.cancelled, tally.stayLengths, revenue);
+    }
+
+    /**
+     * Tallies a range of segments, halving it until one segment is left
+     */
+    private static final class Count extends RecursiveTask<Tally> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<List<Booking>> lists;
+        private final transient List<int[]> bounds;
+        private final int first;
+        private final int last;
+        private final int fromDay;
+        private final int toDay;
+
+        Count(List<List<Booking>> lists, List<int[]> bounds, int first, int last, int fromDay, int toDay) {
+            this.lists = lists;
+            this.bounds = bounds;
+            this.first = first;
+            this.last = last;
+            this.fromDay = fromDay;
+            this.toDay = toDay;
+        }
+
+        @Override
+        protected Tally compute() {
+            if (last - first == 1) {
+                Tally tally = new Tally();
+                List<Booking> history = lists.get(first);
+                int[] range = bounds.get(first);
+                for (int i = range[0]; i < range[1]; i++) {
+                    tally.add(history.get(i), fromDay, toDay);
+                }
+                return tally;
+            }
+            int middle = (first + last) >>> 1;
+            Count left = new Count(lists, bounds, first, middle, fromDay, toDay);
+            left.fork();
+            Tally right = new Count(lists, bounds, middle, last, fromDay, toDay).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    /**
+     * Mergeable accumulator for the figures of a report
+     */
+    static final class Tally {
+        private static final int TYPES = RoomType.values().length;
+
+        final long[] bookings = new long[TYPES];
+        final long[] cancelled = new long[TYPES];
+        final long[] stayLengths = new long[BookingReport.LONGEST_STAY_BUCKET + 1];
+        Map<String, long[]> revenueByCustomer = new HashMap<>();
+        long roomNightsSold;
+
+        void add(Booking booking, int fromDay, int toDay) {
+            BookingStatus status = booking.getStatus();
+            int type = booking.getRoom().getType().ordinal();
+            bookings[type]++;
+            if (status == BookingStatus.CANCELLED) {
+                cancelled[type]++;
+            }
+            if (!status.isSold()) {
+                return;
+            }
+            int checkIn = booking.checkInDay();
+            int checkOut = booking.checkOutDay();
+            stayLengths[Math.min(checkOut - checkIn, BookingReport.LONGEST_STAY_BUCKET)]++;
+            int overlap = Math.min(checkOut, toDay) - Math.max(checkIn, fromDay);
+            if (overlap > 0) {
+                roomNightsSold += overlap;
+            }
+            revenueByCustomer.computeIfAbsent(booking.getCustomer().getCustomerId(), id -> new long[1])[0]
+                += booking.getTotalPriceMinor();
+        }
+
+        Tally merge(Tally other) {
+            for (int i = 0; i < TYPES; i++) {
+                bookings[i] += other.bookings[i];
+                cancelled[i] += other.cancelled[i];
+            }
+            for (int i = 0; i < stayLengths.length; i++) {
+                stayLengths[i] += other.stayLengths[i];
+            }
+            roomNightsSold += other.roomNightsSold;
+            Map<String, long[]> into = revenueByCustomer;
+            Map<String, long[]> from = other.revenueByCustomer;
+            if (from.size() > into.size()) {
+                into = from;
+                from = revenueByCustomer;
+            }
+            for (Map.Entry<String, long[]> entry : from.entrySet()) {
+                long[] sum = into.putIfAbsent(entry.getKey(), entry.getValue());
+                if (sum != null) {
+                    sum[0] += entry.getValue()[0];
+                }
+            }
+            revenueByCustomer = into;
+            return this;
+        }
+    }
+}
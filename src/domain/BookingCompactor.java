@@ -0,0 +1,107 @@
+package domain;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Moves a hotel's finished bookings out of its rooms' live booking logs.
+ * <p>
+ * Each step visits a few rooms, continuing where the previous step stopped and
+ * wrapping around at the end. In each room, cancelled and completed bookings are
+ * archived into the hotel's column store, and stays that ended before today are
+ * dropped from the room's availability index. A room is locked only while it is
+ * being compacted, so reservations on every other room carry on. Archived bookings
+ * stay visible through {@link Room#getBookings()} as the same objects, and one
+ * that blocks its room again is indexed as a stay again.
+ */
+public class BookingCompactor {
+    private final Hotel hotel;
+    private final LongAdder archived;
+    private final LongAdder roomsVisited;
+    private int cursor;
+
+    /**
+     * Creates a compactor for a hotel
+     * @param hotel The hotel whose rooms to compact
+     * @throws IllegalArgumentException if hotel is null
+     */
+    public BookingCompactor(Hotel hotel) {
+        if (hotel == null) {
+            throw new IllegalArgumentException("Hotel cannot be null");
+        }
+        this.hotel = hotel;
+        this.archived = new LongAdder();
+        this.roomsVisited = new LongAdder();
+    }
+
+    /**
+     * Compacts the next rooms in turn
+     * @param maxRooms Most rooms to visit in this step
+     * @return Number of bookings archived
+     * @throws IllegalArgumentException if maxRooms is not positive
+     */
+    public synchronized int compact(int maxRooms) {
+        if (maxRooms <= 0) {
+            throw new IllegalArgumentException("Room count must be positive");
+        }
+        Room[] rooms = hotel.roomsByOrdinal();
+        int today = Booking.toEpochDay(LocalDate.now(hotel.clock()));
+        int count = 0;
+        int visited = 0;
+        for (int scanned = 0; scanned < rooms.length && visited < maxRooms; scanned++) {
+            if (cursor >= rooms.length) {
+                cursor = 0;
+            }
+            Room room = rooms[cursor++];
+            if (room != null && room.getHotel() == hotel) {
+                count += room.compact(hotel.archive(), today);
+                visited++;
+            }
+        }
+        archived.add(count);
+        roomsVisited.add(visited);
+        return count;
+    }
+
+    /**
+     * Runs a compaction step periodically until the returned future is cancelled
+     * @param scheduler Scheduler to run the steps on
+     * @param period Time between steps
+     * @param roomsPerStep Most rooms to visit in each step
+     * @return Future that stops the compaction when cancelled
+     * @throws IllegalArgumentException if any argument is null or not positive
+     */
+    public ScheduledFuture<?> schedule(ScheduledExecutorService scheduler, Duration period, int roomsPerStep) {
+        if (scheduler == null) {
+            throw new IllegalArgumentException("Scheduler cannot be null");
+        }
+        if (period == null || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        if (roomsPerStep <= 0) {
+            throw new IllegalArgumentException("Room count must be positive");
+        }
+        long nanos = period.toNanos();
+        return scheduler.scheduleWithFixedDelay(() -> compact(roomsPerStep), nanos, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets how many bookings this compactor has archived
+     * @return Number of archived bookings
+     */
+    public long getArchivedCount() {
+        return archived.sum();
+    }
+
+    /**
+     * Gets how many room visits this compactor has made
+     * @return Number of rooms compacted
+     */
+    public long getRoomsVisited() {
+        return roomsVisited.sum();
+    }
+}
@@ -0,0 +1,86 @@
+package domain;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Append-mostly log of bookings shared between one writer at a time and any number of readers.
+ * Bookings are stored in fixed-size chunks that never move once allocated, and the
+ * number of published entries is a volatile count written after the slot is filled.
+ * A reader therefore captures a consistent prefix of the log with a single volatile
+ * read and iterates it without locks, while appends only contend with each other.
+ */
+final class BookingLedger {
+    private static final int CHUNK_SHIFT = 6;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private volatile Booking[][] chunks;
+    private volatile int size;
+
+    BookingLedger() {
+        this.chunks = new Booking[1][];
+        this.chunks[0] = new Booking[CHUNK_SIZE];
+    }
+
+    /**
+     * Appends a booking and publishes it to readers
+     * @param booking The booking to append
+     * @return Position of the booking in the log
+     */
+    synchronized int append(Booking booking) {
+        int index = size;
+        int chunk = index >>> CHUNK_SHIFT;
+        Booking[][] current = chunks;
+        if (chunk == current.length) {
+            current = Arrays.copyOf(current, current.length * 2);
+            chunks = current;
+        }
+        if (current[chunk] == null) {
+            current[chunk] = new Booking[CHUNK_SIZE];
+        }
+        current[chunk][index & CHUNK_MASK] = booking;
+        size = index + 1;
+        return index;
+    }
+
+    /**
+     * Captures the bookings published so far
+     * @return Read-only view of a consistent prefix of the log
+     */
+    List<Booking> snapshot() {
+        // Read size before chunks: every slot below the count was filled, and the chunk
+        // table that held it published, before the count was written.
+        int count = size;
+        return new Snapshot(chunks, count);
+    }
+
+    int size() {
+        return size;
+    }
+
+    private static final class Snapshot extends AbstractList<Booking> implements RandomAccess {
+        private final Booking[][] chunks;
+        private final int size;
+
+        Snapshot(Booking[][] chunks, int size) {
+            this.chunks = chunks;
+            this.size = size;
+        }
+
+        @Override
+        public Booking get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package domain;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Indexes bookings by ID across hotels and generates new booking IDs.
+ * <p>
+ * Generated IDs have the form {@code BK-<base 36 number>}. The numbers start from the
+ * current time in milliseconds shifted left by {@value #TIME_SHIFT} bits, so IDs issued
+ * after a restart sort after the earlier ones, and each thread draws them from a
+ * private block of {@value #BLOCK_SIZE} so threads never contend for the next ID.
+ * <p>
+ * Bookings whose ID has the generated form are indexed in a primitive {@code long}
+ * keyed map; any other ID, such as a hand-assigned "B501", falls back to a string
+ * keyed map. Lookups take no lock in either case.
+ * <p>
+ * A hotel bound to the registry removes its bookings again once they are archived
+ * or their room leaves the hotel, so the registry holds only bookings still live.
+ */
+public class BookingRegistry {
+    static final String ID_PREFIX = "BK-";
+    static final int TIME_SHIFT = 20;
+    static final int BLOCK_SIZE = 1024;
+
+    private final AtomicLong nextBlock;
+    private final ThreadLocal<long[]> blocks;
+    private final ConcurrentLongMap<Booking> byNumber;
+    private final Map<String, Booking> byName;
+
+    /**
+     * Creates an empty registry whose IDs start from the current time
+     */
+    public BookingRegistry() {
+        this.nextBlock = new AtomicLong(System.currentTimeMillis() << TIME_SHIFT);
+        this.blocks = ThreadLocal.withInitial(() -> new long[2]);
+        this.byNumber = new ConcurrentLongMap<>();
+        this.byName = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Generates a new booking ID, unique within this registry
+     * @return The booking ID
+     */
+    public String nextBookingId() {
+        long[] block = blocks.get();
+        if (block[0] == block[1]) {
+            block[0] = nextBlock.getAndAdd(BLOCK_SIZE);
+            block[1] = block[0] + BLOCK_SIZE;
+        }
+        return ID_PREFIX + Long.toString(block[0]++, 36).toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Indexes a booking by its ID. Registering the same booking again has no effect.
+     * @param booking The booking to index
+     * @return true if the booking is indexed, false if a different booking already holds its ID
+     * @throws IllegalArgumentException if booking is null
+     */
+    public boolean register(Booking booking) {
+        if (booking == null) {
+            throw new IllegalArgumentException("Booking cannot be null");
+        }
+        String bookingId = booking.getBookingId();
+        long number = parse(bookingId);
+        Booking existing = number != 0L
+            ? byNumber.putIfAbsent(number, booking)
+            : byName.putIfAbsent(bookingId, booking);
+        return existing == null || existing == booking;
+    }
+
+    /**
+     * Removes a booking from the index, unless a different booking holds its ID
+     * @param booking The booking to remove
+     * @return true if the booking was indexed and is now removed
+     * @throws IllegalArgumentException if booking is null
+     */
+    public boolean unregister(Booking booking) {
+        if (booking == null) {
+            throw new IllegalArgumentException("Booking cannot be null");
+        }
+        String bookingId = booking.getBookingId();
+        long number = parse(bookingId);
+        return number != 0L
+            ? byNumber.remove(number, booking)
+            : byName.remove(bookingId, booking);
+    }
+
+    /**
+     * Finds a booking by ID
+     * @param bookingId ID of the booking
+     * @return The booking if found, null otherwise
+     */
+    public Booking findBooking(String bookingId) {
+        if (bookingId == null) {
+            return null;
+        }
+        long number = parse(bookingId);
+        return number != 0L ? byNumber.get(number) : byName.get(bookingId);
+    }
+
+    /**
+     * Cancels a booking by ID
+     * @param bookingId ID of the booking
+     * @return true if cancelled, false if not found
+     * @throws IllegalStateException if the booking is already cancelled or completed
+     */
+    public boolean cancel(String bookingId) {
+        Booking booking = findBooking(bookingId);
+        if (booking == null) {
+            return false;
+        }
+        booking.cancel();
+        return true;
+    }
+
+    /**
+     * Confirms a booking by ID
+     * @param bookingId ID of the booking
+     * @return true if confirmed, false if not found
+     * @throws IllegalStateException if the booking is cancelled or completed
+     */
+    public boolean confirm(String bookingId) {
+        Booking booking = findBooking(bookingId);
+        if (booking == null) {
+            return false;
+        }
+        booking.confirm();
+        return true;
+    }
+
+    /**
+     * Counts the registered bookings
+     * @return Number of bookings
+     */
+    public int size() {
+        return byNumber.size() + byName.size();
+    }
+
+    /**
+     * Extracts the number from an ID in generated form
+     * @param bookingId The booking ID
+     * @return The number, or 0 if the ID is not in canonical generated form
+     */
+    static long parse(String bookingId) {
+        int length = bookingId.length();
+        if (!bookingId.startsWith(ID_PREFIX) || length == ID_PREFIX.length() || length > ID_PREFIX.length() + 13) {
+            return 0L;
+        }
+        long number = 0L;
+        for (int i = ID_PREFIX.length(); i < length; i++) {
+            char c = bookingId.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'A' && c <= 'Z') {
+                digit = c - 'A' + 10;
+            } else {
+                return 0L;
+            }
+            if (digit == 0 && number == 0L) {
+                return 0L;
+            }
+            if (number > (Long.MAX_VALUE - digit) / 36) {
+                return 0L;
+            }
+            number = number * 36 + digit;
+        }
+        return number;
+    }
+}
@@ -0,0 +1,135 @@
+package domain;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Figures computed by {@link BookingAnalytics} over the bookings of a set of hotels.
+ * <p>
+ * A booking counts as sold while it is confirmed or completed. Occupancy covers the
+ * nights of the report's period only; the other figures cover every booking. Bookings
+ * are grouped under the type their room has when the report is made.
+ */
+public final class BookingReport {
+    /** Stays this many nights or longer share the last length-of-stay bucket */
+    public static final int LONGEST_STAY_BUCKET = 30;
+
+    private final LocalDate from;
+    private final LocalDate to;
+    private final int roomCount;
+    private final long roomNightsSold;
+    private final long[] bookings;
+    private final long[] cancelled;
+    private final long[] stayLengths;
+    private final Map<String, Long> revenueByCustomer;
+
+    BookingReport(LocalDate from, LocalDate to, int roomCount, long roomNightsSold, long[] bookings,
+                  long[] cancelled, long[] stayLengths, Map<String, Long> revenueByCustomer) {
+        this.from = from;
+        this.to = to;
+        this.roomCount = roomCount;
+        this.roomNightsSold = roomNightsSold;
+        this.bookings = bookings;
+        this.cancelled = cancelled;
+        this.stayLengths = stayLengths;
+        this.revenueByCustomer = Collections.unmodifiableMap(revenueByCustomer);
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    /**
+     * Gets the nights sold within the period, over all rooms
+     * @return Room nights sold
+     */
+    public long getRoomNightsSold() {
+        return roomNightsSold;
+    }
+
+    /**
+     * Gets the room nights the rooms of the hotels offer within the period
+     * @return Rooms times nights of the period
+     */
+    public long getAvailableRoomNights() {
+        return (long) roomCount * (to.toEpochDay() - from.toEpochDay());
+    }
+
+    /**
+     * Gets the share of available room nights in the period that are sold
+     * @return Occupancy between 0 and 1, or 0 if there are no rooms
+     */
+    public double getOccupancyRate() {
+        long available = getAvailableRoomNights();
+        return available == 0 ? 0.0 : (double) roomNightsSold / available;
+    }
+
+    /**
+     * Counts the bookings of a room type, whatever their status
+     * @param type Room type, or null for every type
+     * @return Number of bookings
+     */
+    public long getBookingCount(RoomType type) {
+        return count(bookings, type);
+    }
+
+    /**
+     * Counts the cancelled bookings of a room type
+     * @param type Room type, or null for every type
+     * @return Number of cancelled bookings
+     */
+    public long getCancelledCount(RoomType type) {
+        return count(cancelled, type);
+    }
+
+    /**
+     * Gets the share of a room type's bookings that are cancelled
+     * @param type Room type, or null for every type
+     * @return Cancellation rate between 0 and 1, or 0 if there are no bookings
+     */
+    public double getCancellationRate(RoomType type) {
+        long total = getBookingCount(type);
+        return total == 0 ? 0.0 : (double) getCancelledCount(type) / total;
+    }
+
+    /**
+     * Counts the sold bookings by length of stay
+     * @return Counts indexed by nights, from 1 to {@link #LONGEST_STAY_BUCKET}; index 0 is unused
+     */
+    public long[] getLengthOfStayCounts() {
+        return stayLengths.clone();
+    }
+
+    /**
+     * Gets the revenue of each customer's sold bookings
+     * @return Revenue in minor units keyed by customer ID
+     */
+    public Map<String, Long> getRevenueByCustomer() {
+        return revenueByCustomer;
+    }
+
+    /**
+     * Gets the revenue of one customer's sold bookings
+     * @param customerId The customer ID
+     * @return Revenue in minor units, or 0 if the customer has none
+     */
+    public long getRevenueMinor(String customerId) {
+        return revenueByCustomer.getOrDefault(customerId, 0L);
+    }
+
+    private static long count(long[] byType, RoomType type) {
+        if (type != null) {
+            return byType[type.ordinal()];
+        }
+        long total = 0;
+        for (long value : byType) {
+            total += value;
+        }
+        return total;
+    }
+}
@@ -15,4 +15,20 @@ public enum BookingStatus {
     public String getDisplayName() {
         return displayName;
     }
+    
+    /**
+     * Whether a booking in this status holds its room for the stay dates
+     * @return true for pending and confirmed bookings
+     */
+    public boolean blocksRoom() {
+        return this == PENDING || this == CONFIRMED;
+    }
+    
+    /**
+     * Whether a booking in this status counts as a sale
+     * @return true for confirmed and completed bookings
+     */
+    public boolean isSold() {
+        return this == CONFIRMED || this == COMPLETED;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,215 @@
+package domain;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Column-oriented storage for large volumes of bookings.
+ * Each booking becomes one row spread over parallel primitive arrays: room and
+ * customer as ordinals into small dictionaries, check-in and check-out as epoch
+ * days, the total price in minor units, and the status ordinal as a byte. Rows are grouped in
+ * fixed-size chunks so growing the store never copies existing data, and the
+ * garbage collector only sees a handful of large arrays per chunk instead of a
+ * full object graph per booking.
+ * <p>
+ * {@link #get(int)} returns a {@link Booking} view that reads its fields from the
+ * columns on demand. Views hold nothing but the store and the row, so they are
+ * cheap to create and discard; status changes made through a view are written
+ * back to the store. Rows are appended by one thread at a time and can be read
+ * from any thread without locking.
+ */
+public final class BookingStore {
+    private static final int CHUNK_SHIFT = 14;
+    private static final int CHUNK_ROWS = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_ROWS - 1;
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+    private static final VarHandle STATUS_BYTES = MethodHandles.arrayElementVarHandle(byte[].class);
+
+    private volatile Chunk[] chunks;
+    private volatile int size;
+    private volatile Room[] rooms;
+    private volatile Customer[] customers;
+    private final Map<Room, Integer> roomOrdinals;
+    private final Map<Customer, Integer> customerOrdinals;
+    private int roomCount;
+    private int customerCount;
+
+    /**
+     * Creates an empty store
+     */
+    public BookingStore() {
+        this.chunks = new Chunk[0];
+        this.rooms = new Room[16];
+        this.customers = new Customer[16];
+        this.roomOrdinals = new IdentityHashMap<>();
+        this.customerOrdinals = new IdentityHashMap<>();
+    }
+
+    /**
+     * Appends a booking as a new row
+     * @param booking The booking to store
+     * @return Row number of the stored booking
+     * @throws IllegalArgumentException if booking is null
+     */
+    public synchronized int append(Booking booking) {
+        if (booking == null) {
+            throw new IllegalArgumentException("Booking cannot be null");
+        }
+        int row = size;
+        Chunk[] current = chunks;
+        int chunkIndex = row >>> CHUNK_SHIFT;
+        if (chunkIndex == current.length) {
+            current = Arrays.copyOf(current, chunkIndex + 1);
+            current[chunkIndex] = new Chunk();
+            chunks = current;
+        }
+        Chunk chunk = current[chunkIndex];
+        int slot = row & CHUNK_MASK;
+        chunk.bookingIds[slot] = booking.getBookingId();
+        chunk.roomOrdinals[slot] = roomOrdinal(booking.getRoom());
+        chunk.customerOrdinals[slot] = customerOrdinal(booking.getCustomer());
+        chunk.checkInDays[slot] = booking.checkInDay();
+        chunk.checkOutDays[slot] = booking.checkOutDay();
+        chunk.totalPrices[slot] = booking.getTotalPriceMinor();
+        chunk.statuses[slot] = (byte) booking.getStatus().ordinal();
+        size = row + 1;
+        return row;
+    }
+
+    /**
+     * Gets a view of a stored booking
+     * @param row Row number returned by {@link #append(Booking)}
+     * @return Booking view backed by the row
+     * @throws IndexOutOfBoundsException if the row does not exist
+     */
+    public Booking get(int row) {
+        checkRow(row);
+        return new StoredBooking(this, row);
+    }
+
+    /**
+     * Gets the number of stored bookings
+     * @return Row count
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds up the total prices of the stored bookings with a status, exactly, in one
+     * pass down each chunk's price and status columns
+     * @param status Status to count, or null to count every row
+     * @return Sum of the total prices in minor units
+     */
+    public long sumTotalPrices(BookingStatus status) {
+        int rows = size;
+        Chunk[] current = chunks;
+        long total = 0;
+        for (int start = 0; start < rows; start += CHUNK_ROWS) {
+            Chunk chunk = current[start >>> CHUNK_SHIFT];
+            int end = Math.min(CHUNK_ROWS, rows - start);
+            long[] prices = chunk.totalPrices;
+            if (status == null) {
+                for (int i = 0; i < end; i++) {
+                    total += prices[i];
+                }
+            } else {
+                byte[] statuses = chunk.statuses;
+                byte wanted = (byte) status.ordinal();
+                for (int i = 0; i < end; i++) {
+                    total += statuses[i] == wanted ? prices[i] : 0;
+                }
+            }
+        }
+        return total;
+    }
+
+    String bookingId(int row) {
+        return chunk(row).bookingIds[row & CHUNK_MASK];
+    }
+
+    Room room(int row) {
+        return rooms[chunk(row).roomOrdinals[row & CHUNK_MASK]];
+    }
+
+    Customer customer(int row) {
+        return customers[chunk(row).customerOrdinals[row & CHUNK_MASK]];
+    }
+
+    int checkInDay(int row) {
+        return chunk(row).checkInDays[row & CHUNK_MASK];
+    }
+
+    int checkOutDay(int row) {
+        return chunk(row).checkOutDays[row & CHUNK_MASK];
+    }
+
+    long totalPrice(int row) {
+        return chunk(row).totalPrices[row & CHUNK_MASK];
+    }
+
+    BookingStatus status(int row) {
+        return STATUSES[(byte) STATUS_BYTES.getVolatile(chunk(row).statuses, row & CHUNK_MASK)];
+    }
+
+    void setStatus(int row, BookingStatus status) {
+        STATUS_BYTES.setVolatile(chunk(row).statuses, row & CHUNK_MASK, (byte) status.ordinal());
+    }
+
+    boolean compareAndSetStatus(int row, BookingStatus expected, BookingStatus next) {
+        return STATUS_BYTES.compareAndSet(chunk(row).statuses, row & CHUNK_MASK,
+            (byte) expected.ordinal(), (byte) next.ordinal());
+    }
+
+    private Chunk chunk(int row) {
+        return chunks[row >>> CHUNK_SHIFT];
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+        }
+    }
+
+    private int roomOrdinal(Room room) {
+        Integer ordinal = roomOrdinals.get(room);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        if (roomCount == rooms.length) {
+            rooms = Arrays.copyOf(rooms, roomCount * 2);
+        }
+        rooms[roomCount] = room;
+        roomOrdinals.put(room, roomCount);
+        return roomCount++;
+    }
+
+    private int customerOrdinal(Customer customer) {
+        Integer ordinal = customerOrdinals.get(customer);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        if (customerCount == customers.length) {
+            customers = Arrays.copyOf(customers, customerCount * 2);
+        }
+        customers[customerCount] = customer;
+        customerOrdinals.put(customer, customerCount);
+        return customerCount++;
+    }
+
+    /**
+     * One block of rows, stored column by column
+     */
+    private static final class Chunk {
+        final String[] bookingIds = new String[CHUNK_ROWS];
+        final int[] roomOrdinals = new int[CHUNK_ROWS];
+        final int[] customerOrdinals = new int[CHUNK_ROWS];
+        final int[] checkInDays = new int[CHUNK_ROWS];
+        final int[] checkOutDays = new int[CHUNK_ROWS];
+        final long[] totalPrices = new long[CHUNK_ROWS];
+        final byte[] statuses = new byte[CHUNK_ROWS];
+    }
+}
@@ -0,0 +1,175 @@
+package domain;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Completes a hotel's confirmed bookings once their check-out date has passed.
+ * <p>
+ * Every booking that becomes confirmed is filed in a bucket for its check-out day.
+ * A run takes the buckets of the days before today and completes the bookings in
+ * them that are still confirmed, so its cost depends only on the bookings checking
+ * out, never on the hotel's whole history. Bookings cancelled or changed after being
+ * filed are skipped when their day comes. The rooms touched by a run are compacted
+ * straight away, moving the completed stays to the hotel's archive.
+ */
+public class CheckoutScheduler implements HotelListener {
+    private final Hotel hotel;
+    private final Clock clock;
+    private final NavigableMap<Integer, List<Booking>> dueByDay;
+    private final LongAdder completed;
+
+    private CheckoutScheduler(Hotel hotel, Clock clock) {
+        this.hotel = hotel;
+        this.clock = clock;
+        this.dueByDay = new TreeMap<>();
+        this.completed = new LongAdder();
+    }
+
+    /**
+     * Creates a scheduler for a hotel that follows the system clock
+     * @param hotel The hotel whose bookings to complete
+     * @return The scheduler, already following the hotel
+     * @throws IllegalArgumentException if hotel is null
+     */
+    public static CheckoutScheduler start(Hotel hotel) {
+        return start(hotel, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Creates a scheduler for a hotel and files its bookings that are already confirmed.
+     * The scheduler starts listening to the hotel only once it is fully built.
+     * @param hotel The hotel whose bookings to complete
+     * @param clock Clock deciding which day it is
+     * @return The scheduler, already following the hotel
+     * @throws IllegalArgumentException if hotel or clock is null
+     */
+    public static CheckoutScheduler start(Hotel hotel, Clock clock) {
+        if (hotel == null) {
+            throw new IllegalArgumentException("Hotel cannot be null");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        CheckoutScheduler scheduler = new CheckoutScheduler(hotel, clock);
+        hotel.addListener(scheduler);
+        for (Room room : hotel.roomsByOrdinal()) {
+            if (room != null) {
+                for (Booking booking : room.getBookings()) {
+                    if (booking.getStatus() == BookingStatus.CONFIRMED && !(booking instanceof StoredBooking)) {
+                        scheduler.file(booking);
+                    }
+                }
+            }
+        }
+        return scheduler;
+    }
+
+    /**
+     * Completes the confirmed bookings whose check-out day is before today
+     * @return Number of bookings completed
+     */
+    public int completeDue() {
+        int today = Booking.toEpochDay(LocalDate.now(clock));
+        List<List<Booking>> due;
+        synchronized (this) {
+            NavigableMap<Integer, List<Booking>> past = dueByDay.headMap(today, false);
+            due = new ArrayList<>(past.values());
+            past.clear();
+        }
+
+        int count = 0;
+        Set<Room> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (List<Booking> bucket : due) {
+            for (Booking booking : bucket) {
+                if (booking.transition(BookingStatus.CONFIRMED, BookingStatus.COMPLETED)) {
+                    touched.add(booking.getRoom());
+                    count++;
+                }
+            }
+        }
+        for (Room room : touched) {
+            if (room.getHotel() == hotel) {
+                room.compact(hotel.archive(), today);
+            }
+        }
+        completed.add(count);
+        return count;
+    }
+
+    /**
+     * Runs {@link #completeDue()} periodically until the returned future is cancelled
+     * @param scheduler Scheduler to run on
+     * @param period Time between runs
+     * @return Future that stops the runs when cancelled
+     * @throws IllegalArgumentException if scheduler is null or period is not positive
+     */
+    public ScheduledFuture<?> schedule(ScheduledExecutorService scheduler, Duration period) {
+        if (scheduler == null) {
+            throw new IllegalArgumentException("Scheduler cannot be null");
+        }
+        if (period == null || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        long nanos = period.toNanos();
+        return scheduler.scheduleWithFixedDelay(this::completeDue, 0, nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Stops following the hotel; bookings already filed are dropped
+     */
+    public synchronized void close() {
+        hotel.removeListener(this);
+        dueByDay.clear();
+    }
+
+    /**
+     * Counts the bookings filed and not yet due; includes any cancelled since filing
+     * @return Number of filed bookings
+     */
+    public synchronized int getScheduledCount() {
+        int count = 0;
+        for (List<Booking> bucket : dueByDay.values()) {
+            count += bucket.size();
+        }
+        return count;
+    }
+
+    /**
+     * Gets how many bookings this scheduler has completed
+     * @return Number of completed bookings
+     */
+    public long getCompletedCount() {
+        return completed.sum();
+    }
+
+    @Override
+    public void bookingAdded(Hotel hotel, Booking booking) {
+        if (booking.getStatus() == BookingStatus.CONFIRMED) {
+            file(booking);
+        }
+    }
+
+    @Override
+    public void bookingStatusChanged(Hotel hotel, Booking booking, BookingStatus previous) {
+        if (booking.getStatus() == BookingStatus.CONFIRMED) {
+            file(booking);
+        }
+    }
+
+    private synchronized void file(Booking booking) {
+        dueByDay.computeIfAbsent(booking.checkOutDay(), day -> new ArrayList<>()).add(booking);
+    }
+}
@@ -0,0 +1,185 @@
+package domain;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Concurrent hash map from positive {@code long} keys to values.
+ * <p>
+ * Keys are spread over independently locked segments, each an open-addressing table
+ * of parallel {@code long[]}/{@code Object[]} arrays, so no key is boxed and no entry
+ * object is allocated. Writers lock only their segment. Readers take no lock: a
+ * writer publishes the value before the key and readers load the key before the
+ * value, and a resized table is published through a volatile field once it is full.
+ * <p>
+ * A removed entry leaves a tombstone that lookups probe past and that is never
+ * reused in place, so a reader that loaded a key never sees the value of another
+ * key stored in the same slot; tombstones are dropped when the table is rebuilt.
+ * @param <V> Value type
+ */
+final class ConcurrentLongMap<V> {
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(Object[].class);
+    private static final int SEGMENT_SHIFT = 6;
+    private static final int SEGMENTS = 1 << SEGMENT_SHIFT;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long TOMBSTONE = -1L;
+
+    private final Segment[] segments;
+
+    ConcurrentLongMap() {
+        this.segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Gets the value stored for a key
+     * @param key A positive key
+     * @return The value, or null if absent
+     */
+    @SuppressWarnings("unchecked")
+    V get(long key) {
+        long hash = mix(key);
+        Table table = segments[(int) (hash >>> (64 - SEGMENT_SHIFT))].table;
+        int mask = table.keys.length - 1;
+        for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+            long slotKey = (long) KEYS.getAcquire(table.keys, i);
+            if (slotKey == key) {
+                return (V) VALUES.getAcquire(table.values, i);
+            }
+            if (slotKey == 0L) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * Stores a value unless the key is already present
+     * @param key A positive key
+     * @param value The value
+     * @return The value already stored, or null if the new value was stored
+     */
+    @SuppressWarnings("unchecked")
+    V putIfAbsent(long key, V value) {
+        long hash = mix(key);
+        Segment segment = segments[(int) (hash >>> (64 - SEGMENT_SHIFT))];
+        synchronized (segment) {
+            Table table = segment.table;
+            int mask = table.keys.length - 1;
+            int i = (int) hash & mask;
+            while (table.keys[i] != 0L) {
+                if (table.keys[i] == key) {
+                    return (V) table.values[i];
+                }
+                i = (i + 1) & mask;
+            }
+            if ((segment.used + 1) * 2 > table.keys.length) {
+                table = segment.rebuild();
+                mask = table.keys.length - 1;
+                i = (int) hash & mask;
+                while (table.keys[i] != 0L) {
+                    i = (i + 1) & mask;
+                }
+            }
+            VALUES.setRelease(table.values, i, value);
+            KEYS.setRelease(table.keys, i, key);
+            segment.size++;
+            segment.used++;
+            return null;
+        }
+    }
+
+    /**
+     * Removes a key if it is stored with the given value
+     * @param key A positive key
+     * @param value The value expected for the key
+     * @return true if the entry was removed
+     */
+    boolean remove(long key, V value) {
+        long hash = mix(key);
+        Segment segment = segments[(int) (hash >>> (64 - SEGMENT_SHIFT))];
+        synchronized (segment) {
+            Table table = segment.table;
+            int mask = table.keys.length - 1;
+            for (int i = (int) hash & mask; table.keys[i] != 0L; i = (i + 1) & mask) {
+                if (table.keys[i] == key) {
+                    if (table.values[i] != value) {
+                        return false;
+                    }
+                    KEYS.setRelease(table.keys, i, TOMBSTONE);
+                    VALUES.setRelease(table.values, i, null);
+                    segment.size--;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Counts the stored entries
+     * @return Number of entries
+     */
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size;
+            }
+        }
+        return size;
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        h *= 0xD6E8FEB86659FD93L;
+        return h ^ (h >>> 32);
+    }
+
+    private static final class Table {
+        final long[] keys;
+        final Object[] values;
+
+        Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new Object[capacity];
+        }
+    }
+
+    private static final class Segment {
+        volatile Table table = new Table(INITIAL_CAPACITY);
+        /** Stored entries */
+        int size;
+        /** Stored entries and tombstones */
+        int used;
+
+        /**
+         * Rehashes the stored entries, without tombstones, into a table twice as large,
+         * or as large as now if most slots held tombstones, and publishes it
+         * @return The new table
+         */
+        Table rebuild() {
+            Table old = table;
+            int capacity = (size + 1) * 4 > old.keys.length ? old.keys.length * 2 : old.keys.length;
+            Table rebuilt = new Table(capacity);
+            int mask = rebuilt.keys.length - 1;
+            for (int j = 0; j < old.keys.length; j++) {
+                long key = old.keys[j];
+                if (key > 0L) {
+                    int i = (int) mix(key) & mask;
+                    while (rebuilt.keys[i] != 0L) {
+                        i = (i + 1) & mask;
+                    }
+                    rebuilt.keys[i] = key;
+                    rebuilt.values[i] = old.values[j];
+                }
+            }
+            table = rebuilt;
+            used = size;
+            return rebuilt;
+        }
+    }
+}
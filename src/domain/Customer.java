@@ -3,13 +3,32 @@ package domain;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
+import metrics.Metrics;
+import metrics.Operation;
+
+/**
+ * Represents a customer and the bookings they have made.
+ * Besides the full booking history, a customer indexes bookings by ID and keeps
+ * them partitioned by status, so cancelling by ID and listing active bookings do
+ * not scan the history.
+ */
 public class Customer {
+    private static final int ACTIVE = 0;
+    private static final int CANCELLED = 1;
+    private static final int COMPLETED = 2;
+    
+
     private final String customerId;
     private String name;
     private String email;
     private String phone;
-    private final List<Booking> bookings;
+    private final BookingLedger bookings;
+    private final Map<String, Booking> bookingsById;
+    private final List<ConcurrentSkipListMap<Integer, Booking>> partitions;
     
     /**
      * Creates a new Customer instance
@@ -29,27 +48,77 @@ public class Customer {
         this.name = name;
         this.email = email;
         this.phone = phone;
-        this.bookings = new ArrayList<>();
+        this.bookings = new BookingLedger();
+        this.bookingsById = new ConcurrentHashMap<>();
+        this.partitions = List.of(new ConcurrentSkipListMap<>(), new ConcurrentSkipListMap<>(),
+            new ConcurrentSkipListMap<>());
     }
     
     /**
      * Adds a booking for this customer
      * @param booking The booking to add
-     * @throws IllegalArgumentException if booking is null
+     * @throws IllegalArgumentException if booking is null or belongs to another customer
      */
     public void addBooking(Booking booking) {
         if (booking == null) {
             throw new IllegalArgumentException("Booking cannot be null");
         }
-        bookings.add(booking);
+        if (booking.getCustomer() != this) {
+            throw new IllegalArgumentException("Booking " + booking.getBookingId() + " is for a different customer");
+        }
+        if (booking instanceof StoredBooking) {
+            throw new IllegalArgumentException("Stored booking " + booking.getBookingId() + " cannot be re-added");
+        }
+        synchronized (partitions) {
+            int slot = bookings.append(booking);
+            bookingsById.putIfAbsent(booking.getBookingId(), booking);
+            booking.markListedInCustomer(slot);
+            partitions.get(partitionOf(booking.getStatus())).put(slot, booking);
+        }
     }
     
     /**
      * Gets all bookings for this customer
-     * @return Unmodifiable list of bookings
+     * @return Read-only snapshot of the bookings made so far; never affected by later additions
      */
     public List<Booking> getBookings() {
-        return Collections.unmodifiableList(bookings);
+        return bookings.snapshot();
+    }
+    
+    /**
+     * Gets the bookings that still hold their room, pending or confirmed
+     * @return Read-only list of active bookings, in the order they were added
+     */
+    public List<Booking> getActiveBookings() {
+        return partition(ACTIVE);
+    }
+    
+    /**
+     * Gets the cancelled bookings
+     * @return Read-only list of cancelled bookings, in the order they were added
+     */
+    public List<Booking> getCancelledBookings() {
+        return partition(CANCELLED);
+    }
+    
+    /**
+     * Gets the completed bookings
+     * @return Read-only list of completed bookings, in the order they were added
+     */
+    public List<Booking> getCompletedBookings() {
+        return partition(COMPLETED);
+    }
+    
+    /**
+     * Finds a booking by ID
+     * @param bookingId ID of the booking
+     * @return The first booking added with that ID, or null if not found
+     */
+    public Booking getBooking(String bookingId) {
+        if (bookingId == null) {
+            return null;
+        }
+        return bookingsById.get(bookingId);
     }
     
     /**
@@ -58,17 +127,49 @@ public class Customer {
      * @return true if cancelled, false if not found
      */
     public boolean cancelBooking(String bookingId) {
-        if (bookingId == null || bookingId.trim().isEmpty()) {
-            return false;
+        long start = Metrics.start();
+        try {
+            if (bookingId == null || bookingId.trim().isEmpty()) {
+                return false;
+            }
+            
+            Booking booking = bookingsById.get(bookingId);
+            if (booking == null) {
+                return false;
+            }
+            booking.cancel();
+            return true;
+        } finally {
+            Metrics.stop(Operation.CUSTOMER_CANCEL_BOOKING, start);
         }
-        
-        for (Booking booking : bookings) {
-            if (booking.getBookingId().equals(bookingId)) {
-                booking.cancel();
-                return true;
+    }
+    
+    /**
+     * Moves a booking to the partition matching its current status
+     * @param booking The booking whose status changed
+     */
+    void bookingStatusChanged(Booking booking) {
+        synchronized (partitions) {
+            int slot = booking.customerSlot();
+            int target = partitionOf(booking.getStatus());
+            for (int i = 0; i < partitions.size(); i++) {
+                if (i != target) {
+                    partitions.get(i).remove(slot);
+                }
             }
+            partitions.get(target).put(slot, booking);
+        }
+    }
+    
+    private List<Booking> partition(int partition) {
+        return Collections.unmodifiableList(new ArrayList<>(partitions.get(partition).values()));
+    }
+    
+    private static int partitionOf(BookingStatus status) {
+        if (status.blocksRoom()) {
+            return ACTIVE;
         }
-        return false;
+        return status == BookingStatus.CANCELLED ? CANCELLED : COMPLETED;
     }
     
     public String getCustomerId() {
@@ -0,0 +1,251 @@
+package domain;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cancels a hotel's pending bookings that are not confirmed within a hold time.
+ * <p>
+ * Holds are kept in a hashed timing wheel: a ring of slots, one per tick, where a
+ * hold is linked into the slot of the tick it expires on. Each run visits only the
+ * slots of the ticks that have passed, so the cost of a run follows the number of
+ * holds expiring rather than the number held. New holds are queued lock-free by the
+ * thread making the booking and moved into the wheel by the next run; no thread or
+ * timer task is created per hold.
+ * <p>
+ * Each booking has at most one current hold. A booking that leaves pending drops
+ * its hold, and one that becomes pending again gets a new hold with a full hold
+ * time; dropped holds stay linked in the wheel and are skipped when their tick
+ * comes. An expiry cancels a booking only if its hold is still current and the
+ * booking still pending, in the same atomic step that {@link Booking#confirm()}
+ * uses, so when a confirmation and an expiry race exactly one of them takes effect.
+ */
+public class HoldExpiry implements HotelListener {
+    private static final int WHEEL_SIZE = 512;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+    private final Hotel hotel;
+    private final Clock clock;
+    private final long holdMillis;
+    private final long tickMillis;
+    private final Queue<Hold> incoming;
+    private final Hold[] wheel;
+    private long currentTick;
+    private final ConcurrentHashMap<Booking, Hold> current;
+    private final AtomicInteger held;
+    private final LongAdder expired;
+
+    private HoldExpiry(Hotel hotel, Duration holdTime, Duration tick, Clock clock) {
+        this.hotel = hotel;
+        this.clock = clock;
+        this.holdMillis = holdTime.toMillis();
+        this.tickMillis = tick.toMillis();
+        this.incoming = new ConcurrentLinkedQueue<>();
+        this.wheel = new Hold[WHEEL_SIZE];
+        this.currentTick = clock.millis() / tickMillis;
+        this.current = new ConcurrentHashMap<>();
+        this.held = new AtomicInteger();
+        this.expired = new LongAdder();
+    }
+
+    /**
+     * Creates a hold expiry for a hotel that ticks once a second on the system clock
+     * @param hotel The hotel whose pending bookings to expire
+     * @param holdTime How long a booking may stay pending
+     * @return The hold expiry, already following the hotel
+     * @throws IllegalArgumentException if hotel is null or holdTime is not positive
+     */
+    public static HoldExpiry start(Hotel hotel, Duration holdTime) {
+        return start(hotel, holdTime, Duration.ofSeconds(1), Clock.systemUTC());
+    }
+
+    /**
+     * Creates a hold expiry for a hotel and starts holding its bookings that are already pending.
+     * The hold expiry starts listening to the hotel only once it is fully built.
+     * @param hotel The hotel whose pending bookings to expire
+     * @param holdTime How long a booking may stay pending
+     * @param tick Resolution of the wheel; a hold may expire up to one tick late
+     * @param clock Clock the hold time is measured on
+     * @return The hold expiry, already following the hotel
+     * @throws IllegalArgumentException if an argument is null or a duration is not positive
+     */
+    public static HoldExpiry start(Hotel hotel, Duration holdTime, Duration tick, Clock clock) {
+        if (hotel == null) {
+            throw new IllegalArgumentException("Hotel cannot be null");
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        if (holdTime == null || holdTime.toMillis() <= 0) {
+            throw new IllegalArgumentException("Hold time must be positive");
+        }
+        if (tick == null || tick.toMillis() <= 0) {
+            throw new IllegalArgumentException("Tick must be positive");
+        }
+        HoldExpiry expiry = new HoldExpiry(hotel, holdTime, tick, clock);
+        hotel.addListener(expiry);
+        for (Room room : hotel.roomsByOrdinal()) {
+            if (room != null) {
+                for (Booking booking : room.getBookings()) {
+                    if (booking.getStatus() == BookingStatus.PENDING && !(booking instanceof StoredBooking)) {
+                        expiry.hold(booking);
+                    }
+                }
+            }
+        }
+        return expiry;
+    }
+
+    /**
+     * Cancels the bookings whose hold has run out and that are still pending
+     * @return Number of bookings cancelled
+     */
+    public int expireDue() {
+        List<Hold> due = new ArrayList<>();
+        synchronized (this) {
+            long nowTick = clock.millis() / tickMillis;
+            for (Hold hold; (hold = incoming.poll()) != null; ) {
+                if (hold.deadlineTick <= currentTick) {
+                    due.add(hold);
+                } else {
+                    int slot = (int) (hold.deadlineTick & WHEEL_MASK);
+                    hold.next = wheel[slot];
+                    wheel[slot] = hold;
+                }
+            }
+            // Every hold left in the wheel expires after currentTick, so only the slots
+            // of the ticks since then can hold anything due; after a full turn, all can.
+            long steps = Math.min(nowTick - currentTick, WHEEL_SIZE);
+            for (long tick = currentTick + 1; tick <= currentTick + steps; tick++) {
+                int slot = (int) (tick & WHEEL_MASK);
+                Hold kept = null;
+                for (Hold hold = wheel[slot]; hold != null; ) {
+                    Hold next = hold.next;
+                    if (hold.deadlineTick <= nowTick) {
+                        due.add(hold);
+                    } else {
+                        hold.next = kept;
+                        kept = hold;
+                    }
+                    hold = next;
+                }
+                wheel[slot] = kept;
+            }
+            if (nowTick > currentTick) {
+                currentTick = nowTick;
+            }
+        }
+
+        int count = 0;
+        for (Hold hold : due) {
+            if (release(hold.booking, hold) && hold.booking.transition(BookingStatus.PENDING, BookingStatus.CANCELLED)) {
+                count++;
+            }
+        }
+        expired.add(count);
+        return count;
+    }
+
+    /**
+     * Runs {@link #expireDue()} once per tick until the returned future is cancelled
+     * @param scheduler Scheduler to run on
+     * @return Future that stops the runs when cancelled
+     * @throws IllegalArgumentException if scheduler is null
+     */
+    public ScheduledFuture<?> schedule(ScheduledExecutorService scheduler) {
+        if (scheduler == null) {
+            throw new IllegalArgumentException("Scheduler cannot be null");
+        }
+        return scheduler.scheduleAtFixedRate(this::expireDue, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops holding new bookings; holds already taken still expire on later runs
+     */
+    public void close() {
+        hotel.removeListener(this);
+    }
+
+    /**
+     * Counts the bookings held pending whose hold has not run out yet
+     * @return Number of holds
+     */
+    public int getHeldCount() {
+        return held.get();
+    }
+
+    /**
+     * Gets how many pending bookings this expiry has cancelled
+     * @return Number of expired holds
+     */
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    @Override
+    public void bookingAdded(Hotel hotel, Booking booking) {
+        if (booking.getStatus() == BookingStatus.PENDING) {
+            hold(booking);
+        }
+    }
+
+    @Override
+    public void bookingStatusChanged(Hotel hotel, Booking booking, BookingStatus previous) {
+        if (booking.getStatus() == BookingStatus.PENDING) {
+            hold(booking);
+        } else if (previous == BookingStatus.PENDING) {
+            Hold hold = current.get(booking);
+            if (hold != null) {
+                release(booking, hold);
+            }
+        }
+    }
+
+    /**
+     * Starts a full hold for a booking, replacing any hold it already has
+     */
+    private void hold(Booking booking) {
+        long deadline = clock.millis() + holdMillis;
+        Hold hold = new Hold(booking, (deadline + tickMillis - 1) / tickMillis);
+        if (current.put(booking, hold) == null) {
+            held.incrementAndGet();
+        }
+        incoming.add(hold);
+    }
+
+    /**
+     * Drops a booking's hold if it is still the current one
+     * @return true if the hold was current
+     */
+    private boolean release(Booking booking, Hold hold) {
+        if (!current.remove(booking, hold)) {
+            return false;
+        }
+        held.decrementAndGet();
+        return true;
+    }
+
+    /**
+     * A booking's hold, linked into the wheel slot of the tick it runs out on
+     */
+    private static final class Hold {
+        final Booking booking;
+        final long deadlineTick;
+        Hold next;
+
+        Hold(Booking booking, long deadlineTick) {
+            this.booking = booking;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
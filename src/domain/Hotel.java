@@ -1,17 +1,57 @@
 package domain;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import metrics.Metrics;
+import metrics.Operation;
 
 /**
- * Represents a hotel with rooms and provides room management functionality
+ * Represents a hotel with rooms and provides room management functionality.
+ * Reservations and searches may run concurrently from many threads: each room
+ * is guarded by its own lock, and adding or removing rooms is serialized
+ * separately so it never blocks reservations on other rooms.
  */
 public class Hotel {
+    /** How often a batch by room type re-chooses rooms taken by concurrent reservations */
+    private static final int BATCH_ATTEMPTS = 3;
+    
     private final String hotelId;
     private String name;
-    private String address;
-    private final List<Room> rooms;
+    private volatile String address;
+    private final Map<String, Room> roomsById;
+    private final OccupancyCalendar occupancy;
+    private final RoomCatalog catalog;
+    private final ReentrantLock structureLock;
+    private final AtomicLong bookingSequence;
+    private final List<HotelListener> listeners;
+    private final BookingRegistry registry;
+    private final BookingStore archive;
+    private final SalesStatistics sales;
+    private volatile AvailabilityCache availabilityCache;
+    private final Clock clock;
+    private volatile Room[] roomsByOrdinal;
+    private int nextOrdinal;
+    /** Ordinals of removed rooms, reused before new ones are taken; guarded by structureLock */
+    private int[] freeOrdinals;
+    private int freeOrdinalCount;
+    /** Times a freed ordinal was handed to another room */
+    private volatile long ordinalReuses;
     
     /**
      * Creates a new Hotel instance
@@ -21,31 +61,114 @@ public class Hotel {
      * @throws IllegalArgumentException if any parameter is null or empty
      */
     public Hotel(String hotelId, String name, String address) {
+        this(hotelId, name, address, null);
+    }
+    
+    /**
+     * Creates a new Hotel instance whose bookings are indexed in a shared registry.
+     * Reservations take their IDs from the registry, and every booking added to one of
+     * the hotel's rooms is registered so it can be found by ID alone.
+     * @param hotelId Unique identifier for the hotel
+     * @param name Name of the hotel
+     * @param address Physical address of the hotel
+     * @param registry Registry to index bookings in, or null to generate IDs per hotel
+     * @throws IllegalArgumentException if any string parameter is null or empty
+     */
+    public Hotel(String hotelId, String name, String address, BookingRegistry registry) {
+        this(hotelId, name, address, registry, Clock.systemDefaultZone());
+    }
+    
+    /**
+     * Creates a new Hotel instance whose bookings are indexed in a shared registry and
+     * whose occupancy horizon follows the given clock
+     * @param hotelId Unique identifier for the hotel
+     * @param name Name of the hotel
+     * @param address Physical address of the hotel
+     * @param registry Registry to index bookings in, or null to generate IDs per hotel
+     * @param clock Clock deciding which day the occupancy horizon starts on
+     * @throws IllegalArgumentException if any string parameter is null or empty, or clock is null
+     */
+    public Hotel(String hotelId, String name, String address, BookingRegistry registry, Clock clock) {
         validateString(hotelId, "Hotel ID");
         validateString(name, "Hotel name");
         validateString(address, "Hotel address");
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
         
         this.hotelId = hotelId;
         this.name = name;
         this.address = address;
-        this.rooms = new ArrayList<>();
+        this.roomsById = new ConcurrentHashMap<>();
+        this.clock = clock;
+        this.occupancy = new OccupancyCalendar(Booking.toEpochDay(LocalDate.now(clock)));
+        this.catalog = new RoomCatalog();
+        this.structureLock = new ReentrantLock();
+        this.bookingSequence = new AtomicLong();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.roomsByOrdinal = new Room[16];
+        this.freeOrdinals = new int[0];
+        this.registry = registry;
+        this.archive = new BookingStore();
+        this.sales = new SalesStatistics(catalog);
     }
     
     /**
      * Adds a room to the hotel
      * @param room The room to add
-     * @throws IllegalArgumentException if room is null or duplicate room ID
+     * @throws IllegalArgumentException if room is null, duplicate room ID or already in another hotel
      */
     public void addRoom(Room room) {
-        if (room == null) {
-            throw new IllegalArgumentException("Room cannot be null");
+        structureLock.lock();
+        try {
+            validateNewRoom(room);
+            if (roomsById.containsKey(room.getRoomId())) {
+                throw new IllegalArgumentException("Room with ID " + room.getRoomId() + " already exists");
+            }
+            
+            ensureOrdinalCapacity(1);
+            register(room);
+            catalog.addAll(List.of(room));
+            invalidateCachedSearches(null);
+        } finally {
+            structureLock.unlock();
+            changesReleased();
         }
-        
-        if (getRoom(room.getRoomId()) != null) {
-            throw new IllegalArgumentException("Room with ID " + room.getRoomId() + " already exists");
+    }
+    
+    /**
+     * Adds several rooms to the hotel in one pass.
+     * All rooms are validated before any is added, so a failed call leaves the hotel unchanged.
+     * @param newRooms The rooms to add
+     * @throws IllegalArgumentException if the collection or any room is null, a room ID is
+     *         duplicated within the batch or the hotel, or a room is already in another hotel
+     */
+    public void addRooms(Collection<Room> newRooms) {
+        if (newRooms == null) {
+            throw new IllegalArgumentException("Rooms cannot be null");
         }
         
-        rooms.add(room);
+        structureLock.lock();
+        try {
+            Set<String> batchIds = new HashSet<>();
+            for (Room room : newRooms) {
+                validateNewRoom(room);
+                if (roomsById.containsKey(room.getRoomId()) || !batchIds.add(room.getRoomId())) {
+                    throw new IllegalArgumentException("Room with ID " + room.getRoomId() + " already exists");
+                }
+            }
+            
+            ensureOrdinalCapacity(newRooms.size());
+            List<Room> added = new ArrayList<>(newRooms);
+            for (Room room : added) {
+                register(room);
+            }
+            catalog.addAll(added);
+            invalidateCachedSearches(null);
+        } finally {
+            structureLock.unlock();
+            changesReleased();
+        }
     }
     
     /**
@@ -55,7 +178,82 @@ public class Hotel {
      */
     public boolean removeRoom(String roomId) {
         validateString(roomId, "Room ID");
-        return rooms.removeIf(room -> room.getRoomId().equals(roomId));
+        structureLock.lock();
+        try {
+            Room room = roomsById.remove(roomId);
+            if (room == null) {
+                return false;
+            }
+            catalog.remove(room);
+            invalidateCachedSearches(null);
+            room.getLock().lock();
+            try {
+                // Clear the room's bits first, so a search that still sees one of them
+                // finds either the room or an empty slot, never another room
+                occupancy.removeRoom(room.getOrdinal());
+                roomsByOrdinal[room.getOrdinal()] = null;
+                freeOrdinal(room.getOrdinal());
+                sales.removeRoom(room);
+                if (registry != null) {
+                    for (Booking booking : room.getBookings()) {
+                        registry.unregister(booking);
+                    }
+                }
+                room.detach();
+                for (HotelListener listener : listeners) {
+                    listener.roomRemoved(this, room);
+                }
+            } finally {
+                room.getLock().unlock();
+            }
+            return true;
+        } finally {
+            structureLock.unlock();
+            changesReleased();
+        }
+    }
+    
+    /**
+     * Reserves a room for a customer as a single atomic step.
+     * The availability check and the insertion of the new pending booking happen
+     * under the room's lock, so two concurrent reservations can never both win the
+     * same dates, while reservations for different rooms never wait on each other.
+     * @param customer Customer making the booking
+     * @param roomId ID of the room to reserve
+     * @param checkIn Check-in date
+     * @param checkOut Check-out date
+     * @return The new booking, in pending status
+     * @throws IllegalArgumentException if parameters are invalid or the room is not in this hotel
+     * @throws IllegalStateException if the room is not available for the dates
+     */
+    public Booking reserve(Customer customer, String roomId, LocalDate checkIn, LocalDate checkOut) {
+        if (customer == null) {
+            throw new IllegalArgumentException("Customer cannot be null");
+        }
+        validateDates(checkIn, checkOut);
+        Room room = getRoom(roomId);
+        if (room == null) {
+            throw new IllegalArgumentException("Room " + roomId + " not found");
+        }
+        
+        Booking booking;
+        ReentrantLock roomLock = room.getLock();
+        roomLock.lock();
+        try {
+            if (room.getHotel() != this) {
+                throw new IllegalArgumentException("Room " + roomId + " not found");
+            }
+            if (!room.isAvailable(checkIn, checkOut)) {
+                throw new IllegalStateException("Room " + roomId + " is not available for the selected dates");
+            }
+            booking = new Booking(nextBookingId(), customer, room, checkIn, checkOut);
+            room.addBooking(booking);
+        } finally {
+            roomLock.unlock();
+            changesReleased();
+        }
+        customer.addBooking(booking);
+        return booking;
     }
     
     /**
@@ -66,16 +264,526 @@ public class Hotel {
      * @throws IllegalArgumentException if dates are null or invalid
      */
     public List<Room> findAvailableRooms(LocalDate checkIn, LocalDate checkOut) {
-        validateDates(checkIn, checkOut);
+        long start = Metrics.start();
+        try {
+            validateDates(checkIn, checkOut);
+            AvailabilityCache cache = availabilityCache;
+            if (cache == null) {
+                return findFreeRooms(checkIn, checkOut, null, Integer.MAX_VALUE);
+            }
+            AvailabilityCache.Key key = new AvailabilityCache.Key(AvailabilityCache.ALL_ROOMS,
+                Booking.toEpochDay(checkIn), Booking.toEpochDay(checkOut), null, 0, 0.0, 0);
+            return searchThroughCache(cache, key, () -> findFreeRooms(checkIn, checkOut, null, Integer.MAX_VALUE));
+        } finally {
+            Metrics.stop(Operation.FIND_AVAILABLE_ROOMS, start);
+        }
+    }
+    
+    /**
+     * Finds available rooms that suit a guest.
+     * Rooms of the wrong type, too small or too expensive are ruled out from the
+     * hotel's sorted room buckets before any availability is checked.
+     * @param checkIn Check-in date
+     * @param checkOut Check-out date
+     * @param type Wanted room type, or null for any type
+     * @param minCapacity Smallest acceptable capacity
+     * @param maxPrice Highest acceptable price per night
+     * @return Available matching rooms, smallest and then cheapest first within each type
+     * @throws IllegalArgumentException if dates are null or invalid
+     */
+    public List<Room> findAvailableRooms(LocalDate checkIn, LocalDate checkOut,
+                                         RoomType type, int minCapacity, double maxPrice) {
+        long start = Metrics.start();
+        try {
+            validateDates(checkIn, checkOut);
+            AvailabilityCache cache = availabilityCache;
+            if (cache == null) {
+                return findMatchingRooms(checkIn, checkOut, type, minCapacity, maxPrice);
+            }
+            AvailabilityCache.Key key = new AvailabilityCache.Key(AvailabilityCache.FILTERED,
+                Booking.toEpochDay(checkIn), Booking.toEpochDay(checkOut), type, minCapacity, maxPrice, 0);
+            return searchThroughCache(cache, key, () -> findMatchingRooms(checkIn, checkOut, type, minCapacity, maxPrice));
+        } finally {
+            Metrics.stop(Operation.FIND_AVAILABLE_ROOMS, start);
+        }
+    }
+
+    private List<Room> findMatchingRooms(LocalDate checkIn, LocalDate checkOut,
+                                         RoomType type, int minCapacity, double maxPrice) {
+        List<Room> candidates = catalog.select(type, minCapacity, maxPrice);
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+        
+        rollCalendar();
+        Room[] byOrdinal = roomsByOrdinal;
+        long[] wanted = new long[(byOrdinal.length + 63) >>> 6];
+        for (Room room : candidates) {
+            int ordinal = room.getOrdinal();
+            if (ordinal >= 0 && ordinal < byOrdinal.length) {
+                wanted[ordinal >>> 6] |= 1L << ordinal;
+            }
+        }
+        long[] free = occupancy.freeRooms(Booking.toEpochDay(checkIn), Booking.toEpochDay(checkOut), wanted);
         
         List<Room> availableRooms = new ArrayList<>();
-        for (Room room : rooms) {
-            if (room.isAvailable(checkIn, checkOut)) {
+        for (Room room : candidates) {
+            if (isFree(room, free, checkIn, checkOut)) {
                 availableRooms.add(room);
             }
         }
         return availableRooms;
     }
+
+    /**
+     * Finds the rooms whose stay for given dates costs the least, nightly rates included.
+     * Rooms without rates of their own are visited in price order and the search stops
+     * at the limit, so only the returned rooms are collected however many others are
+     * free; rooms with rates are priced for the stay and merged in.
+     * @param checkIn Check-in date
+     * @param checkOut Check-out date
+     * @param limit Maximum number of rooms to return
+     * @return Up to limit available rooms, cheapest stay first
+     * @throws IllegalArgumentException if dates are null or invalid, or limit is not positive
+     */
+    public List<Room> findCheapestAvailableRooms(LocalDate checkIn, LocalDate checkOut, int limit) {
+        validateDates(checkIn, checkOut);
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        AvailabilityCache cache = availabilityCache;
+        if (cache == null) {
+            return findCheapestRooms(checkIn, checkOut, limit);
+        }
+        AvailabilityCache.Key key = new AvailabilityCache.Key(AvailabilityCache.CHEAPEST,
+            Booking.toEpochDay(checkIn), Booking.toEpochDay(checkOut), null, 0, 0.0, limit);
+        return searchThroughCache(cache, key, () -> findCheapestRooms(checkIn, checkOut, limit));
+    }
+
+    private List<Room> findCheapestRooms(LocalDate checkIn, LocalDate checkOut, int limit) {
+        rollCalendar();
+        int from = Booking.toEpochDay(checkIn);
+        int to = Booking.toEpochDay(checkOut);
+        long[] free = occupancy.freeRooms(from, to);
+
+        List<Room> cheapest = new ArrayList<>(Math.min(limit, 16));
+        for (Room room : catalog.byPricePerNight()) {
+            if (isFree(room, free, checkIn, checkOut)) {
+                cheapest.add(room);
+                if (cheapest.size() == limit) {
+                    break;
+                }
+            }
+        }
+        Set<Room> rated = catalog.rated();
+        if (rated.isEmpty()) {
+            return cheapest;
+        }
+        // A room with its own rates may undercut any of these, so price every free one;
+        // a room whose rates are just changing may be listed twice
+        Set<Room> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        seen.addAll(cheapest);
+        for (Room room : rated) {
+            if (isFree(room, free, checkIn, checkOut) && seen.add(room)) {
+                cheapest.add(room);
+            }
+        }
+        cheapest.sort(Comparator.comparingLong(room -> room.totalPrice(from, to)));
+        return cheapest.size() <= limit ? cheapest : new ArrayList<>(cheapest.subList(0, limit));
+    }
+
+    /**
+     * Checks a room against the free bits of a stay, or against its own bookings when
+     * the stay is outside the occupancy calendar's horizon
+     */
+    private boolean isFree(Room room, long[] free, LocalDate checkIn, LocalDate checkOut) {
+        int ordinal = room.getOrdinal();
+        return free == null
+            ? room.getHotel() == this && room.isAvailable(checkIn, checkOut)
+            : ordinal >= 0 && (ordinal >>> 6) < free.length && (free[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * Reserves several specific rooms for the same dates as one all-or-nothing step.
+     * The rooms are locked in a fixed order and all checked before any booking is
+     * created, so either every room is booked or none is.
+     * @param customer Customer making the bookings
+     * @param roomIds IDs of the rooms to reserve
+     * @param checkIn Check-in date
+     * @param checkOut Check-out date
+     * @return The new pending bookings, in the order of the room IDs
+     * @throws IllegalArgumentException if parameters are invalid, a room is not in this
+     *         hotel or a room ID is repeated
+     * @throws IllegalStateException if any of the rooms is not available for the dates
+     */
+    public List<Booking> reserveRooms(Customer customer, Collection<String> roomIds,
+                                      LocalDate checkIn, LocalDate checkOut) {
+        if (customer == null) {
+            throw new IllegalArgumentException("Customer cannot be null");
+        }
+        if (roomIds == null || roomIds.isEmpty()) {
+            throw new IllegalArgumentException("Room IDs cannot be null or empty");
+        }
+        validateDates(checkIn, checkOut);
+        
+        List<Room> group = new ArrayList<>(roomIds.size());
+        Set<String> requested = new HashSet<>();
+        for (String roomId : roomIds) {
+            Room room = getRoom(roomId);
+            if (room == null) {
+                throw new IllegalArgumentException("Room " + roomId + " not found");
+            }
+            if (!requested.add(roomId)) {
+                throw new IllegalArgumentException("Room " + roomId + " is requested more than once");
+            }
+            group.add(room);
+        }
+        
+        List<Booking> bookings = reserveGroup(customer, group, checkIn, checkOut);
+        if (bookings == null) {
+            for (Room room : group) {
+                if (room.getHotel() != this) {
+                    throw new IllegalArgumentException("Room " + room.getRoomId() + " not found");
+                }
+            }
+            throw new IllegalStateException("Not all requested rooms are available for the selected dates");
+        }
+        return bookings;
+    }
+    
+    /**
+     * Reserves a number of rooms of one type for the same dates as one all-or-nothing step.
+     * Free rooms are chosen from a single pass over the occupancy calendar, then locked
+     * in a fixed order and rechecked; if another reservation took one of them meanwhile,
+     * the choice is made again.
+     * @param customer Customer making the bookings
+     * @param type Type of room wanted
+     * @param count Number of rooms wanted
+     * @param checkIn Check-in date
+     * @param checkOut Check-out date
+     * @return The new pending bookings
+     * @throws IllegalArgumentException if parameters are invalid
+     * @throws IllegalStateException if fewer than count rooms of the type are available
+     */
+    public List<Booking> reserveRooms(Customer customer, RoomType type, int count,
+                                      LocalDate checkIn, LocalDate checkOut) {
+        if (customer == null) {
+            throw new IllegalArgumentException("Customer cannot be null");
+        }
+        if (type == null) {
+            throw new IllegalArgumentException("Room type cannot be null");
+        }
+        if (count <= 0) {
+            throw new IllegalArgumentException("Room count must be positive");
+        }
+        validateDates(checkIn, checkOut);
+        
+        for (int attempt = 0; attempt < BATCH_ATTEMPTS; attempt++) {
+            List<Room> candidates = findFreeRooms(checkIn, checkOut, type, count);
+            if (candidates.size() < count) {
+                throw new IllegalStateException("Only " + candidates.size() + " " + type.getDisplayName()
+                    + " rooms are available for the selected dates");
+            }
+            List<Booking> bookings = reserveGroup(customer, candidates, checkIn, checkOut);
+            if (bookings != null) {
+                return bookings;
+            }
+        }
+        throw new IllegalStateException("Could not reserve " + count + " " + type.getDisplayName()
+            + " rooms while availability kept changing");
+    }
+    
+    /**
+     * Sets the nightly rate of a range of nights in several rooms at once, such as
+     * for a season. Every room is changed before the search indexes are brought up to
+     * date, so the indexes are updated once for the whole batch rather than per room.
+     * @param roomIds IDs of the rooms
+     * @param from First night at the rate
+     * @param to Day after the last night at the rate
+     * @param price Rate per night
+     * @throws IllegalArgumentException if a room is not in this hotel, a date is null,
+     *         to is not after from or price is not positive, and then no room is changed;
+     *         or if a room's rates would span more than about 180 years, and then that
+     *         room and those after it are not changed
+     * @throws ArithmeticException if a room's rates add up to more than a long holds,
+     *         and then that room and those after it are not changed
+     */
+    public void setRates(Collection<String> roomIds, LocalDate from, LocalDate to, double price) {
+        if (!(price > 0) || Money.ofMajor(price) <= 0) {
+            throw new IllegalArgumentException("Price per night must be positive");
+        }
+        changeRates(roomIds, from, to, Money.ofMajor(price));
+    }
+    
+    /**
+     * Returns a range of nights to the price per night in several rooms at once,
+     * updating the search indexes once for the whole batch
+     * @param roomIds IDs of the rooms
+     * @param from First night to clear
+     * @param to Day after the last night to clear
+     * @throws IllegalArgumentException if a room is not in this hotel, a date is null or
+     *         to is not after from, and then no room is changed
+     */
+    public void clearRates(Collection<String> roomIds, LocalDate from, LocalDate to) {
+        changeRates(roomIds, from, to, Room.NO_RATE);
+    }
+    
+    private void changeRates(Collection<String> roomIds, LocalDate from, LocalDate to, long price) {
+        if (roomIds == null) {
+            throw new IllegalArgumentException("Room IDs cannot be null");
+        }
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        int first = Booking.toEpochDay(from);
+        int end = Booking.toEpochDay(to);
+        if (end <= first) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        if (price != Room.NO_RATE && (long) end - first > RateCalendar.MAX_DAYS) {
+            throw new IllegalArgumentException("Rates cannot span more than " + RateCalendar.MAX_DAYS + " days");
+        }
+        List<Room> rooms = new ArrayList<>(roomIds.size());
+        for (String roomId : roomIds) {
+            Room room = getRoom(roomId);
+            if (room == null) {
+                throw new IllegalArgumentException("Room " + roomId + " not found");
+            }
+            rooms.add(room);
+        }
+        
+        List<Room> changed = new ArrayList<>(rooms.size());
+        try {
+            for (Room room : rooms) {
+                if (room.applyRate(first, end, price) == this) {
+                    changed.add(room);
+                }
+            }
+        } finally {
+            ratesSettled(changed, first, end);
+            changesReleased();
+        }
+    }
+    
+    /**
+     * Records a new pending or confirmed stay in the occupancy calendar
+     * @param room Room of the stay
+     * @param booking Booking that now blocks the room
+     */
+    void stayBlocked(Room room, Booking booking) {
+        occupancy.occupy(room.getOrdinal(), booking.checkInDay(), booking.checkOutDay());
+        invalidateCachedSearches(booking);
+    }
+    
+    /**
+     * Clears a stay that no longer blocks its room from the occupancy calendar
+     * @param room Room of the stay
+     * @param booking Booking that was cancelled or completed
+     */
+    void stayReleased(Room room, Booking booking) {
+        occupancy.release(room.getOrdinal(), room, booking.checkInDay(), booking.checkOutDay());
+        invalidateCachedSearches(booking);
+    }
+    
+    /**
+     * Starts remembering search results so repeated searches for the same dates and
+     * filters skip the availability check. A result is dropped as soon as a stay
+     * overlapping its dates is booked or released, or any room changes, and any
+     * previously enabled cache is discarded.
+     * @param maxEntries Most results kept, least recently used dropped first
+     * @param timeToLive How long a result is kept
+     * @return The new cache, for reading its statistics
+     * @throws IllegalArgumentException if maxEntries or timeToLive is not positive
+     */
+    public AvailabilityCache enableAvailabilityCache(int maxEntries, Duration timeToLive) {
+        if (timeToLive == null) {
+            throw new IllegalArgumentException("Time to live cannot be null");
+        }
+        AvailabilityCache cache = new AvailabilityCache(maxEntries, timeToLive.toNanos());
+        availabilityCache = cache;
+        return cache;
+    }
+
+    /**
+     * Gets the cache of search results
+     * @return The cache, or null if caching is not enabled
+     */
+    public AvailabilityCache getAvailabilityCache() {
+        return availabilityCache;
+    }
+
+    private List<Room> searchThroughCache(AvailabilityCache cache, AvailabilityCache.Key key,
+                                          Supplier<List<Room>> search) {
+        List<Room> cached = cache.get(key);
+        if (cached != null) {
+            return new ArrayList<>(cached);
+        }
+        long generation = cache.generation();
+        List<Room> found = search.get();
+        cache.put(key, found, generation);
+        return found;
+    }
+
+    /**
+     * Drops cached results overlapping a stay, or every cached result if booking is null
+     */
+    private void invalidateCachedSearches(Booking booking) {
+        AvailabilityCache cache = availabilityCache;
+        if (cache == null) {
+            return;
+        }
+        if (booking == null) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(booking.checkInDay(), booking.checkOutDay());
+        }
+    }
+    
+    /**
+     * Registers a listener for address, room and booking changes.
+     * The listener only sees changes made after it was added.
+     * @param listener The listener to add
+     * @throws IllegalArgumentException if listener is null
+     */
+    public void addListener(HotelListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        listeners.add(listener);
+    }
+    
+    /**
+     * Unregisters a listener
+     * @param listener The listener to remove
+     * @return true if the listener was registered
+     */
+    public boolean removeListener(HotelListener listener) {
+        return listeners.remove(listener);
+    }
+    
+    void roomUpdated(Room room) {
+        catalog.update(room);
+        invalidateCachedSearches(null);
+        for (HotelListener listener : listeners) {
+            listener.roomUpdated(this, room);
+        }
+    }
+    
+    /**
+     * Tells listeners that a room's nightly rates changed; called under the room's lock
+     * @param room The room
+     * @param first First changed night
+     * @param end Day after the last changed night
+     */
+    void ratesChanged(Room room, int first, int end) {
+        LocalDate from = LocalDate.ofEpochDay(first);
+        LocalDate to = LocalDate.ofEpochDay(end);
+        for (HotelListener listener : listeners) {
+            listener.ratesChanged(this, room, from, to);
+        }
+    }
+    
+    /**
+     * Brings the search indexes up to date once the nightly rates of some rooms changed:
+     * rooms that gained rates are ranked apart for cheapest-first searches, and cached
+     * results whose stays include a changed night are dropped
+     * @param rooms The rooms whose rates changed
+     * @param first First changed night
+     * @param end Day after the last changed night
+     */
+    void ratesSettled(Collection<Room> rooms, int first, int end) {
+        catalog.markRated(rooms);
+        AvailabilityCache cache = availabilityCache;
+        if (cache != null) {
+            cache.invalidate(first, end - 1);
+        }
+    }
+    
+    /**
+     * Tells listeners about a booking before its room lists it; a listener that throws
+     * keeps the booking from being added
+     * @param booking The booking being added
+     */
+    void bookingAdding(Booking booking) {
+        for (HotelListener listener : listeners) {
+            listener.bookingAdded(this, booking);
+        }
+    }
+    
+    void bookingAdded(Booking booking) {
+        reserveBookingId(booking.getBookingId());
+        if (registry != null) {
+            registry.register(booking);
+        }
+        sales.record(booking);
+    }
+    
+    /**
+     * Drops an archived booking from the shared registry
+     * @param booking The booking, no longer in its room's live log
+     */
+    void bookingArchived(Booking booking) {
+        if (registry != null) {
+            registry.unregister(booking);
+        }
+    }
+    
+    void bookingStatusChanged(Booking booking, BookingStatus previous) {
+        sales.record(booking);
+        for (HotelListener listener : listeners) {
+            listener.bookingStatusChanged(this, booking, previous);
+        }
+    }
+    
+    /**
+     * Tells listeners that the changes this thread reported are complete and the
+     * locks taken for them released
+     */
+    void changesReleased() {
+        for (HotelListener listener : listeners) {
+            listener.changesReleased(this);
+        }
+    }
+    
+    /**
+     * Gets the running sales figures of this hotel's rooms, kept up to date as bookings
+     * are added and change status
+     * @return The hotel's sales statistics
+     */
+    public SalesStatistics getSalesStatistics() {
+        return sales;
+    }
+    
+    /**
+     * Store that this hotel's rooms archive cancelled and completed bookings into
+     */
+    BookingStore archive() {
+        return archive;
+    }
+    
+    /**
+     * Rooms indexed by ordinal; removed rooms leave null slots
+     * @return Shared array that must not be modified
+     */
+    Room[] roomsByOrdinal() {
+        return roomsByOrdinal;
+    }
+    
+    /**
+     * Clock the hotel decides which day it is by
+     * @return The clock given at creation
+     */
+    Clock clock() {
+        return clock;
+    }
+    
+    /**
+     * Catalog of the hotel's rooms by type and price
+     * @return The live catalog
+     */
+    RoomCatalog catalog() {
+        return catalog;
+    }
     
     /**
      * Gets a room by its ID
@@ -86,13 +794,7 @@ public class Hotel {
         if (roomId == null || roomId.trim().isEmpty()) {
             return null;
         }
-        
-        for (Room room : rooms) {
-            if (room.getRoomId().equals(roomId)) {
-                return room;
-            }
-        }
-        return null;
+        return roomsById.get(roomId);
     }
     
     public String getHotelId() {
@@ -114,11 +816,217 @@ public class Hotel {
     
     public void setAddress(String address) {
         validateString(address, "Hotel address");
+        String previous = this.address;
         this.address = address;
+        for (HotelListener listener : listeners) {
+            listener.addressChanged(this, previous);
+        }
+        changesReleased();
     }
     
+    /**
+     * Gets the rooms of the hotel in ordinal order, which is the order they were added
+     * except that a room may take the place of one removed before it
+     * @return Snapshot of the rooms, unaffected by later additions and removals
+     */
     public List<Room> getRooms() {
-        return Collections.unmodifiableList(rooms);
+        List<Room> snapshot = new ArrayList<>(catalog.size());
+        for (Room room : roomsByOrdinal) {
+            if (room != null) {
+                snapshot.add(room);
+            }
+        }
+        return Collections.unmodifiableList(snapshot);
+    }
+    
+    private void validateNewRoom(Room room) {
+        if (room == null) {
+            throw new IllegalArgumentException("Room cannot be null");
+        }
+        if (room.getHotel() != null) {
+            throw new IllegalArgumentException("Room " + room.getRoomId() + " already belongs to a hotel");
+        }
+    }
+    
+    /**
+     * Makes room for rooms about to be registered
+     * @param count Number of rooms to be registered
+     */
+    private void ensureOrdinalCapacity(int count) {
+        int required = nextOrdinal + Math.max(0, count - freeOrdinalCount);
+        if (required > roomsByOrdinal.length) {
+            roomsByOrdinal = Arrays.copyOf(roomsByOrdinal, Math.max(required, roomsByOrdinal.length * 2));
+        }
+    }
+    
+    private void freeOrdinal(int ordinal) {
+        if (freeOrdinalCount == freeOrdinals.length) {
+            freeOrdinals = Arrays.copyOf(freeOrdinals, Math.max(8, freeOrdinals.length * 2));
+        }
+        freeOrdinals[freeOrdinalCount++] = ordinal;
+    }
+    
+    /**
+     * Takes the most recently freed ordinal, or the next unused one, so a hotel whose
+     * rooms keep changing does not grow its bitmaps without bound
+     */
+    private int takeOrdinal() {
+        if (freeOrdinalCount == 0) {
+            return nextOrdinal++;
+        }
+        ordinalReuses++;
+        return freeOrdinals[--freeOrdinalCount];
+    }
+    
+    private void register(Room room) {
+        int ordinal = takeOrdinal();
+        roomsByOrdinal[ordinal] = room;
+        room.getLock().lock();
+        try {
+            room.attach(this, ordinal);
+            occupancy.addRoom(ordinal, room);
+            sales.addRoom(room);
+            for (HotelListener listener : listeners) {
+                listener.roomAdded(this, room);
+            }
+        } finally {
+            room.getLock().unlock();
+        }
+        roomsById.put(room.getRoomId(), room);
+    }
+    
+    /**
+     * Moves the occupancy horizon to start today
+     */
+    private void rollCalendar() {
+        occupancy.rollTo(Booking.toEpochDay(LocalDate.now(clock)), this::roomsByOrdinal);
+    }
+    
+    /**
+     * Collects free rooms in ordinal order from the occupancy calendar, falling back
+     * to per-room checks for dates outside its horizon
+     * @param type Room type to keep, or null for every type
+     * @param limit Maximum number of rooms to return
+     */
+    private List<Room> findFreeRooms(LocalDate checkIn, LocalDate checkOut, RoomType type, int limit) {
+        rollCalendar();
+        
+        List<Room> availableRooms = new ArrayList<>();
+        long reuses = ordinalReuses;
+        long[] free = occupancy.freeRooms(Booking.toEpochDay(checkIn), Booking.toEpochDay(checkOut));
+        // Read after the bits: a room's slot is filled before its bit is set, but the
+        // room may have been removed since, leaving its slot empty. If its ordinal was
+        // handed to another room meanwhile, the bit may describe the old room, so each
+        // room found is checked against its own stays.
+        Room[] byOrdinal = roomsByOrdinal;
+        boolean recheck = ordinalReuses != reuses;
+        if (free == null) {
+            for (Room room : byOrdinal) {
+                if (availableRooms.size() == limit) {
+                    break;
+                }
+                if (room != null && (type == null || room.getType() == type) && room.isAvailable(checkIn, checkOut)) {
+                    availableRooms.add(room);
+                }
+            }
+            return availableRooms;
+        }
+        
+        for (int word = 0; word < free.length && availableRooms.size() < limit; word++) {
+            long bits = free[word];
+            while (bits != 0 && availableRooms.size() < limit) {
+                int ordinal = (word << 6) + Long.numberOfTrailingZeros(bits);
+                Room room = ordinal < byOrdinal.length ? byOrdinal[ordinal] : null;
+                if (room != null && (type == null || room.getType() == type)
+                        && (!recheck || room.isAvailable(checkIn, checkOut))) {
+                    availableRooms.add(room);
+                }
+                bits &= bits - 1;
+            }
+        }
+        return availableRooms;
+    }
+    
+    /**
+     * Books every room of a group or none of them. Room locks are taken in ordinal
+     * order, the same order every batch uses, so concurrent batches cannot deadlock.
+     * @return The bookings in the order of the group, or null if a room was unavailable
+     *         or no longer in this hotel
+     */
+    private List<Booking> reserveGroup(Customer customer, List<Room> group, LocalDate checkIn, LocalDate checkOut) {
+        List<Room> lockOrder = new ArrayList<>(group);
+        lockOrder.sort(Comparator.comparingInt(Room::getOrdinal));
+        List<Booking> bookings = new ArrayList<>(group.size());
+        int locked = 0;
+        try {
+            for (Room room : lockOrder) {
+                room.getLock().lock();
+                locked++;
+            }
+            for (Room room : lockOrder) {
+                if (room.getHotel() != this || !room.isAvailable(checkIn, checkOut)) {
+                    return null;
+                }
+            }
+            try {
+                for (Room room : group) {
+                    Booking booking = new Booking(nextBookingId(), customer, room, checkIn, checkOut);
+                    bookings.add(booking);
+                    room.addBooking(booking);
+                }
+            } catch (RuntimeException e) {
+                rollBack(bookings, e);
+                throw e;
+            }
+        } finally {
+            for (int i = locked - 1; i >= 0; i--) {
+                lockOrder.get(i).getLock().unlock();
+            }
+            changesReleased();
+        }
+        for (Booking booking : bookings) {
+            customer.addBooking(booking);
+        }
+        return bookings;
+    }
+    
+    /**
+     * Releases the rooms held by a partly created group by cancelling its bookings
+     */
+    private void rollBack(List<Booking> bookings, RuntimeException cause) {
+        for (Booking booking : bookings) {
+            try {
+                if (booking.getStatus() != BookingStatus.CANCELLED) {
+                    booking.setStatus(BookingStatus.CANCELLED);
+                }
+            } catch (RuntimeException e) {
+                cause.addSuppressed(e);
+            }
+        }
+    }
+    
+    private String nextBookingId() {
+        if (registry != null) {
+            return registry.nextBookingId();
+        }
+        return hotelId + "-B" + bookingSequence.incrementAndGet();
+    }
+    
+    /**
+     * Keeps generated booking IDs ahead of any hotel-style ID added from outside,
+     * such as bookings restored from a journal
+     */
+    private void reserveBookingId(String bookingId) {
+        String prefix = hotelId + "-B";
+        if (!bookingId.startsWith(prefix)) {
+            return;
+        }
+        try {
+            long issued = Long.parseLong(bookingId.substring(prefix.length()));
+            bookingSequence.accumulateAndGet(issued, Math::max);
+        } catch (NumberFormatException e) {
+            // Not a generated ID
+        }
     }
     
     private void validateString(String value, String fieldName) {
@@ -139,6 +1047,6 @@ public class Hotel {
     @Override
     public String toString() {
         return String.format("Hotel{id='%s', name='%s', address='%s', rooms=%d}", 
-            hotelId, name, address, rooms.size());
+            hotelId, name, address, catalog.size());
     }
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package domain;
+
+import java.lang.ref.WeakReference;
+import java.util.function.ToLongFunction;
+
+import metrics.MetricsRegistry;
+
+/**
+ * Registers gauges describing a hotel with a metrics registry:
+ * {@code hotel.<id>.rooms}, the number of rooms;
+ * {@code hotel.<id>.bookingsPerRoom}, the average length of the rooms' booking
+ * histories, rounded down; and {@code hotel.<id>.pendingHolds}, the pending bookings
+ * holding rooms until confirmed. Room and hold counts are read in constant time; the
+ * average walks the rooms, once per read.
+ * <p>
+ * Gauges refer to their hotel weakly, so a registry that outlives a hotel does not keep
+ * it and its bookings alive; the gauges of a hotel no longer in use read 0.
+ */
+public final class HotelGauges {
+
+    private HotelGauges() {
+    }
+
+    /**
+     * Registers the gauges of a hotel, replacing any registered for a hotel with the same ID
+     * @param registry Registry to register with
+     * @param hotel The hotel
+     * @throws IllegalArgumentException if registry or hotel is null
+     */
+    public static void register(MetricsRegistry registry, Hotel hotel) {
+        if (registry == null || hotel == null) {
+            throw new IllegalArgumentException("Registry and hotel cannot be null");
+        }
+        String prefix = prefix(hotel);
+        WeakReference<Hotel> ref = new WeakReference<>(hotel);
+        registry.registerGauge(prefix + "rooms", () -> read(ref, h -> h.catalog().size()));
+        registry.registerGauge(prefix + "bookingsPerRoom", () -> read(ref, HotelGauges::bookingsPerRoom));
+        registry.registerGauge(prefix + "pendingHolds",
+            () -> read(ref, h -> h.getSalesStatistics().getPendingBookings(null)));
+    }
+
+    /**
+     * Removes the gauges of a hotel
+     * @param registry Registry to remove them from
+     * @param hotel The hotel
+     * @throws IllegalArgumentException if registry or hotel is null
+     */
+    public static void unregister(MetricsRegistry registry, Hotel hotel) {
+        if (registry == null || hotel == null) {
+            throw new IllegalArgumentException("Registry and hotel cannot be null");
+        }
+        String prefix = prefix(hotel);
+        registry.removeGauge(prefix + "rooms");
+        registry.removeGauge(prefix + "bookingsPerRoom");
+        registry.removeGauge(prefix + "pendingHolds");
+    }
+
+    private static String prefix(Hotel hotel) {
+        return "hotel." + hotel.getHotelId() + ".";
+    }
+
+    private static long read(WeakReference<Hotel> ref, ToLongFunction<Hotel> value) {
+        Hotel hotel = ref.get();
+        return hotel == null ? 0 : value.applyAsLong(hotel);
+    }
+
+    private static long bookingsPerRoom(Hotel hotel) {
+        long rooms = 0;
+        long bookings = 0;
+        for (Room room : hotel.roomsByOrdinal()) {
+            if (room != null) {
+                rooms++;
+                bookings += room.getBookings().size();
+            }
+        }
+        return rooms == 0 ? 0 : bookings / rooms;
+    }
+}
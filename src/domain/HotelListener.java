@@ -0,0 +1,86 @@
+package domain;
+
+import java.time.LocalDate;
+
+/**
+ * Receives changes made to a hotel's address, rooms and bookings.
+ * Callbacks run synchronously on the thread making the change, while the affected
+ * room, if any, is locked, so implementations should return quickly and must not
+ * call back into the hotel. Slow work, such as waiting for a disk, belongs in
+ * {@link #changesReleased(Hotel)}. Every method has an empty default so listeners
+ * only override the events they care about.
+ */
+public interface HotelListener {
+
+    /**
+     * Called after the hotel's address has changed
+     * @param hotel The hotel, already showing its new address
+     * @param previous Address before the change
+     */
+    default void addressChanged(Hotel hotel, String previous) {
+    }
+
+    /**
+     * Called after a room has been added to the hotel
+     * @param hotel The hotel
+     * @param room The added room
+     */
+    default void roomAdded(Hotel hotel, Room room) {
+    }
+
+    /**
+     * Called after a room's number, type, price or capacity has changed
+     * @param hotel The hotel
+     * @param room The updated room
+     */
+    default void roomUpdated(Hotel hotel, Room room) {
+    }
+
+    /**
+     * Called after the nightly rates of a range of a room's nights have changed.
+     * A batch rate update across rooms reports each room in turn.
+     * @param hotel The hotel
+     * @param room The room, already showing its new rates
+     * @param from First changed night
+     * @param to Day after the last changed night
+     */
+    default void ratesChanged(Hotel hotel, Room room, LocalDate from, LocalDate to) {
+    }
+
+    /**
+     * Called after a room has been removed from the hotel
+     * @param hotel The hotel
+     * @param room The removed room
+     */
+    default void roomRemoved(Hotel hotel, Room room) {
+    }
+
+    /**
+     * Called when a booking is being added to one of the hotel's rooms, before the room
+     * lists it. A listener that throws, such as a journal that cannot record the
+     * booking, keeps it from being added; listeners called before it have seen it.
+     * @param hotel The hotel
+     * @param booking The booking being added
+     */
+    default void bookingAdded(Hotel hotel, Booking booking) {
+    }
+
+    /**
+     * Called after the status of a booking in one of the hotel's rooms has changed
+     * @param hotel The hotel
+     * @param booking The booking, already showing its new status
+     * @param previous Status before the change
+     */
+    default void bookingStatusChanged(Hotel hotel, Booking booking, BookingStatus previous) {
+    }
+
+    /**
+     * Called on the thread that made one or more of the changes above once it holds
+     * no lock taken for them, so a listener can finish work it put off, such as
+     * waiting for a journal write to reach disk. A batch reservation reports all of
+     * its bookings first and this once.
+     * @param hotel The hotel
+     */
+    default void changesReleased(Hotel hotel) {
+    }
+}
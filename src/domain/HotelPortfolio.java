@@ -0,0 +1,396 @@
+package domain;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import metrics.Metrics;
+import metrics.MetricsRegistry;
+
+/**
+ * A chain of hotels, indexed by ID and by city, that can be searched as one.
+ * <p>
+ * A hotel's city is the last comma-separated part of its address, compared without
+ * regard to case, so "123 Main Street, Karachi" is in the city "Karachi". Hotels
+ * whose address has no comma are in the portfolio but in no city. The portfolio
+ * listens to its hotels and re-indexes one whenever its address changes.
+ * <p>
+ * Searches split the hotels of a city into small groups checked in parallel on a
+ * fork-join pool. All groups share one count of rooms found, so the search stops
+ * starting new hotels once it has enough, and a time limit returns whatever has
+ * been found so far.
+ * <p>
+ * Every hotel in the portfolio has its {@link HotelGauges} registered with the
+ * portfolio's metrics registry, from when it is added until it is removed.
+ */
+public class HotelPortfolio implements HotelListener {
+    /** Hotels a single search task checks before splitting further */
+    private static final int HOTELS_PER_TASK = 4;
+    private static final Hotel[] NO_HOTELS = new Hotel[0];
+
+    private final ForkJoinPool pool;
+    private final MetricsRegistry metrics;
+    private final Map<String, Hotel> hotelsById;
+    private final Map<String, Hotel[]> hotelsByCity;
+    /** City each hotel is indexed under; guarded by this portfolio */
+    private final Map<Hotel, String> indexedCities;
+
+    /**
+     * Creates an empty portfolio searched on the common fork-join pool
+     */
+    public HotelPortfolio() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates an empty portfolio searched on the given pool
+     * @param pool Pool to run searches on
+     * @throws IllegalArgumentException if pool is null
+     */
+    public HotelPortfolio(ForkJoinPool pool) {
+        this(pool, Metrics.registry());
+    }
+
+    /**
+     * Creates an empty portfolio searched on the given pool
+     * @param pool Pool to run searches on
+     * @param metrics Registry to register the gauges of the portfolio's hotels with
+     * @throws IllegalArgumentException if pool or metrics is null
+     */
+    public HotelPortfolio(ForkJoinPool pool, MetricsRegistry metrics) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Pool cannot be null");
+        }
+        if (metrics == null) {
+            throw new IllegalArgumentException("Metrics registry cannot be null");
+        }
+        this.pool = pool;
+        this.metrics = metrics;
+        this.hotelsById = new ConcurrentHashMap<>();
+        this.hotelsByCity = new ConcurrentHashMap<>();
+        this.indexedCities = new IdentityHashMap<>();
+    }
+
+    /**
+     * Adds a hotel to the portfolio, indexes it by city and registers its gauges
+     * @param hotel The hotel to add
+     * @throws IllegalArgumentException if hotel is null or a hotel with the same ID exists
+     */
+    public synchronized void addHotel(Hotel hotel) {
+        if (hotel == null) {
+            throw new IllegalArgumentException("Hotel cannot be null");
+        }
+        if (hotelsById.putIfAbsent(hotel.getHotelId(), hotel) != null) {
+            throw new IllegalArgumentException("Hotel with ID " + hotel.getHotelId() + " already exists");
+        }
+        hotel.addListener(this);
+        reindex(hotel);
+        HotelGauges.register(metrics, hotel);
+    }
+
+    /**
+     * Removes a hotel from the portfolio and unregisters its gauges
+     * @param hotelId ID of the hotel to remove
+     * @return true if the hotel was removed, false if not found
+     */
+    public synchronized boolean removeHotel(String hotelId) {
+        Hotel hotel = hotelId == null ? null : hotelsById.remove(hotelId);
+        if (hotel == null) {
+            return false;
+        }
+        hotel.removeListener(this);
+        unindex(indexedCities.remove(hotel), hotel);
+        HotelGauges.unregister(metrics, hotel);
+        return true;
+    }
+
+    /**
+     * Gets a hotel by its ID
+     * @param hotelId The hotel ID
+     * @return The hotel if found, null otherwise
+     */
+    public Hotel getHotel(String hotelId) {
+        return hotelId == null ? null : hotelsById.get(hotelId);
+    }
+
+    public List<Hotel> getHotels() {
+        return List.copyOf(hotelsById.values());
+    }
+
+    /**
+     * Gets the hotels in a city
+     * @param city City name, in any case
+     * @return The hotels, in the order they were added to the city
+     */
+    public List<Hotel> getHotelsInCity(String city) {
+        return List.of(hotelsIn(city));
+    }
+
+    /**
+     * Finds available rooms across the hotels of a city, without a time limit
+     * @param city City to search, or null to search every hotel
+     * @param checkIn Check-in date
+     * @param checkOut Check-out date
+     * @param limit Maximum number of rooms to return
+     * @return Up to limit available rooms, each hotel contributing those whose stay costs
+     *         least, in no particular order
+     * @throws IllegalArgumentException if dates are null or invalid, or limit is not positive
+     */
+    public List<Room> findAvailableRooms(String city, LocalDate checkIn, LocalDate checkOut, int limit) {
+        return findAvailableRooms(city, checkIn, checkOut, limit, null);
+    }
+
+    /**
+     * Finds available rooms across the hotels of a city.
+     * Hotels are checked in parallel and the search stops starting new hotels once
+     * limit rooms are found. If the time limit passes first, the rooms found so far
+     * are returned and hotels not yet started are skipped.
+     * @param city City to search, or null to search every hotel
+     * @param checkIn Check-in date
+     * @param checkOut Check-out date
+     * @param limit Maximum number of rooms to return
+     * @param timeout Longest time to wait for results, or null to wait until the search ends
+     * @return Up to limit available rooms, each hotel contributing those whose stay costs
+     *         least, in no particular order
+     * @throws IllegalArgumentException if dates are null or invalid, limit is not positive
+     *         or timeout is negative
+     */
+    public List<Room> findAvailableRooms(String city, LocalDate checkIn, LocalDate checkOut,
+                                         int limit, Duration timeout) {
+        if (checkIn == null || checkOut == null) {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        if (!checkOut.isAfter(checkIn)) {
+            throw new IllegalArgumentException("Check-out date must be after check-in date");
+        }
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Limit must be positive");
+        }
+        if (timeout != null && timeout.isNegative()) {
+            throw new IllegalArgumentException("Timeout cannot be negative");
+        }
+
+        Hotel[] hotels = city == null ? hotelsById.values().toArray(NO_HOTELS) : hotelsIn(city);
+        Results results = new Results(limit);
+        if (hotels.length == 0) {
+            return results.toList();
+        }
+        ForkJoinTask<Void> search = pool.submit(new Search(hotels, 0, hotels.length, checkIn, checkOut, results));
+        try {
+            if (timeout == null) {
+                search.get();
+            } else {
+                search.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            results.stop();
+        } catch (InterruptedException e) {
+            results.stop();
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Search failed", cause);
+        }
+        return results.toList();
+    }
+
+    /**
+     * Re-indexes a hotel under the city of its new address
+     */
+    @Override
+    public synchronized void addressChanged(Hotel hotel, String previous) {
+        if (hotelsById.get(hotel.getHotelId()) != hotel) {
+            return;
+        }
+        reindex(hotel);
+    }
+
+    /**
+     * Moves a hotel from the city it is indexed under to the city of its current
+     * address. The address is read here rather than taken from the event, so a change
+     * that raced with adding the hotel, and was already indexed, is a no-op.
+     */
+    private void reindex(Hotel hotel) {
+        String city = cityOf(hotel.getAddress());
+        String key = city == null ? null : cityKey(city);
+        String indexed = indexedCities.get(hotel);
+        if (indexedCities.containsKey(hotel) && Objects.equals(indexed, key)) {
+            return;
+        }
+        unindex(indexed, hotel);
+        index(key, hotel);
+        indexedCities.put(hotel, key);
+    }
+
+    /**
+     * Extracts the city from an address
+     * @param address The address
+     * @return The trimmed last comma-separated part, or null if there is none
+     */
+    static String cityOf(String address) {
+        if (address == null) {
+            return null;
+        }
+        int comma = address.lastIndexOf(',');
+        if (comma < 0) {
+            return null;
+        }
+        String city = address.substring(comma + 1).trim();
+        return city.isEmpty() ? null : city;
+    }
+
+    private Hotel[] hotelsIn(String city) {
+        if (city == null) {
+            return NO_HOTELS;
+        }
+        return hotelsByCity.getOrDefault(cityKey(city.trim()), NO_HOTELS);
+    }
+
+    private void index(String key, Hotel hotel) {
+        if (key == null) {
+            return;
+        }
+        Hotel[] current = hotelsByCity.getOrDefault(key, NO_HOTELS);
+        for (Hotel indexed : current) {
+            if (indexed == hotel) {
+                return;
+            }
+        }
+        Hotel[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = hotel;
+        hotelsByCity.put(key, next);
+    }
+
+    private void unindex(String key, Hotel hotel) {
+        if (key == null) {
+            return;
+        }
+        Hotel[] current = hotelsByCity.getOrDefault(key, NO_HOTELS);
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == hotel) {
+                if (current.length == 1) {
+                    hotelsByCity.remove(key);
+                    return;
+                }
+                Hotel[] next = new Hotel[current.length - 1];
+                System.arraycopy(current, 0, next, 0, i);
+                System.arraycopy(current, i + 1, next, i, next.length - i);
+                hotelsByCity.put(key, next);
+                return;
+            }
+        }
+    }
+
+    private static String cityKey(String city) {
+        return city.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Rooms found by the tasks of one search. Each hotel claims room slots with a
+     * single atomic add, so no room beyond the limit is ever kept.
+     */
+    private static final class Results {
+        final int limit;
+        final AtomicInteger claimed;
+        final Queue<Room> rooms;
+        volatile boolean stopped;
+
+        Results(int limit) {
+            this.limit = limit;
+            this.claimed = new AtomicInteger();
+            this.rooms = new ConcurrentLinkedQueue<>();
+        }
+
+        boolean isDone() {
+            return stopped || claimed.get() >= limit;
+        }
+
+        int remaining() {
+            return limit - claimed.get();
+        }
+
+        void offer(List<Room> found) {
+            if (found.isEmpty()) {
+                return;
+            }
+            int start = claimed.getAndAdd(found.size());
+            int keep = Math.min(found.size(), limit - start);
+            for (int i = 0; i < keep; i++) {
+                rooms.add(found.get(i));
+            }
+        }
+
+        void stop() {
+            stopped = true;
+        }
+
+        List<Room> toList() {
+            return new ArrayList<>(rooms);
+        }
+    }
+
+    /**
+     * Checks a range of hotels, halving it until it is small enough to check directly
+     */
+    private static final class Search extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Hotel[] hotels;
+        private final int from;
+        private final int to;
+        private final LocalDate checkIn;
+        private final LocalDate checkOut;
+        private final transient Results results;
+
+        Search(Hotel[] hotels, int from, int to, LocalDate checkIn, LocalDate checkOut, Results results) {
+            this.hotels = hotels;
+            this.from = from;
+            this.to = to;
+            this.checkIn = checkIn;
+            this.checkOut = checkOut;
+            this.results = results;
+        }
+
+        @Override
+        protected void compute() {
+            if (results.isDone()) {
+                return;
+            }
+            if (to - from <= HOTELS_PER_TASK) {
+                for (int i = from; i < to; i++) {
+                    int remaining = results.remaining();
+                    if (results.stopped || remaining <= 0) {
+                        return;
+                    }
+                    results.offer(hotels[i].findCheapestAvailableRooms(checkIn, checkOut, remaining));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new Search(hotels, from, middle, checkIn, checkOut, results),
+                new Search(hotels, middle, to, checkIn, checkOut, results));
+        }
+    }
+}
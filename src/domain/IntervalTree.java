@@ -0,0 +1,228 @@
+package domain;
+
+/**
+ * Interval index over the blocking stays of a single room.
+ * Stays are closed ranges of epoch days ordered by (start, booking sequence),
+ * and every node carries the largest end day of its subtree so an overlap
+ * query only descends into subtrees that can still contain a hit.
+ * Nodes are immutable: updates copy the search path and publish a new root,
+ * so readers never need a lock and always see a consistent tree.
+ */
+final class IntervalTree {
+    private volatile Node root;
+
+    /**
+     * Adds a stay to the index, replacing any entry for the same booking
+     * @param booking The booking to index
+     * @param start First occupied epoch day
+     * @param end Last occupied epoch day
+     */
+    synchronized void insert(Booking booking, int start, int end) {
+        root = insert(root, booking, start, end);
+    }
+
+    /**
+     * Removes a stay from the index
+     * @param booking The booking to remove
+     * @param start First occupied epoch day the booking was indexed with
+     * @return true if the booking was indexed
+     */
+    synchronized boolean remove(Booking booking, int start) {
+        Node current = root;
+        Node updated = remove(current, start, booking.sequence());
+        if (updated == current) {
+            return false;
+        }
+        root = updated;
+        return true;
+    }
+
+    /**
+     * Checks whether any indexed stay overlaps the given closed range
+     * @param from First epoch day of the range
+     * @param to Last epoch day of the range
+     * @return true if at least one stay overlaps
+     */
+    boolean overlaps(int from, int to) {
+        Node node = root;
+        while (node != null) {
+            if (node.maxEnd < from) {
+                return false;
+            }
+            if (node.left != null && node.left.maxEnd >= from) {
+                // Anything overlapping on the right would start later, so the
+                // left subtree is the only place worth looking if it can match.
+                if (node.start <= to && node.end >= from) {
+                    return true;
+                }
+                node = node.left;
+            } else {
+                if (node.start > to) {
+                    return false;
+                }
+                if (node.end >= from) {
+                    return true;
+                }
+                node = node.right;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Visits every indexed stay that overlaps the given closed range, in start order.
+     * Subtrees ending before the range are skipped, as are those starting after it.
+     * @param from First epoch day of the range
+     * @param to Last epoch day of the range
+     * @param visitor Receives the days of each overlapping stay
+     */
+    void forEachOverlap(int from, int to, StayVisitor visitor) {
+        forEachOverlap(root, from, to, visitor);
+    }
+
+    private static void forEachOverlap(Node node, int from, int to, StayVisitor visitor) {
+        if (node == null || node.maxEnd < from) {
+            return;
+        }
+        forEachOverlap(node.left, from, to, visitor);
+        if (node.start > to) {
+            return;
+        }
+        if (node.end >= from) {
+            visitor.visit(node.start, node.end);
+        }
+        forEachOverlap(node.right, from, to, visitor);
+    }
+
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : 1 + size(node.left) + size(node.right);
+    }
+
+    private static Node insert(Node node, Booking booking, int start, int end) {
+        if (node == null) {
+            return new Node(booking, start, end, null, null);
+        }
+        int cmp = compare(start, booking.sequence(), node);
+        if (cmp == 0) {
+            return new Node(booking, start, end, node.left, node.right);
+        }
+        if (cmp < 0) {
+            return balance(node.with(insert(node.left, booking, start, end), node.right));
+        }
+        return balance(node.with(node.left, insert(node.right, booking, start, end)));
+    }
+
+    private static Node remove(Node node, int start, long sequence) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(start, sequence, node);
+        if (cmp < 0) {
+            Node left = remove(node.left, start, sequence);
+            return left == node.left ? node : balance(node.with(left, node.right));
+        }
+        if (cmp > 0) {
+            Node right = remove(node.right, start, sequence);
+            return right == node.right ? node : balance(node.with(node.left, right));
+        }
+        if (node.left == null) {
+            return node.right;
+        }
+        if (node.right == null) {
+            return node.left;
+        }
+        Node successor = node.right;
+        while (successor.left != null) {
+            successor = successor.left;
+        }
+        Node right = remove(node.right, successor.start, successor.booking.sequence());
+        return balance(new Node(successor.booking, successor.start, successor.end, node.left, right));
+    }
+
+    private static int compare(int start, long sequence, Node node) {
+        if (start != node.start) {
+            return start < node.start ? -1 : 1;
+        }
+        return Long.compare(sequence, node.booking.sequence());
+    }
+
+    private static int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private static Node balance(Node node) {
+        int diff = height(node.left) - height(node.right);
+        if (diff > 1) {
+            Node left = node.left;
+            if (height(left.left) < height(left.right)) {
+                left = rotateLeft(left);
+            }
+            return rotateRight(node.with(left, node.right));
+        }
+        if (diff < -1) {
+            Node right = node.right;
+            if (height(right.right) < height(right.left)) {
+                right = rotateRight(right);
+            }
+            return rotateLeft(node.with(node.left, right));
+        }
+        return node;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node right = node.right;
+        return right.with(node.with(node.left, right.left), right.right);
+    }
+
+    private static Node rotateRight(Node node) {
+        Node left = node.left;
+        return left.with(left.left, node.with(left.right, node.right));
+    }
+
+    /**
+     * Receives the days of an indexed stay
+     */
+    @FunctionalInterface
+    interface StayVisitor {
+        void visit(int start, int end);
+    }
+
+    private static final class Node {
+        final Booking booking;
+        final int start;
+        final int end;
+        final Node left;
+        final Node right;
+        final int height;
+        final int maxEnd;
+
+        Node(Booking booking, int start, int end, Node left, Node right) {
+            this.booking = booking;
+            this.start = start;
+            this.end = end;
+            this.left = left;
+            this.right = right;
+            this.height = 1 + Math.max(IntervalTree.height(left), IntervalTree.height(right));
+            int max = end;
+            if (left != null && left.maxEnd > max) {
+                max = left.maxEnd;
+            }
+            if (right != null && right.maxEnd > max) {
+                max = right.maxEnd;
+            }
+            this.maxEnd = max;
+        }
+
+        Node with(Node left, Node right) {
+            return new Node(booking, start, end, left, right);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package domain;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.NumberFormat;
+import java.util.Currency;
+import java.util.Locale;
+
+/**
+ * Amounts of money held as a primitive {@code long} count of minor units, such as
+ * paise or cents, at {@value #MINOR_UNITS} minor units to the major unit.
+ * <p>
+ * Prices and totals are whole numbers of minor units everywhere inside the library,
+ * so sums are exact and need no rounding however many are added. Conversion from
+ * and to {@code double} major units, and formatting with a currency, are meant for
+ * the edges: reading user input and showing amounts.
+ */
+public final class Money {
+    /** Minor units in one major unit */
+    public static final int MINOR_UNITS = 100;
+
+    private Money() {
+    }
+
+    /**
+     * Converts an amount in major units, rounding to the nearest minor unit, ties to even
+     * @param major Amount in major units, such as 149.99
+     * @return Amount in minor units
+     * @throws IllegalArgumentException if major is not finite or too large for a long
+     */
+    public static long ofMajor(double major) {
+        double minor = Math.rint(major * MINOR_UNITS);
+        if (Double.isNaN(minor) || Math.abs(minor) >= 0x1p63) {
+            throw new IllegalArgumentException("Amount out of range: " + major);
+        }
+        return (long) minor;
+    }
+
+    /**
+     * Converts an amount in minor units to major units
+     * @param minor Amount in minor units
+     * @return Amount in major units, exact for amounts below 2^53 minor units
+     */
+    public static double toMajor(long minor) {
+        return (double) minor / MINOR_UNITS;
+    }
+
+    /**
+     * Finds the largest amount in minor units that is not more than an amount in major
+     * units, for comparing against limits given in major units
+     * @param major Limit in major units
+     * @return Largest amount in minor units whose major value is at most major, or
+     *         Long.MIN_VALUE if major is NaN
+     */
+    static long atMost(double major) {
+        if (major >= 0x1p63 / MINOR_UNITS) {
+            return Long.MAX_VALUE;
+        }
+        if (!(major > -0x1p63 / MINOR_UNITS)) {
+            return Long.MIN_VALUE;
+        }
+        long minor = ofMajor(major);
+        return toMajor(minor) > major ? minor - 1 : minor;
+    }
+
+    /**
+     * Multiplies an amount by a count
+     * @param minor Amount in minor units
+     * @param count Multiplier, such as a number of nights
+     * @return The product in minor units
+     * @throws ArithmeticException if the product overflows a long
+     */
+    public static long times(long minor, int count) {
+        return Math.multiplyExact(minor, (long) count);
+    }
+
+    /**
+     * Adds up amounts exactly, in a plain loop over the primitive array
+     * @param minor Amounts in minor units
+     * @return The total in minor units
+     * @throws IllegalArgumentException if minor is null
+     */
+    public static long sum(long[] minor) {
+        if (minor == null) {
+            throw new IllegalArgumentException("Amounts cannot be null");
+        }
+        long total = 0;
+        for (long amount : minor) {
+            total += amount;
+        }
+        return total;
+    }
+
+    /**
+     * Formats an amount with a currency's symbol for a locale, showing the currency's
+     * own number of decimals and rounding half to even when it has fewer than two
+     * @param minor Amount in minor units
+     * @param currency Currency to show
+     * @param locale Locale deciding the symbol and separators
+     * @return The formatted amount, such as "₹1,499.00" or "¥1,499"
+     * @throws IllegalArgumentException if currency or locale is null
+     */
+    public static String format(long minor, Currency currency, Locale locale) {
+        if (currency == null || locale == null) {
+            throw new IllegalArgumentException("Currency and locale cannot be null");
+        }
+        // Pseudo-currencies such as XXX have no decimals of their own
+        int digits = currency.getDefaultFractionDigits() < 0 ? 2 : currency.getDefaultFractionDigits();
+        NumberFormat format = NumberFormat.getCurrencyInstance(locale);
+        format.setCurrency(currency);
+        format.setRoundingMode(RoundingMode.HALF_EVEN);
+        format.setMinimumFractionDigits(digits);
+        format.setMaximumFractionDigits(digits);
+        return format.format(BigDecimal.valueOf(minor, 2));
+    }
+
+    /**
+     * Formats an amount as plain major units with two decimals, such as "1499.00"
+     * @param minor Amount in minor units
+     * @return The formatted amount
+     */
+    public static String format(long minor) {
+        return BigDecimal.valueOf(minor, 2).toPlainString();
+    }
+}
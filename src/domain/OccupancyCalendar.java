@@ -0,0 +1,250 @@
+package domain;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Per-night occupancy bitmaps for every room of a hotel.
+ * Each calendar day within a rolling horizon holds one bit per room ordinal,
+ * packed into {@code long} words. A bit is set while the room has a pending or
+ * confirmed stay covering that day, so a multi-night search is the OR of the
+ * nightly bitmaps followed by a single pass over the words.
+ * <p>
+ * Storage is split into one {@link Word} per 64 ordinals, each holding the
+ * bits of its rooms for every day of the horizon in a ring buffer indexed by
+ * epoch day modulo the horizon. Words never move once created, so bits are
+ * updated with atomic OR/AND and rooms in different words never touch the
+ * same memory. Stay updates and searches share a read lock; only moving the
+ * horizon forward takes the write lock.
+ */
+final class OccupancyCalendar {
+    static final int HORIZON_DAYS = 730;
+
+    private static final VarHandle DAY_BITS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile Word[] words;
+    private volatile int firstDay;
+
+    /**
+     * Creates an empty calendar
+     * @param firstDay First epoch day covered by the horizon
+     */
+    OccupancyCalendar(int firstDay) {
+        this.firstDay = firstDay;
+        this.words = new Word[0];
+    }
+
+    /**
+     * Registers a room ordinal and copies the room's stays within the horizon into
+     * the bitmaps, visiting only those its stay index holds for the horizon rather
+     * than its whole booking history.
+     * Callers serialize structural changes and hold the room's lock.
+     * @param ordinal Ordinal assigned by the hotel
+     * @param room The room occupying the ordinal
+     */
+    void addRoom(int ordinal, Room room) {
+        ensureCapacity(ordinal);
+        Word word = words[ordinal >>> 6];
+        long[] days = word.days;
+        long bit = 1L << ordinal;
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            int first = firstDay;
+            int last = first + HORIZON_DAYS - 1;
+            room.forEachStay(first, last, (start, end) -> {
+                for (int day = Math.max(start, first), stop = Math.min(end, last); day <= stop; day++) {
+                    DAY_BITS.getAndBitwiseOr(days, slot(day), bit);
+                }
+            });
+        } finally {
+            read.unlock();
+        }
+        word.live |= bit;
+    }
+
+    /**
+     * Unregisters a room ordinal and clears all of its nightly bits.
+     * Callers serialize structural changes and hold the room's lock.
+     * @param ordinal Ordinal of the removed room
+     */
+    void removeRoom(int ordinal) {
+        Word word = words[ordinal >>> 6];
+        long mask = ~(1L << ordinal);
+        word.live &= mask;
+        for (int slot = 0; slot < HORIZON_DAYS; slot++) {
+            DAY_BITS.getAndBitwiseAnd(word.days, slot, mask);
+        }
+    }
+
+    /**
+     * Marks a room as occupied for every covered day of a stay
+     * @param ordinal Room ordinal
+     * @param from First occupied epoch day
+     * @param to Last occupied epoch day
+     */
+    void occupy(int ordinal, int from, int to) {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            int first = firstDay;
+            int end = Math.min(to, first + HORIZON_DAYS - 1);
+            long[] days = words[ordinal >>> 6].days;
+            long bit = 1L << ordinal;
+            for (int day = Math.max(from, first); day <= end; day++) {
+                DAY_BITS.getAndBitwiseOr(days, slot(day), bit);
+            }
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /**
+     * Clears a released stay, keeping days still covered by another stay of the room
+     * @param ordinal Room ordinal
+     * @param room The room, consulted for its remaining stays
+     * @param from First epoch day of the released stay
+     * @param to Last epoch day of the released stay
+     */
+    void release(int ordinal, Room room, int from, int to) {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            int first = firstDay;
+            int end = Math.min(to, first + HORIZON_DAYS - 1);
+            long[] days = words[ordinal >>> 6].days;
+            long mask = ~(1L << ordinal);
+            for (int day = Math.max(from, first); day <= end; day++) {
+                if (!room.isOccupied(day)) {
+                    DAY_BITS.getAndBitwiseAnd(days, slot(day), mask);
+                }
+            }
+        } finally {
+            read.unlock();
+        }
+    }
+
+    /**
+     * Moves the horizon forward so it starts at the given day.
+     * Days that enter the horizon are rebuilt from the rooms' own stay indexes.
+     * @param today New first epoch day
+     * @param roomsByOrdinal Supplies the rooms by ordinal, with null for unused ordinals;
+     *        read once the horizon is locked, so rooms added before then are included
+     */
+    void rollTo(int today, Supplier<Room[]> roomsByOrdinal) {
+        if (today <= firstDay) {
+            return;
+        }
+        Lock write = lock.writeLock();
+        write.lock();
+        try {
+            int oldEnd = firstDay + HORIZON_DAYS;
+            if (today <= firstDay) {
+                return;
+            }
+            int newEnd = today + HORIZON_DAYS;
+            Room[] rooms = roomsByOrdinal.get();
+            Word[] current = words;
+            for (int day = Math.max(oldEnd, today); day < newEnd; day++) {
+                int slot = slot(day);
+                for (int w = 0; w < current.length; w++) {
+                    long bits = 0L;
+                    int limit = Math.min(rooms.length, (w + 1) << 6);
+                    for (int ordinal = w << 6; ordinal < limit; ordinal++) {
+                        Room room = rooms[ordinal];
+                        if (room != null && room.isOccupied(day)) {
+                            bits |= 1L << ordinal;
+                        }
+                    }
+                    DAY_BITS.setVolatile(current[w].days, slot, bits);
+                }
+            }
+            firstDay = today;
+        } finally {
+            write.unlock();
+        }
+    }
+
+    /**
+     * Computes the rooms that are free on every day of a range
+     * @param from First epoch day
+     * @param to Last epoch day
+     * @return Bit words with one set bit per free room ordinal,
+     *         or null if the range is not inside the horizon
+     */
+    long[] freeRooms(int from, int to) {
+        return freeRooms(from, to, null);
+    }
+
+    /**
+     * Computes which of the candidate rooms are free on every day of a range.
+     * Bit words without any candidate are skipped without reading their days.
+     * @param from First epoch day
+     * @param to Last epoch day
+     * @param candidates Bit words with one set bit per candidate ordinal, or null for every room
+     * @return Bit words with one set bit per free candidate,
+     *         or null if the range is not inside the horizon
+     */
+    long[] freeRooms(int from, int to, long[] candidates) {
+        Lock read = lock.readLock();
+        read.lock();
+        try {
+            if (from < firstDay || to >= firstDay + HORIZON_DAYS) {
+                return null;
+            }
+            Word[] current = words;
+            long[] free = new long[current.length];
+            int fromSlot = slot(from);
+            int nights = to - from + 1;
+            for (int w = 0; w < current.length; w++) {
+                long wanted = candidates == null ? -1L : w < candidates.length ? candidates[w] : 0L;
+                if (wanted == 0L) {
+                    continue;
+                }
+                Word word = current[w];
+                long occupied = 0L;
+                int slot = fromSlot;
+                for (int i = 0; i < nights; i++) {
+                    occupied |= (long) DAY_BITS.getAcquire(word.days, slot);
+                    if (++slot == HORIZON_DAYS) {
+                        slot = 0;
+                    }
+                }
+                free[w] = word.live & wanted & ~occupied;
+            }
+            return free;
+        } finally {
+            read.unlock();
+        }
+    }
+
+    private void ensureCapacity(int ordinal) {
+        int required = (ordinal >>> 6) + 1;
+        Word[] current = words;
+        if (required <= current.length) {
+            return;
+        }
+        Word[] grown = Arrays.copyOf(current, required);
+        for (int i = current.length; i < required; i++) {
+            grown[i] = new Word();
+        }
+        words = grown;
+    }
+
+    private static int slot(int day) {
+        return Math.floorMod(day, HORIZON_DAYS);
+    }
+
+    /**
+     * Bits of 64 consecutive room ordinals for every day of the horizon
+     */
+    private static final class Word {
+        final long[] days = new long[HORIZON_DAYS];
+        volatile long live;
+    }
+}
@@ -0,0 +1,184 @@
+package domain;
+
+import java.util.Arrays;
+
+/**
+ * Nightly rates, in minor units, that override a room's base price on particular days.
+ * <p>
+ * Rates are kept for a window of consecutive epoch days together with two running
+ * totals: the sum of the overriding rates and the number of overridden nights up to
+ * each day. The price of any stay is then the base price for the nights that are not
+ * overridden plus the overriding rates of the rest, both found with one subtraction
+ * each, whatever the length of the stay. Calendars are immutable; a change builds a
+ * new one, re-summing only from the first changed day.
+ */
+final class RateCalendar {
+    /** Widest window of days a calendar covers, about 180 years */
+    static final int MAX_DAYS = 1 << 16;
+    /** Rate of a day priced at the base price */
+    static final long NO_RATE = -1;
+    static final RateCalendar EMPTY = new RateCalendar(0, new long[0]);
+
+    private final int firstDay;
+    private final long[] rates;
+    private final long[] rateSums;
+    private final int[] ratedNights;
+
+    /**
+     * @param firstDay Epoch day of the first rate
+     * @param rates Rate per day, NO_RATE for days priced at the base price; not copied
+     */
+    private RateCalendar(int firstDay, long[] rates) {
+        this.firstDay = firstDay;
+        this.rates = rates;
+        this.rateSums = new long[rates.length + 1];
+        this.ratedNights = new int[rates.length + 1];
+        sumFrom(0);
+    }
+
+    private RateCalendar(int firstDay, long[] rates, RateCalendar previous, int unchangedDays) {
+        this.firstDay = firstDay;
+        this.rates = rates;
+        this.rateSums = Arrays.copyOf(previous.rateSums, rates.length + 1);
+        this.ratedNights = Arrays.copyOf(previous.ratedNights, rates.length + 1);
+        sumFrom(unchangedDays);
+    }
+
+    private void sumFrom(int day) {
+        for (int i = day; i < rates.length; i++) {
+            boolean rated = rates[i] != NO_RATE;
+            rateSums[i + 1] = Math.addExact(rateSums[i], rated ? rates[i] : 0);
+            ratedNights[i + 1] = ratedNights[i] + (rated ? 1 : 0);
+        }
+    }
+
+    /**
+     * Prices the nights from one day up to, but not including, another
+     * @param from First night
+     * @param to Day after the last night
+     * @param basePrice Price of a night without its own rate
+     * @return Total price in minor units
+     * @throws ArithmeticException if the total overflows a long
+     */
+    long total(int from, int to, long basePrice) {
+        int a = index(from);
+        int b = index(to);
+        int rated = ratedNights[b] - ratedNights[a];
+        // Running sums never overflow, so only the base-priced nights and the final sum can
+        return Math.addExact(rateSums[b] - rateSums[a], Money.times(basePrice, (to - from) - rated));
+    }
+
+    /**
+     * Gets the rate of one night
+     * @param day The night
+     * @param basePrice Price of a night without its own rate
+     * @return The night's rate, or basePrice if it has none
+     */
+    long rate(int day, long basePrice) {
+        int i = day - firstDay;
+        if (i < 0 || i >= rates.length || rates[i] == NO_RATE) {
+            return basePrice;
+        }
+        return rates[i];
+    }
+
+    /**
+     * Builds a calendar with the nights from one day up to, but not including, another set to a rate
+     * @param from First night
+     * @param to Day after the last night
+     * @param rate The rate, or NO_RATE to return the nights to the base price
+     * @return The new calendar
+     * @throws IllegalArgumentException if the calendar would span more than {@link #MAX_DAYS} days
+     * @throws ArithmeticException if the rates add up to more than a long holds
+     */
+    RateCalendar with(int from, int to, long rate) {
+        if (rate == NO_RATE) {
+            from = Math.max(from, firstDay);
+            to = Math.min(to, firstDay + rates.length);
+            if (from >= to) {
+                return this;
+            }
+        }
+        int start = rates.length == 0 ? from : Math.min(firstDay, from);
+        int end = rates.length == 0 ? to : Math.max(firstDay + rates.length, to);
+        if ((long) end - start > MAX_DAYS) {
+            throw new IllegalArgumentException("Rates cannot span more than " + MAX_DAYS + " days");
+        }
+        long[] next = new long[end - start];
+        if (rates.length == 0) {
+            Arrays.fill(next, rate);
+            return new RateCalendar(start, next);
+        }
+        Arrays.fill(next, NO_RATE);
+        System.arraycopy(rates, 0, next, firstDay - start, rates.length);
+        Arrays.fill(next, from - start, to - start, rate);
+        if (start != firstDay) {
+            return new RateCalendar(start, next);
+        }
+        return new RateCalendar(start, next, this, Math.min(from - start, rates.length));
+    }
+
+    /**
+     * Builds a calendar with the nights from one day on set to the given rates
+     * @param from First night
+     * @param nightly Rate of each night in turn, NO_RATE for a night at the base price
+     * @return The new calendar
+     * @throws IllegalArgumentException if the calendar would span more than {@link #MAX_DAYS} days
+     * @throws ArithmeticException if the rates add up to more than a long holds
+     */
+    RateCalendar with(int from, long[] nightly) {
+        if (nightly.length == 0) {
+            return this;
+        }
+        int to = from + nightly.length;
+        int start = rates.length == 0 ? from : Math.min(firstDay, from);
+        int end = rates.length == 0 ? to : Math.max(firstDay + rates.length, to);
+        if ((long) end - start > MAX_DAYS) {
+            throw new IllegalArgumentException("Rates cannot span more than " + MAX_DAYS + " days");
+        }
+        long[] next = new long[end - start];
+        Arrays.fill(next, NO_RATE);
+        System.arraycopy(rates, 0, next, Math.max(0, firstDay - start), rates.length);
+        System.arraycopy(nightly, 0, next, from - start, nightly.length);
+        if (rates.length == 0 || start != firstDay) {
+            return new RateCalendar(start, next);
+        }
+        return new RateCalendar(start, next, this, Math.min(from - start, rates.length));
+    }
+
+    /**
+     * Gets the rates of the nights from one day up to, but not including, another
+     * @param from First night
+     * @param to Day after the last night
+     * @return Each night's own rate, NO_RATE for a night at the base price
+     */
+    long[] rates(int from, int to) {
+        long[] nightly = new long[to - from];
+        Arrays.fill(nightly, NO_RATE);
+        int a = Math.max(from, firstDay);
+        int b = Math.min(to, firstDay + rates.length);
+        if (a < b) {
+            System.arraycopy(rates, a - firstDay, nightly, a - from, b - a);
+        }
+        return nightly;
+    }
+
+    /**
+     * @return Epoch day of the first night the calendar covers
+     */
+    int firstDay() {
+        return firstDay;
+    }
+
+    /**
+     * @return Epoch day after the last night the calendar covers
+     */
+    int endDay() {
+        return firstDay + rates.length;
+    }
+
+    private int index(int day) {
+        int i = day - firstDay;
+        return i < 0 ? 0 : Math.min(i, rates.length);
+    }
+}
@@ -1,17 +1,31 @@
 package domain;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.AbstractList;
 import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+import metrics.Metrics;
+import metrics.Operation;
 
 public class Room {
+    /** Stands for a night without a rate of its own, priced at the price per night */
+    public static final long NO_RATE = RateCalendar.NO_RATE;
+    
     private final String roomId;
     private String roomNumber;
-    private RoomType type;
-    private double pricePerNight;
-    private int capacity;
-    private final List<Booking> bookings;
+    private volatile RoomType type;
+    private volatile long pricePerNight;
+    private volatile RateCalendar rates = RateCalendar.EMPTY;
+    private volatile int capacity;
+    private volatile History history;
+    private final IntervalTree activeStays;
+    private volatile int prunedBefore = Integer.MIN_VALUE;
+    private final ReentrantLock lock;
+    private volatile Hotel hotel;
+    private volatile int ordinal = -1;
     
     /**
      * Creates a new Room instance
@@ -23,6 +37,10 @@ public class Room {
      * @throws IllegalArgumentException if parameters are invalid
      */
     public Room(String roomId, String roomNumber, RoomType type, double pricePerNight, int capacity) {
+        this(roomId, roomNumber, type, capacity, toMinorPrice(pricePerNight, "Price per night must be positive"));
+    }
+    
+    private Room(String roomId, String roomNumber, RoomType type, int capacity, long pricePerNight) {
         validateString(roomId, "Room ID");
         validateString(roomNumber, "Room number");
         if (type == null) {
@@ -40,7 +58,24 @@ public class Room {
         this.type = type;
         this.pricePerNight = pricePerNight;
         this.capacity = capacity;
-        this.bookings = new ArrayList<>();
+        this.history = new History(new BookingLedger(), null, new BookingLedger(), 0);
+        this.activeStays = new IntervalTree();
+        this.lock = new ReentrantLock();
+    }
+    
+    /**
+     * Creates a new Room priced in minor units
+     * @param roomId Unique identifier for the room
+     * @param roomNumber Display number for the room
+     * @param type Type of room
+     * @param pricePerNightMinor Price per night in minor units
+     * @param capacity Maximum occupancy
+     * @return The room
+     * @throws IllegalArgumentException if parameters are invalid
+     */
+    public static Room ofMinorPrice(String roomId, String roomNumber, RoomType type,
+                                    long pricePerNightMinor, int capacity) {
+        return new Room(roomId, roomNumber, type, capacity, pricePerNightMinor);
     }
     
     /**
@@ -50,34 +85,233 @@ public class Room {
      * @return true if available, false otherwise
      */
     public boolean isAvailable(LocalDate checkIn, LocalDate checkOut) {
-        if (checkIn == null || checkOut == null) {
-            throw new IllegalArgumentException("Dates cannot be null");
-        }
-        if (checkOut.isBefore(checkIn) || checkOut.equals(checkIn)) {
-            throw new IllegalArgumentException("Check-out must be after check-in");
-        }
-        
-        for (Booking booking : bookings) {
-            if (booking.getStatus() == BookingStatus.CONFIRMED || 
-                booking.getStatus() == BookingStatus.PENDING) {
-                if (datesOverlap(checkIn, checkOut, booking.getCheckInDate(), booking.getCheckOutDate())) {
-                    return false;
-                }
+        long start = Metrics.start();
+        try {
+            if (checkIn == null || checkOut == null) {
+                throw new IllegalArgumentException("Dates cannot be null");
+            }
+            int from = Booking.toEpochDay(checkIn);
+            int to = Booking.toEpochDay(checkOut);
+            if (to <= from) {
+                throw new IllegalArgumentException("Check-out must be after check-in");
             }
+            
+            return !overlapsStay(from, to);
+        } finally {
+            Metrics.stop(Operation.ROOM_IS_AVAILABLE, start);
         }
-        return true;
     }
     
     /**
      * Adds a booking to this room
      * @param booking The booking to add
-     * @throws IllegalArgumentException if booking is null
+     * @throws IllegalArgumentException if booking is null or belongs to another room
      */
     public void addBooking(Booking booking) {
         if (booking == null) {
             throw new IllegalArgumentException("Booking cannot be null");
         }
-        bookings.add(booking);
+        if (booking.getRoom() != this) {
+            throw new IllegalArgumentException("Booking " + booking.getBookingId() + " is for a different room");
+        }
+        if (booking instanceof StoredBooking) {
+            throw new IllegalArgumentException("Stored booking " + booking.getBookingId() + " cannot be re-added");
+        }
+        Hotel owner = null;
+        lock.lock();
+        try {
+            owner = hotel;
+            if (owner != null) {
+                // Listeners, such as a journal, record the booking before it is published,
+                // so a listener that fails keeps it from being added at all
+                owner.bookingAdding(booking);
+            }
+            history.live.append(booking);
+            booking.markListedInRoom();
+            if (booking.getStatus().blocksRoom()) {
+                indexStay(booking);
+            }
+            if (owner != null) {
+                owner.bookingAdded(booking);
+            }
+        } finally {
+            lock.unlock();
+            released(owner);
+        }
+    }
+    
+    /**
+     * Checks whether a pending or confirmed stay covers the given day
+     * @param epochDay Day to check
+     * @return true if the room is occupied that day
+     */
+    boolean isOccupied(int epochDay) {
+        return overlapsStay(epochDay, epochDay);
+    }
+    
+    /**
+     * Checks the blocking stays against a closed range of days. Stays pruned from the
+     * interval index all end before {@code prunedBefore}, so only ranges starting
+     * before that day also scan the live bookings.
+     */
+    private boolean overlapsStay(int from, int to) {
+        if (activeStays.overlaps(from, to)) {
+            return true;
+        }
+        if (from >= prunedBefore) {
+            return false;
+        }
+        for (Booking booking : history.live.snapshot()) {
+            if (booking.getStatus().blocksRoom() && booking.checkInDay() <= to && booking.checkOutDay() >= from) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Visits the blocking stays that overlap a closed range of days. Like
+     * {@link #overlapsStay}, only ranges starting before {@code prunedBefore} also
+     * scan the live bookings, for the stays no longer in the interval index.
+     * @param from First epoch day of the range
+     * @param to Last epoch day of the range
+     * @param visitor Receives the first and last occupied day of each stay
+     */
+    void forEachStay(int from, int to, IntervalTree.StayVisitor visitor) {
+        activeStays.forEachOverlap(from, to, visitor);
+        int pruned = prunedBefore;
+        if (from >= pruned) {
+            return;
+        }
+        for (Booking booking : history.live.snapshot()) {
+            if (booking.getStatus().blocksRoom() && booking.checkOutDay() < pruned
+                    && booking.checkInDay() <= to && booking.checkOutDay() >= from) {
+                visitor.visit(booking.checkInDay(), booking.checkOutDay());
+            }
+        }
+    }
+    
+    /**
+     * Moves cancelled and completed bookings from the live log to an archive, and
+     * drops stays that ended before a given day from the interval index. The room is
+     * locked for one pass over its live bookings; archived bookings are appended to
+     * the room's archived log and never copied again.
+     * @param archive Store to archive into, unless this room already archives elsewhere
+     * @param pastDay Stays ending before this epoch day are no longer indexed
+     * @return Number of bookings archived
+     */
+    int compact(BookingStore archive, int pastDay) {
+        lock.lock();
+        try {
+            History current = history;
+            BookingStore store = current.archive != null ? current.archive : archive;
+            List<Booking> live = current.live.snapshot();
+            BookingLedger kept = new BookingLedger();
+            int archived = 0;
+            for (Booking booking : live) {
+                if (!booking.getStatus().blocksRoom()) {
+                    booking.markArchived(store.append(booking));
+                    current.archived.append(booking);
+                    archived++;
+                    Hotel owner = hotel;
+                    if (owner != null) {
+                        owner.bookingArchived(booking);
+                    }
+                } else {
+                    if (booking.checkOutDay() < pastDay) {
+                        activeStays.remove(booking, booking.checkInDay());
+                    }
+                    kept.append(booking);
+                }
+            }
+            if (pastDay > prunedBefore) {
+                prunedBefore = pastDay;
+            }
+            if (archived > 0) {
+                // Readers of the previous history still see only its own archived prefix
+                history = new History(kept, store, current.archived, current.archivedCount + archived);
+            }
+            return archived;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    /**
+     * Lock guarding this room's bookings; held while checking and inserting a reservation
+     * @return The room's lock
+     */
+    ReentrantLock getLock() {
+        return lock;
+    }
+    
+    Hotel getHotel() {
+        return hotel;
+    }
+    
+    int getOrdinal() {
+        return ordinal;
+    }
+    
+    void attach(Hotel hotel, int ordinal) {
+        this.hotel = hotel;
+        this.ordinal = ordinal;
+    }
+    
+    void detach() {
+        this.hotel = null;
+        this.ordinal = -1;
+    }
+    
+    /**
+     * Keeps the availability index in step with a booking's status and reports the change to the hotel.
+     * Called by {@link Booking} whenever the status of a listed booking changes.
+     * @param booking The booking whose status changed
+     * @param previous Status before the change
+     */
+    void bookingStatusChanged(Booking booking, BookingStatus previous) {
+        boolean wasBlocking = previous.blocksRoom();
+        boolean isBlocking = booking.getStatus().blocksRoom();
+        Hotel owner = null;
+        lock.lock();
+        try {
+            if (booking.archivedRow() >= 0) {
+                history.archive.setStatus(booking.archivedRow(), booking.getStatus());
+            }
+            owner = hotel;
+            if (isBlocking && !wasBlocking) {
+                indexStay(booking);
+            } else if (wasBlocking && !isBlocking) {
+                activeStays.remove(booking, booking.checkInDay());
+                if (owner != null) {
+                    owner.stayReleased(this, booking);
+                }
+            }
+            if (owner != null) {
+                owner.bookingStatusChanged(booking, previous);
+            }
+        } finally {
+            lock.unlock();
+            released(owner);
+        }
+    }
+    
+    /**
+     * Reports a change's locks as released, unless the caller still holds this room's
+     * lock as part of a larger change, such as a reservation, that reports it itself
+     */
+    private void released(Hotel owner) {
+        if (owner != null && !lock.isHeldByCurrentThread()) {
+            owner.changesReleased();
+        }
+    }
+    
+    private void indexStay(Booking booking) {
+        activeStays.insert(booking, booking.checkInDay(), booking.checkOutDay());
+        Hotel owner = hotel;
+        if (owner != null) {
+            owner.stayBlocked(this, booking);
+        }
     }
     
     /**
@@ -87,14 +321,221 @@ public class Room {
      * @throws IllegalArgumentException if nights is not positive
      */
     public double calculateTotalPrice(int nights) {
+        return Money.toMajor(calculateTotalPriceMinor(nights));
+    }
+    
+    /**
+     * Calculates total price for given number of nights in minor units
+     * @param nights Number of nights
+     * @return Total price in minor units
+     * @throws IllegalArgumentException if nights is not positive
+     */
+    public long calculateTotalPriceMinor(int nights) {
         if (nights <= 0) {
             throw new IllegalArgumentException("Nights must be positive");
         }
-        return pricePerNight * nights;
+        return Money.times(pricePerNight, nights);
+    }
+    
+    /**
+     * Calculates the total price of a stay from the nightly rates, falling back to the
+     * price per night for nights without a rate of their own
+     * @param checkIn Check-in date, the first night charged
+     * @param checkOut Check-out date, not charged
+     * @return Total price
+     * @throws IllegalArgumentException if a date is null or check-out is not after check-in
+     */
+    public double calculateTotalPrice(LocalDate checkIn, LocalDate checkOut) {
+        return Money.toMajor(calculateTotalPriceMinor(checkIn, checkOut));
+    }
+    
+    /**
+     * Calculates the total price of a stay in minor units, as
+     * {@link #calculateTotalPrice(LocalDate, LocalDate)} does
+     * @param checkIn Check-in date, the first night charged
+     * @param checkOut Check-out date, not charged
+     * @return Total price in minor units
+     * @throws IllegalArgumentException if a date is null or check-out is not after check-in
+     */
+    public long calculateTotalPriceMinor(LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null || checkOut == null) {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        int from = Booking.toEpochDay(checkIn);
+        int to = Booking.toEpochDay(checkOut);
+        if (to <= from) {
+            throw new IllegalArgumentException("Check-out must be after check-in");
+        }
+        return totalPrice(from, to);
+    }
+    
+    /**
+     * Prices the nights from one epoch day up to, but not including, another in
+     * constant time and without allocating
+     */
+    long totalPrice(int from, int to) {
+        return rates.total(from, to, pricePerNight);
+    }
+    
+    /**
+     * Sets the nightly rate for a range of nights, replacing the price per night on them
+     * @param from First night at the rate
+     * @param to Day after the last night at the rate
+     * @param price Rate per night
+     * @throws IllegalArgumentException if a date is null, to is not after from, price is
+     *         not positive or the room's rates would span more than about 180 years
+     * @throws ArithmeticException if the room's rates add up to more than a long holds
+     */
+    public void setRate(LocalDate from, LocalDate to, double price) {
+        changeRates(from, to, toMinorPrice(price, "Price per night must be positive"));
+    }
+    
+    /**
+     * Returns a range of nights to the price per night
+     * @param from First night to clear
+     * @param to Day after the last night to clear
+     * @throws IllegalArgumentException if a date is null or to is not after from
+     */
+    public void clearRate(LocalDate from, LocalDate to) {
+        changeRates(from, to, RateCalendar.NO_RATE);
+    }
+    
+    /**
+     * Gets the price of one night
+     * @param night The night
+     * @return The night's own rate, or the price per night if it has none
+     * @throws IllegalArgumentException if night is null
+     */
+    public double getRate(LocalDate night) {
+        if (night == null) {
+            throw new IllegalArgumentException("Date cannot be null");
+        }
+        return Money.toMajor(rates.rate(Booking.toEpochDay(night), pricePerNight));
+    }
+    
+    /**
+     * Gets the first night of the window the room's nightly rates are kept for
+     * @return The first night, or null if the room never had a rate of its own
+     */
+    public LocalDate getRatesFrom() {
+        RateCalendar current = rates;
+        return current == RateCalendar.EMPTY ? null : LocalDate.ofEpochDay(current.firstDay());
+    }
+    
+    /**
+     * Gets the day after the last night of the window the room's nightly rates are kept for
+     * @return The day after the last night, or null if the room never had a rate of its own
+     */
+    public LocalDate getRatesTo() {
+        RateCalendar current = rates;
+        return current == RateCalendar.EMPTY ? null : LocalDate.ofEpochDay(current.endDay());
+    }
+    
+    /**
+     * Gets the nightly rates of a range of nights in minor units
+     * @param from First night
+     * @param to Day after the last night
+     * @return Each night's own rate, or {@link #NO_RATE} for a night at the price per night
+     * @throws IllegalArgumentException if a date is null or to is not after from
+     */
+    public long[] getRatesMinor(LocalDate from, LocalDate to) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        int first = Booking.toEpochDay(from);
+        int end = Booking.toEpochDay(to);
+        if (end <= first) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        if ((long) end - first > RateCalendar.MAX_DAYS) {
+            throw new IllegalArgumentException("Rates cannot span more than " + RateCalendar.MAX_DAYS + " days");
+        }
+        return rates.rates(first, end);
+    }
+    
+    /**
+     * Sets the nightly rates of consecutive nights in minor units, as read by
+     * {@link #getRatesMinor(LocalDate, LocalDate)}
+     * @param from First night
+     * @param ratesMinor Rate of each night in turn, or {@link #NO_RATE} to return a night to the price per night
+     * @throws IllegalArgumentException if from or ratesMinor is null, a rate is neither
+     *         positive nor NO_RATE, or the room's rates would span more than about 180 years
+     * @throws ArithmeticException if the room's rates add up to more than a long holds
+     */
+    public void setRatesMinor(LocalDate from, long[] ratesMinor) {
+        if (from == null || ratesMinor == null) {
+            throw new IllegalArgumentException("Start date and rates cannot be null");
+        }
+        if (ratesMinor.length == 0) {
+            return;
+        }
+        for (long rate : ratesMinor) {
+            if (rate <= 0 && rate != NO_RATE) {
+                throw new IllegalArgumentException("Price per night must be positive");
+            }
+        }
+        long[] copy = ratesMinor.clone();
+        int first = Booking.toEpochDay(from);
+        int end = Booking.toEpochDay(from.plusDays(copy.length));
+        Hotel owner = publishRates(first, end, current -> current.with(first, copy));
+        settle(owner, first, end);
+    }
+    
+    private void changeRates(LocalDate from, LocalDate to, long price) {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Dates cannot be null");
+        }
+        int first = Booking.toEpochDay(from);
+        int end = Booking.toEpochDay(to);
+        if (end <= first) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        settle(applyRate(first, end, price), first, end);
     }
     
-    private boolean datesOverlap(LocalDate start1, LocalDate end1, LocalDate start2, LocalDate end2) {
-        return !end1.isBefore(start2) && !start1.isAfter(end2);
+    /**
+     * Sets the nightly rate of a range of nights and reports the change to the hotel's
+     * listeners, leaving the hotel's search indexes to the caller
+     * @param first First night
+     * @param end Day after the last night
+     * @param price Rate in minor units, or NO_RATE
+     * @return The room's hotel, or null if it has none
+     */
+    Hotel applyRate(int first, int end, long price) {
+        return publishRates(first, end, current -> current.with(first, end, price));
+    }
+    
+    private Hotel publishRates(int first, int end, UnaryOperator<RateCalendar> change) {
+        lock.lock();
+        try {
+            RateCalendar next = change.apply(rates);
+            rates = next;
+            Hotel owner = hotel;
+            // Clearing nights outside the calendar changes nothing, so only its window is reported
+            int from = Math.max(first, next.firstDay());
+            int to = Math.min(end, next.endDay());
+            if (owner != null && from < to) {
+                owner.ratesChanged(this, from, to);
+            }
+            return owner;
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void settle(Hotel owner, int first, int end) {
+        if (owner != null) {
+            owner.ratesSettled(List.of(this), first, end);
+            released(owner);
+        }
+    }
+    
+    /**
+     * Whether any night has, or once had, a rate of its own; stays of a room without
+     * one cost the price per night times the nights
+     */
+    boolean hasRates() {
+        return rates != RateCalendar.EMPTY;
     }
     
     public String getRoomId() {
@@ -108,6 +549,7 @@ public class Room {
     public void setRoomNumber(String roomNumber) {
         validateString(roomNumber, "Room number");
         this.roomNumber = roomNumber;
+        fireUpdated();
     }
     
     public RoomType getType() {
@@ -119,17 +561,48 @@ public class Room {
             throw new IllegalArgumentException("Room type cannot be null");
         }
         this.type = type;
+        fireUpdated();
     }
     
     public double getPricePerNight() {
+        return Money.toMajor(pricePerNight);
+    }
+    
+    /**
+     * Gets the price per night in minor units
+     * @return Price per night in minor units
+     */
+    public long getPricePerNightMinor() {
         return pricePerNight;
     }
     
     public void setPricePerNight(double pricePerNight) {
-        if (pricePerNight <= 0) {
+        this.pricePerNight = toMinorPrice(pricePerNight, "Price must be positive");
+        fireUpdated();
+    }
+    
+    /**
+     * Sets the price per night in minor units
+     * @param pricePerNightMinor Price per night in minor units
+     * @throws IllegalArgumentException if the price is not positive
+     */
+    public void setPricePerNightMinor(long pricePerNightMinor) {
+        if (pricePerNightMinor <= 0) {
             throw new IllegalArgumentException("Price must be positive");
         }
-        this.pricePerNight = pricePerNight;
+        this.pricePerNight = pricePerNightMinor;
+        fireUpdated();
+    }
+    
+    private static long toMinorPrice(double price, String message) {
+        if (!(price > 0)) {
+            throw new IllegalArgumentException(message);
+        }
+        long minor = Money.ofMajor(price);
+        if (minor <= 0) {
+            throw new IllegalArgumentException(message);
+        }
+        return minor;
     }
     
     public int getCapacity() {
@@ -141,10 +614,29 @@ public class Room {
             throw new IllegalArgumentException("Capacity must be positive");
         }
         this.capacity = capacity;
+        fireUpdated();
     }
     
+    /**
+     * Gets all bookings for this room, archived ones first. Archived bookings are the
+     * same objects the customer holds, so they compare equal and take status changes.
+     * @return Read-only snapshot of the bookings made so far; never affected by later additions
+     */
     public List<Booking> getBookings() {
-        return Collections.unmodifiableList(bookings);
+        History current = history;
+        List<Booking> live = current.live.snapshot();
+        if (current.archivedCount == 0) {
+            return live;
+        }
+        return new WithArchive(current.archived.snapshot().subList(0, current.archivedCount), live);
+    }
+    
+    private void fireUpdated() {
+        Hotel owner = hotel;
+        if (owner != null) {
+            owner.roomUpdated(this);
+            released(owner);
+        }
     }
     
     private void validateString(String value, String fieldName) {
@@ -153,9 +645,54 @@ public class Room {
         }
     }
     
+    /**
+     * The live booking log and how much of the append-only archived log belongs to
+     * it, replaced as a whole so a reader never sees a booking in both or in neither
+     */
+    private static final class History {
+        final BookingLedger live;
+        final BookingStore archive;
+        final BookingLedger archived;
+        final int archivedCount;
+
+        History(BookingLedger live, BookingStore archive, BookingLedger archived, int archivedCount) {
+            this.live = live;
+            this.archive = archive;
+            this.archived = archived;
+            this.archivedCount = archivedCount;
+        }
+    }
+    
+    /**
+     * Archived bookings followed by the live ones
+     */
+    private static final class WithArchive extends AbstractList<Booking> implements RandomAccess {
+        private final List<Booking> archived;
+        private final List<Booking> live;
+
+        WithArchive(List<Booking> archived, List<Booking> live) {
+            this.archived = archived;
+            this.live = live;
+        }
+
+        @Override
+        public Booking get(int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+            }
+            int archivedSize = archived.size();
+            return index < archivedSize ? archived.get(index) : live.get(index - archivedSize);
+        }
+
+        @Override
+        public int size() {
+            return archived.size() + live.size();
+        }
+    }
+    
     @Override
     public String toString() {
         return String.format("Room{id='%s', number='%s', type=%s, price=%.2f, capacity=%d}", 
-            roomId, roomNumber, type, pricePerNight, capacity);
+            roomId, roomNumber, type, getPricePerNight(), capacity);
     }
 }
@@ -0,0 +1,271 @@
+package domain;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A hotel's rooms grouped by {@link RoomType}, each group sorted by capacity and
+ * then by price per night, so a search can skip rooms that are too small or too
+ * expensive without looking at them. For cheapest-first searches a further index
+ * holds, in price order, every room whose stays cost its price per night, and rooms
+ * with nightly rates of their own are kept apart, since only pricing a stay tells
+ * where they rank.
+ * <p>
+ * Every index is a concurrent skip list or set, so searches read them without
+ * locking while updates, serialized among themselves, add or remove a room in
+ * logarithmic time.
+ */
+final class RoomCatalog {
+    private static final RoomType[] TYPES = RoomType.values();
+    private static final Comparator<Entry> BY_CAPACITY = Comparator
+        .comparingInt((Entry e) -> e.capacity)
+        .thenComparingLong(e -> e.price)
+        .thenComparingLong(e -> e.order);
+    private static final Comparator<Entry> BY_PRICE = Comparator
+        .comparingLong((Entry e) -> e.price)
+        .thenComparingLong(e -> e.order);
+
+    private final List<NavigableSet<Entry>> byType;
+    private final NavigableSet<Entry> unratedByPrice;
+    private final Set<Room> rated;
+    private final Map<Room, Entry> placed;
+    private final AtomicIntegerArray typeSizes;
+    private final AtomicInteger size;
+    private long nextOrder;
+
+    RoomCatalog() {
+        this.byType = new ArrayList<>(TYPES.length);
+        for (int i = 0; i < TYPES.length; i++) {
+            byType.add(new ConcurrentSkipListSet<>(BY_CAPACITY));
+        }
+        this.unratedByPrice = new ConcurrentSkipListSet<>(BY_PRICE);
+        this.rated = ConcurrentHashMap.newKeySet();
+        this.placed = new IdentityHashMap<>();
+        this.typeSizes = new AtomicIntegerArray(TYPES.length);
+        this.size = new AtomicInteger();
+    }
+
+    /**
+     * Places rooms under their current type, capacity and price
+     * @param rooms The rooms
+     */
+    synchronized void addAll(List<Room> rooms) {
+        for (Room room : rooms) {
+            Entry entry = new Entry(room, nextOrder++);
+            placed.put(room, entry);
+            insert(entry);
+            typeSizes.incrementAndGet(entry.type.ordinal());
+            size.incrementAndGet();
+        }
+    }
+
+    /**
+     * Takes a room out of the catalog
+     * @param room The room
+     */
+    synchronized void remove(Room room) {
+        Entry entry = placed.remove(room);
+        if (entry != null) {
+            byType.get(entry.type.ordinal()).remove(entry);
+            if (entry.rated) {
+                rated.remove(room);
+            } else {
+                unratedByPrice.remove(entry);
+            }
+            typeSizes.decrementAndGet(entry.type.ordinal());
+            size.decrementAndGet();
+        }
+    }
+
+    /**
+     * Re-sorts a room after its type, capacity, price or rates changed; ignores rooms not in the catalog
+     * @param room The room
+     */
+    synchronized void update(Room room) {
+        Entry previous = placed.get(room);
+        if (previous == null) {
+            return;
+        }
+        Entry entry = new Entry(room, nextOrder++);
+        placed.put(room, entry);
+        byType.get(previous.type.ordinal()).remove(previous);
+        // The new place is filled before the old one is cleared, so a cheapest-first
+        // search may see the room twice but never misses it
+        insert(entry);
+        if (previous.rated) {
+            if (!entry.rated) {
+                rated.remove(room);
+            }
+        } else {
+            unratedByPrice.remove(previous);
+        }
+        if (previous.type != entry.type) {
+            typeSizes.decrementAndGet(previous.type.ordinal());
+            typeSizes.incrementAndGet(entry.type.ordinal());
+        }
+    }
+
+    /**
+     * Ranks apart the rooms that gained rates of their own since they were placed
+     * @param rooms Rooms whose rates changed; rooms not in the catalog are ignored
+     */
+    synchronized void markRated(Collection<Room> rooms) {
+        for (Room room : rooms) {
+            Entry entry = placed.get(room);
+            if (entry != null && !entry.rated && room.hasRates()) {
+                update(room);
+            }
+        }
+    }
+
+    private void insert(Entry entry) {
+        byType.get(entry.type.ordinal()).add(entry);
+        if (entry.rated) {
+            rated.add(entry.room);
+        } else {
+            unratedByPrice.add(entry);
+        }
+    }
+
+    /**
+     * Counts the rooms in the catalog
+     * @return Number of rooms
+     */
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * Counts the rooms of a type
+     * @param type The room type
+     * @return Number of rooms of the type
+     */
+    int size(RoomType type) {
+        return typeSizes.get(type.ordinal());
+    }
+
+    /**
+     * Gets the rooms without rates of their own in the order cheapest-first searches visit them.
+     * A room whose rates are changing may also be listed by {@link #rated()} for a moment.
+     * @return Live view of the rooms by price per night
+     */
+    Collection<Room> byPricePerNight() {
+        return new AbstractCollection<>() {
+            @Override
+            public Iterator<Room> iterator() {
+                Iterator<Entry> entries = unratedByPrice.iterator();
+                return new Iterator<>() {
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    @Override
+                    public Room next() {
+                        return entries.next().room;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return unratedByPrice.size();
+            }
+        };
+    }
+
+    /**
+     * Gets the rooms with rates of their own
+     * @return Live view of the rooms, in no particular order
+     */
+    Set<Room> rated() {
+        return Collections.unmodifiableSet(rated);
+    }
+
+    /**
+     * Selects rooms by type, capacity and price
+     * @param type Wanted type, or null for every type
+     * @param minCapacity Smallest acceptable capacity
+     * @param maxPrice Highest acceptable price per night
+     * @return Matching rooms, smallest and then cheapest first within each type
+     */
+    List<Room> select(RoomType type, int minCapacity, double maxPrice) {
+        long maxMinor = Money.atMost(maxPrice);
+        List<Room> candidates = new ArrayList<>();
+        if (type != null) {
+            select(byType.get(type.ordinal()), minCapacity, maxMinor, candidates);
+            return candidates;
+        }
+        for (NavigableSet<Entry> entries : byType) {
+            select(entries, minCapacity, maxMinor, candidates);
+        }
+        return candidates;
+    }
+
+    private static void select(NavigableSet<Entry> entries, int minCapacity, long maxPrice, List<Room> candidates) {
+        Iterator<Entry> it = entries.tailSet(Entry.first(minCapacity), true).iterator();
+        while (it.hasNext()) {
+            Entry entry = it.next();
+            if (entry.price <= maxPrice) {
+                candidates.add(entry.room);
+            } else if (entry.capacity < Integer.MAX_VALUE) {
+                // The rest of this capacity group costs even more
+                it = entries.tailSet(Entry.first(entry.capacity + 1), true).iterator();
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * A room with the type, capacity and price it was sorted by when it was placed,
+     * whether it had rates of its own, and the order it was placed in, which keeps
+     * rooms sharing a capacity and price apart
+     */
+    private static final class Entry {
+        final Room room;
+        final RoomType type;
+        final int capacity;
+        final long price;
+        final boolean rated;
+        final long order;
+
+        Entry(Room room, long order) {
+            this.room = room;
+            this.type = room.getType();
+            this.capacity = room.getCapacity();
+            this.price = room.getPricePerNightMinor();
+            this.rated = room.hasRates();
+            this.order = order;
+        }
+
+        private Entry(int capacity) {
+            this.room = null;
+            this.type = null;
+            this.capacity = capacity;
+            this.price = Long.MIN_VALUE;
+            this.rated = false;
+            this.order = Long.MIN_VALUE;
+        }
+
+        /**
+         * Builds a probe sorting before every room of at least a capacity
+         */
+        static Entry first(int capacity) {
+            return new Entry(capacity);
+        }
+    }
+}
@@ -0,0 +1,320 @@
+package domain;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running sales figures for one hotel, per night and per room type.
+ * <p>
+ * A booking counts as sold while it is confirmed or completed, and as active while
+ * it is pending or confirmed. Each time a booking is added or changes status, its
+ * contribution is taken off the figures it was last counted in and added to the
+ * ones it belongs in now, touching one counter per type for each of its nights.
+ * Every counter is a {@link LongAdder}, so concurrent bookings on different rooms
+ * never contend on a shared value, and every figure is read in constant time.
+ * <p>
+ * A booking's revenue is spread over its nights in whole minor units, any
+ * remainder going to its first nights, so the nightly revenue of a booking always
+ * adds up to its total price. Bookings stay counted under the room type they had
+ * when last counted until their status next changes. The figures cover the rooms
+ * currently in the hotel: a removed room takes its bookings with it.
+ */
+public final class SalesStatistics {
+    private static final RoomType[] TYPES = RoomType.values();
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+    private static final int PAGE_SHIFT = 6;
+    private static final int PAGE_DAYS = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_DAYS - 1;
+
+    private final RoomCatalog catalog;
+    private final ConcurrentHashMap<Integer, Page> pages;
+    private final LongAdder[] soldBookings;
+    private final LongAdder[] activeBookings;
+    private final LongAdder[] pendingBookings;
+    private final LongAdder[] roomNightsSold;
+    private final LongAdder[] revenue;
+
+    SalesStatistics(RoomCatalog catalog) {
+        this.catalog = catalog;
+        this.pages = new ConcurrentHashMap<>();
+        this.soldBookings = adders(TYPES.length);
+        this.activeBookings = adders(TYPES.length);
+        this.pendingBookings = adders(TYPES.length);
+        this.roomNightsSold = adders(TYPES.length);
+        this.revenue = adders(TYPES.length);
+    }
+
+    /**
+     * Gets how many rooms of a type are sold for a night
+     * @param night The night
+     * @param type Room type, or null for every type
+     * @return Rooms sold that night
+     * @throws IllegalArgumentException if night is null
+     */
+    public long getRoomsSold(LocalDate night, RoomType type) {
+        Page page = page(night);
+        return page == null ? 0 : page.sum(page.sold, slot(night), type);
+    }
+
+    /**
+     * Gets the revenue of a night in minor units
+     * @param night The night
+     * @param type Room type, or null for every type
+     * @return Revenue of the rooms sold that night
+     * @throws IllegalArgumentException if night is null
+     */
+    public long getRevenueMinor(LocalDate night, RoomType type) {
+        Page page = page(night);
+        return page == null ? 0 : page.sum(page.revenue, slot(night), type);
+    }
+
+    /**
+     * Gets the average daily rate of a night: revenue per room sold
+     * @param night The night
+     * @param type Room type, or null for every type
+     * @return Average rate in minor units, rounded to the nearest, or 0 if nothing is sold
+     * @throws IllegalArgumentException if night is null
+     */
+    public long getAverageDailyRateMinor(LocalDate night, RoomType type) {
+        Page page = page(night);
+        if (page == null) {
+            return 0;
+        }
+        int slot = slot(night);
+        return divide(page.sum(page.revenue, slot, type), page.sum(page.sold, slot, type));
+    }
+
+    /**
+     * Gets the revenue per available room of a night, counting the rooms now in the hotel
+     * @param night The night
+     * @param type Room type, or null for every type
+     * @return Revenue per room in minor units, rounded to the nearest, or 0 if there are no rooms
+     * @throws IllegalArgumentException if night is null
+     */
+    public long getRevParMinor(LocalDate night, RoomType type) {
+        return divide(getRevenueMinor(night, type), type == null ? catalog.size() : catalog.size(type));
+    }
+
+    /**
+     * Gets the revenue of every sold booking in minor units
+     * @param type Room type, or null for every type
+     * @return Total revenue
+     */
+    public long getTotalRevenueMinor(RoomType type) {
+        return sum(revenue, type);
+    }
+
+    /**
+     * Gets how many room nights are sold across all nights
+     * @param type Room type, or null for every type
+     * @return Room nights sold
+     */
+    public long getRoomNightsSold(RoomType type) {
+        return sum(roomNightsSold, type);
+    }
+
+    /**
+     * Counts the confirmed and completed bookings
+     * @param type Room type, or null for every type
+     * @return Number of sold bookings
+     */
+    public long getSoldBookings(RoomType type) {
+        return sum(soldBookings, type);
+    }
+
+    /**
+     * Counts the pending and confirmed bookings
+     * @param type Room type, or null for every type
+     * @return Number of active bookings
+     */
+    public long getActiveBookings(RoomType type) {
+        return sum(activeBookings, type);
+    }
+
+    /**
+     * Counts the pending bookings, whose rooms are held but not yet sold
+     * @param type Room type, or null for every type
+     * @return Number of pending bookings
+     */
+    public long getPendingBookings(RoomType type) {
+        return sum(pendingBookings, type);
+    }
+
+    /**
+     * Counts a room's bookings; the caller holds the room's lock
+     */
+    void addRoom(Room room) {
+        for (Booking booking : room.getBookings()) {
+            if (booking instanceof StoredBooking) {
+                int mark = markOf(booking);
+                if (mark >= 0) {
+                    apply(booking, mark, 1);
+                }
+            } else {
+                record(booking);
+            }
+        }
+    }
+
+    /**
+     * Takes a room's bookings off the figures; the caller holds the room's lock
+     */
+    void removeRoom(Room room) {
+        for (Booking booking : room.getBookings()) {
+            int mark = markOf(booking);
+            if (mark >= 0) {
+                apply(booking, mark, -1);
+                booking.setSalesMark(-1);
+            }
+        }
+    }
+
+    /**
+     * Moves a booking's contribution to match its current status and room type. Callers
+     * hold the booking's room lock, so the booking's mark is only changed by one thread
+     * at a time and the last change to its status is always the last one recorded.
+     */
+    void record(Booking booking) {
+        int previous = markOf(booking);
+        int next = mark(booking.getStatus(), booking.getRoom().getType());
+        if (previous == next) {
+            return;
+        }
+        if (previous >= 0 && next >= 0 && typeOf(previous) == typeOf(next)
+                && statusOf(previous).isSold() == statusOf(next).isSold()) {
+            // Only whether the booking is active or pending changed; its nights stay as counted
+            int type = typeOf(next);
+            activeBookings[type].add(activity(next) - activity(previous));
+            pendingBookings[type].add(pending(next) - pending(previous));
+        } else {
+            if (previous >= 0) {
+                apply(booking, previous, -1);
+            }
+            if (next >= 0) {
+                apply(booking, next, 1);
+            }
+        }
+        booking.setSalesMark(next);
+    }
+
+    /**
+     * Marks of bookings stored in an archive are not kept; such bookings are taken
+     * to be counted by their current status and room type
+     */
+    private static int markOf(Booking booking) {
+        if (booking instanceof StoredBooking) {
+            return mark(booking.getStatus(), booking.getRoom().getType());
+        }
+        return booking.salesMark();
+    }
+
+    private void apply(Booking booking, int mark, int sign) {
+        int type = typeOf(mark);
+        activeBookings[type].add(activity(mark) * sign);
+        pendingBookings[type].add(pending(mark) * sign);
+        if (!statusOf(mark).isSold()) {
+            return;
+        }
+        long total = booking.getTotalPriceMinor();
+        int from = booking.checkInDay();
+        int to = booking.checkOutDay();
+        int nights = to - from;
+        soldBookings[type].add(sign);
+        roomNightsSold[type].add((long) nights * sign);
+        revenue[type].add(total * sign);
+        long perNight = total / nights;
+        long remainder = total % nights;
+        Page page = null;
+        for (int day = from; day < to; day++) {
+            if (page == null || (day & PAGE_MASK) == 0) {
+                page = pages.computeIfAbsent(day >> PAGE_SHIFT, key -> new Page());
+            }
+            int cell = (day & PAGE_MASK) * TYPES.length + type;
+            page.sold[cell].add(sign);
+            page.revenue[cell].add((day - from < remainder ? perNight + 1 : perNight) * sign);
+        }
+    }
+
+    private Page page(LocalDate night) {
+        if (night == null) {
+            throw new IllegalArgumentException("Night cannot be null");
+        }
+        return pages.get(Booking.toEpochDay(night) >> PAGE_SHIFT);
+    }
+
+    private static int slot(LocalDate night) {
+        return Booking.toEpochDay(night) & PAGE_MASK;
+    }
+
+    /**
+     * A booking's mark packs the status and room type it is counted under, or is
+     * -1 if it counts in no figure
+     */
+    private static int mark(BookingStatus status, RoomType type) {
+        if (!status.blocksRoom() && !status.isSold()) {
+            return -1;
+        }
+        return type.ordinal() << 8 | status.ordinal();
+    }
+
+    private static int typeOf(int mark) {
+        return mark >>> 8;
+    }
+
+    private static BookingStatus statusOf(int mark) {
+        return STATUSES[mark & 0xFF];
+    }
+
+    private static int activity(int mark) {
+        return statusOf(mark).blocksRoom() ? 1 : 0;
+    }
+
+    private static int pending(int mark) {
+        return statusOf(mark) == BookingStatus.PENDING ? 1 : 0;
+    }
+
+    private static long divide(long amount, long count) {
+        return count == 0 ? 0 : Math.floorDiv(amount + count / 2, count);
+    }
+
+    private static long sum(LongAdder[] adders, RoomType type) {
+        if (type != null) {
+            return adders[type.ordinal()].sum();
+        }
+        long total = 0;
+        for (LongAdder adder : adders) {
+            total += adder.sum();
+        }
+        return total;
+    }
+
+    private static LongAdder[] adders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Rooms sold and revenue for a block of consecutive nights, one counter per
+     * night and room type
+     */
+    private static final class Page {
+        final LongAdder[] sold = adders(PAGE_DAYS * TYPES.length);
+        final LongAdder[] revenue = adders(PAGE_DAYS * TYPES.length);
+
+        long sum(LongAdder[] adders, int slot, RoomType type) {
+            int base = slot * TYPES.length;
+            if (type != null) {
+                return adders[base + type.ordinal()].sum();
+            }
+            long total = 0;
+            for (int i = 0; i < TYPES.length; i++) {
+                total += adders[base + i].sum();
+            }
+            return total;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package domain;
+
+/**
+ * Flyweight {@link Booking} that reads every field from a row of a {@link BookingStore}.
+ * Views are detached from room availability: changing the status of a view updates
+ * the stored row but never re-blocks or releases the room.
+ */
+final class StoredBooking extends Booking {
+    private final BookingStore store;
+    private final int row;
+
+    StoredBooking(BookingStore store, int row) {
+        this.store = store;
+        this.row = row;
+    }
+
+    @Override
+    public String getBookingId() {
+        return store.bookingId(row);
+    }
+
+    @Override
+    public Customer getCustomer() {
+        return store.customer(row);
+    }
+
+    @Override
+    public Room getRoom() {
+        return store.room(row);
+    }
+
+    @Override
+    int checkInDay() {
+        return store.checkInDay(row);
+    }
+
+    @Override
+    int checkOutDay() {
+        return store.checkOutDay(row);
+    }
+
+    @Override
+    public long getTotalPriceMinor() {
+        return store.totalPrice(row);
+    }
+
+    @Override
+    public BookingStatus getStatus() {
+        return store.status(row);
+    }
+
+    @Override
+    boolean compareAndSetStatus(BookingStatus expected, BookingStatus next) {
+        return store.compareAndSetStatus(row, expected, next);
+    }
+
+    @Override
+    void statusChanged(BookingStatus previous) {
+        // Stored rows are history; they take no part in availability.
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof StoredBooking)) {
+            return false;
+        }
+        StoredBooking that = (StoredBooking) other;
+        return store == that.store && row == that.row;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(store) * 31 + row;
+    }
+}
@@ -0,0 +1,183 @@
+package metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongSupplier;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.JMException;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Publishes the metrics of a registry as read-only attributes of one MBean.
+ * <p>
+ * The first export registers the MBean with the platform MBean server; its
+ * attributes read the registry live, so later exports of the same registry have
+ * nothing to do. Each operation has attributes named after its metric with the
+ * suffixes {@code .count}, {@code .meanNanos}, {@code .p50Nanos}, {@code .p99Nanos}
+ * and {@code .maxNanos}, and each gauge has an attribute of its own name.
+ */
+public final class JmxExporter implements MetricsExporter {
+    /** Name the MBean is registered under unless another is given */
+    public static final String DEFAULT_NAME = "hotel:type=Metrics";
+
+    private final ObjectName name;
+    private MetricsRegistry exported;
+
+    /**
+     * Creates an exporter that registers under {@link #DEFAULT_NAME}
+     */
+    public JmxExporter() {
+        this(DEFAULT_NAME);
+    }
+
+    /**
+     * Creates an exporter that registers under a given name
+     * @param name JMX object name
+     * @throws IllegalArgumentException if name is not a valid object name
+     */
+    public JmxExporter(String name) {
+        try {
+            this.name = new ObjectName(name);
+        } catch (JMException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid MBean name: " + name, e);
+        }
+    }
+
+    @Override
+    public synchronized void export(MetricsRegistry registry) {
+        if (registry == null) {
+            throw new IllegalArgumentException("Registry cannot be null");
+        }
+        if (registry == exported) {
+            return;
+        }
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(new RegistryMBean(registry), name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not register MBean " + name, e);
+        }
+        exported = registry;
+    }
+
+    /**
+     * Unregisters the MBean if this exporter registered it
+     */
+    public synchronized void close() {
+        if (exported == null) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException("Could not unregister MBean " + name, e);
+        } finally {
+            exported = null;
+        }
+    }
+
+    public ObjectName getName() {
+        return name;
+    }
+
+    /**
+     * Read-only view of a registry whose attributes follow the gauges registered
+     */
+    private static final class RegistryMBean implements DynamicMBean {
+        private static final String[] FIELDS = {"count", "meanNanos", "p50Nanos", "p99Nanos", "maxNanos"};
+
+        private final MetricsRegistry registry;
+
+        RegistryMBean(MetricsRegistry registry) {
+            this.registry = registry;
+        }
+
+        @Override
+        public Object getAttribute(String attribute) throws AttributeNotFoundException {
+            for (Operation operation : Operation.values()) {
+                String prefix = operation.getMetricName() + ".";
+                if (attribute.startsWith(prefix)) {
+                    LatencyHistogram histogram = registry.histogram(operation);
+                    switch (attribute.substring(prefix.length())) {
+                        case "count":
+                            return histogram.getCount();
+                        case "meanNanos":
+                            return histogram.getMeanNanos();
+                        case "p50Nanos":
+                            return histogram.getValueAtPercentile(50);
+                        case "p99Nanos":
+                            return histogram.getValueAtPercentile(99);
+                        case "maxNanos":
+                            return histogram.getMaxNanos();
+                        default:
+                            break;
+                    }
+                }
+            }
+            LongSupplier gauge = registry.getGauges().get(attribute);
+            if (gauge == null) {
+                throw new AttributeNotFoundException(attribute);
+            }
+            return gauge.getAsLong();
+        }
+
+        @Override
+        public AttributeList getAttributes(String[] attributes) {
+            AttributeList list = new AttributeList();
+            for (String attribute : attributes) {
+                try {
+                    list.add(new Attribute(attribute, getAttribute(attribute)));
+                } catch (AttributeNotFoundException e) {
+                    // Left out, as the DynamicMBean contract allows
+                }
+            }
+            return list;
+        }
+
+        @Override
+        public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+            throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+        }
+
+        @Override
+        public AttributeList setAttributes(AttributeList attributes) {
+            return new AttributeList();
+        }
+
+        @Override
+        public Object invoke(String actionName, Object[] params, String[] signature) {
+            throw new UnsupportedOperationException("Metrics have no operations");
+        }
+
+        @Override
+        public MBeanInfo getMBeanInfo() {
+            List<MBeanAttributeInfo> attributes = new ArrayList<>();
+            for (Operation operation : Operation.values()) {
+                for (String field : FIELDS) {
+                    String type = field.equals("meanNanos") ? "double" : "long";
+                    attributes.add(new MBeanAttributeInfo(operation.getMetricName() + "." + field, type,
+                        field + " of " + operation.getMetricName(), true, false, false));
+                }
+            }
+            for (String gauge : registry.getGauges().keySet()) {
+                attributes.add(new MBeanAttributeInfo(gauge, "long", "Gauge " + gauge, true, false, false));
+            }
+            return new MBeanInfo(RegistryMBean.class.getName(), "Hotel reservation metrics",
+                attributes.toArray(new MBeanAttributeInfo[0]), null, null, null);
+        }
+    }
+}
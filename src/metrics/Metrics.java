@@ -0,0 +1,72 @@
+package metrics;
+
+/**
+ * Entry point the domain classes record their latencies through.
+ * <p>
+ * An instrumented operation calls {@link #start()} on entry and
+ * {@link #stop(Operation, long)} on exit. While recording is switched off, start
+ * returns a marker without reading the clock and stop returns at once, so the cost
+ * of instrumentation is one volatile read. While it is on, the cost is two clock
+ * reads and one histogram update, with no allocation.
+ * <p>
+ * Recording is on unless the system property {@code hotel.metrics} is "false", and
+ * can be switched at any time. The shared registry starts with a {@link JmxExporter}
+ * and a {@link TextExporter} writing to standard output.
+ */
+public final class Metrics {
+    private static final long OFF = Long.MIN_VALUE;
+    private static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+    private static volatile boolean enabled = !"false".equalsIgnoreCase(System.getProperty("hotel.metrics"));
+
+    static {
+        REGISTRY.addExporter(new JmxExporter());
+        REGISTRY.addExporter(new TextExporter(System.out));
+    }
+
+    private Metrics() {
+    }
+
+    /**
+     * Gets the registry the domain classes record into
+     * @return The shared registry
+     */
+    public static MetricsRegistry registry() {
+        return REGISTRY;
+    }
+
+    /**
+     * Switches recording on or off
+     * @param on true to record latencies
+     */
+    public static void setEnabled(boolean on) {
+        enabled = on;
+    }
+
+    /**
+     * Checks whether latencies are being recorded
+     * @return true if operations started now record their latency
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Marks the start of an operation
+     * @return Start time to pass to {@link #stop(Operation, long)}
+     */
+    public static long start() {
+        return enabled ? System.nanoTime() : OFF;
+    }
+
+    /**
+     * Records an operation's latency, unless recording was off when it started
+     * @param operation The operation
+     * @param start Value returned by {@link #start()}
+     */
+    public static void stop(Operation operation, long start) {
+        if (start != OFF) {
+            REGISTRY.histogram(operation).record(System.nanoTime() - start);
+        }
+    }
+}
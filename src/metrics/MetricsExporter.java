@@ -0,0 +1,13 @@
+package metrics;
+
+/**
+ * Publishes the metrics of a registry somewhere, such as JMX or a text stream
+ */
+public interface MetricsExporter {
+
+    /**
+     * Publishes the current histograms and gauges of a registry
+     * @param registry The registry to read
+     */
+    void export(MetricsRegistry registry);
+}
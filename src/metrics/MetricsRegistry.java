@@ -0,0 +1,128 @@
+package metrics;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.LongSupplier;
+
+/**
+ * Latency histograms for every {@link Operation}, named gauges, and the exporters
+ * that publish them.
+ * <p>
+ * Histograms exist for every operation from the start, so recording looks one up by
+ * ordinal and never allocates. Gauges are read only when exported, by calling the
+ * supplier they were registered with.
+ */
+public final class MetricsRegistry {
+    private final LatencyHistogram[] histograms;
+    private final Map<String, LongSupplier> gauges;
+    private final List<MetricsExporter> exporters;
+
+    /**
+     * Creates a registry with empty histograms, no gauges and no exporters
+     */
+    public MetricsRegistry() {
+        Operation[] operations = Operation.values();
+        this.histograms = new LatencyHistogram[operations.length];
+        for (int i = 0; i < operations.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+        this.gauges = new ConcurrentSkipListMap<>();
+        this.exporters = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Gets the latency histogram of an operation
+     * @param operation The operation
+     * @return Its histogram
+     * @throws IllegalArgumentException if operation is null
+     */
+    public LatencyHistogram histogram(Operation operation) {
+        if (operation == null) {
+            throw new IllegalArgumentException("Operation cannot be null");
+        }
+        return histograms[operation.ordinal()];
+    }
+
+    /**
+     * Registers a gauge, replacing any gauge of the same name
+     * @param name Metric name, such as "hotel.H001.rooms"
+     * @param value Supplies the current value whenever the gauge is read
+     * @throws IllegalArgumentException if name is null or empty or value is null
+     */
+    public void registerGauge(String name, LongSupplier value) {
+        if (name == null || name.trim().isEmpty()) {
+            throw new IllegalArgumentException("Gauge name cannot be null or empty");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("Gauge value cannot be null");
+        }
+        gauges.put(name, value);
+    }
+
+    /**
+     * Removes a gauge
+     * @param name Metric name
+     * @return true if the gauge was registered
+     */
+    public boolean removeGauge(String name) {
+        return name != null && gauges.remove(name) != null;
+    }
+
+    /**
+     * Gets the registered gauges
+     * @return Read-only view of the gauges by name, in name order
+     */
+    public Map<String, LongSupplier> getGauges() {
+        return Collections.unmodifiableMap(gauges);
+    }
+
+    /**
+     * Adds an exporter to run on every {@link #export()}
+     * @param exporter The exporter
+     * @throws IllegalArgumentException if exporter is null
+     */
+    public void addExporter(MetricsExporter exporter) {
+        if (exporter == null) {
+            throw new IllegalArgumentException("Exporter cannot be null");
+        }
+        exporters.add(exporter);
+    }
+
+    /**
+     * Removes an exporter
+     * @param exporter The exporter
+     * @return true if the exporter was added before
+     */
+    public boolean removeExporter(MetricsExporter exporter) {
+        return exporters.remove(exporter);
+    }
+
+    /**
+     * Gets the exporters run by {@link #export()}
+     * @return Read-only view of the exporters in the order they were added
+     */
+    public List<MetricsExporter> getExporters() {
+        return Collections.unmodifiableList(exporters);
+    }
+
+    /**
+     * Publishes the current metrics through every exporter, in the order they were added
+     */
+    public void export() {
+        for (MetricsExporter exporter : exporters) {
+            exporter.export(this);
+        }
+    }
+
+    /**
+     * Clears every histogram; gauges and exporters are kept
+     */
+    public void reset() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package metrics;
+
+/**
+ * Domain operations whose latency is recorded
+ */
+public enum Operation {
+    /** Searching a hotel for free rooms */
+    FIND_AVAILABLE_ROOMS("hotel.findAvailableRooms"),
+    /** Checking one room for given dates */
+    ROOM_IS_AVAILABLE("room.isAvailable"),
+    /** Creating and pricing a booking */
+    BOOKING_CREATE("booking.create"),
+    /** Cancelling a booking through its customer */
+    CUSTOMER_CANCEL_BOOKING("customer.cancelBooking");
+
+    private final String metricName;
+
+    Operation(String metricName) {
+        this.metricName = metricName;
+    }
+
+    public String getMetricName() {
+        return metricName;
+    }
+}
@@ -0,0 +1,58 @@
+package metrics;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Writes the metrics of a registry as plain text, one metric per line:
+ * <pre>
+ * hotel.findAvailableRooms count=120 mean_ns=5230.4 p50_ns=4607 p99_ns=20479 max_ns=31022
+ * hotel.H001.rooms 40
+ * </pre>
+ */
+public final class TextExporter implements MetricsExporter {
+    private final PrintStream out;
+
+    /**
+     * Creates an exporter that prints to a stream
+     * @param out Stream to print to
+     * @throws IllegalArgumentException if out is null
+     */
+    public TextExporter(PrintStream out) {
+        if (out == null) {
+            throw new IllegalArgumentException("Output stream cannot be null");
+        }
+        this.out = out;
+    }
+
+    @Override
+    public void export(MetricsRegistry registry) {
+        out.print(format(registry));
+        out.flush();
+    }
+
+    /**
+     * Formats the metrics of a registry
+     * @param registry The registry to read
+     * @return One line per operation and per gauge
+     * @throws IllegalArgumentException if registry is null
+     */
+    public static String format(MetricsRegistry registry) {
+        if (registry == null) {
+            throw new IllegalArgumentException("Registry cannot be null");
+        }
+        StringBuilder text = new StringBuilder();
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = registry.histogram(operation);
+            text.append(String.format(Locale.ROOT, "%s count=%d mean_ns=%.1f p50_ns=%d p99_ns=%d max_ns=%d%n",
+                operation.getMetricName(), histogram.getCount(), histogram.getMeanNanos(),
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99), histogram.getMaxNanos()));
+        }
+        for (Map.Entry<String, LongSupplier> gauge : registry.getGauges().entrySet()) {
+            text.append(gauge.getKey()).append(' ').append(gauge.getValue().getAsLong()).append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+}
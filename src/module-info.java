@@ -7,6 +7,10 @@
 module HotelReservationSystem {
     exports app;
     exports domain;
+    exports persistence;
+    exports metrics;
+
+    requires java.management;
 
     requires org.junit.jupiter.api;
 	requires org.junit.jupiter.params;
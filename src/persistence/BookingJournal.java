@@ -0,0 +1,498 @@
+package persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import domain.Booking;
+import domain.BookingStatus;
+import domain.Customer;
+import domain.Hotel;
+import domain.HotelListener;
+import domain.Room;
+
+/**
+ * Append-only binary journal of hotel, room and booking changes.
+ * <p>
+ * Attached hotels report every change through {@link HotelListener}; each change is
+ * encoded as a record and queued. A booking is queued before its room lists it, so a
+ * booking the journal cannot take, because it is closed or has failed, is never
+ * added. A single writer thread drains the queue in batches,
+ * writes each batch with one channel write and forces it according to the
+ * {@link FsyncPolicy}, so concurrent bookings share the cost of each force
+ * (group commit). Under {@link FsyncPolicy#EVERY_BATCH} the thread making a change
+ * waits until its records are durable, but only once the hotel reports through
+ * {@link HotelListener#changesReleased(Hotel)} that its locks are released: a batch
+ * reservation queues one record per room under the rooms' locks and then waits for
+ * a single force. Under the other policies nothing waits for the disk.
+ * <p>
+ * On open, the existing journal is scanned and any torn tail left by a crash is
+ * truncated. Use {@link JournalRecovery#replay(Path)} or
+ * {@link JournalRecovery#recover(Path, Path)} to rebuild the hotels before opening the
+ * journal for new writes.
+ */
+public final class BookingJournal implements HotelListener, Closeable {
+    private final FileChannel channel;
+    private final FsyncPolicy policy;
+    private final long fsyncIntervalNanos;
+    private final Set<String> journaledHotels;
+    private final ReentrantLock lock;
+    private final Condition queued;
+    private final Condition written;
+    private final Thread writer;
+    private final ThreadLocal<long[]> owed;
+    private ByteArrayOutputStream pending;
+    private long lastQueued;
+    private long lastDurable;
+    private boolean closed;
+    private IOException failure;
+
+    private BookingJournal(FileChannel channel, FsyncPolicy policy, Duration fsyncInterval,
+                           long lastSequence, Set<String> journaledHotels) {
+        this.channel = channel;
+        this.policy = policy;
+        this.fsyncIntervalNanos = fsyncInterval.toNanos();
+        this.journaledHotels = journaledHotels;
+        this.lock = new ReentrantLock();
+        this.queued = lock.newCondition();
+        this.written = lock.newCondition();
+        this.owed = ThreadLocal.withInitial(() -> new long[1]);
+        this.pending = new ByteArrayOutputStream();
+        this.lastQueued = lastSequence;
+        this.lastDurable = lastSequence;
+        this.writer = new Thread(this::writeLoop, "booking-journal-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Opens a journal that forces every batch
+     * @param file The journal file, created if missing
+     * @return The open journal
+     * @throws IOException if the file cannot be opened
+     */
+    public static BookingJournal open(Path file) throws IOException {
+        return open(file, FsyncPolicy.EVERY_BATCH, Duration.ZERO);
+    }
+
+    /**
+     * Opens a journal
+     * @param file The journal file, created if missing
+     * @param policy When to force appended records to disk
+     * @param fsyncInterval Minimum time between forces under {@link FsyncPolicy#INTERVAL}
+     * @return The open journal
+     * @throws IOException if the file cannot be opened
+     * @throws IllegalArgumentException if any parameter is null or the interval is negative
+     */
+    public static BookingJournal open(Path file, FsyncPolicy policy, Duration fsyncInterval) throws IOException {
+        return open(file, policy, fsyncInterval, 0L);
+    }
+
+    /**
+     * Opens a journal whose sequence numbers continue after a given sequence.
+     * Use the last sequence of a {@link BookingSnapshot} when starting a new journal
+     * next to it, so the new records are not mistaken for ones the snapshot covers.
+     * @param file The journal file, created if missing
+     * @param policy When to force appended records to disk
+     * @param fsyncInterval Minimum time between forces under {@link FsyncPolicy#INTERVAL}
+     * @param afterSequence Lowest sequence the next record may exceed
+     * @return The open journal
+     * @throws IOException if the file cannot be opened
+     * @throws IllegalArgumentException if any parameter is null or the interval or sequence is negative
+     */
+    public static BookingJournal open(Path file, FsyncPolicy policy, Duration fsyncInterval,
+                                      long afterSequence) throws IOException {
+        if (afterSequence < 0) {
+            throw new IllegalArgumentException("Sequence cannot be negative");
+        }
+        if (file == null) {
+            throw new IllegalArgumentException("Journal file cannot be null");
+        }
+        if (policy == null) {
+            throw new IllegalArgumentException("Fsync policy cannot be null");
+        }
+        if (fsyncInterval == null || fsyncInterval.isNegative()) {
+            throw new IllegalArgumentException("Fsync interval cannot be null or negative");
+        }
+        Set<String> hotels = ConcurrentHashMap.newKeySet();
+        long[] lastSequence = {afterSequence};
+        long end = JournalFormat.scan(file, (sequence, type, payload) -> {
+            lastSequence[0] = Math.max(lastSequence[0], sequence);
+            if (type == JournalFormat.HOTEL) {
+                hotels.add(payload.readUTF());
+            }
+        });
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channel.truncate(end);
+        if (end == 0L) {
+            ByteBuffer header = JournalFormat.fileHeader();
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+            end = JournalFormat.FILE_HEADER_BYTES;
+        }
+        channel.position(end);
+        return new BookingJournal(channel, policy, fsyncInterval, lastSequence[0], hotels);
+    }
+
+    /**
+     * Starts journaling a hotel.
+     * A hotel not yet present in the journal is first recorded with its current rooms
+     * and bookings. Attach a hotel before it starts taking reservations.
+     * @param hotel The hotel to journal
+     * @throws IllegalArgumentException if hotel is null
+     */
+    public void attach(Hotel hotel) {
+        if (hotel == null) {
+            throw new IllegalArgumentException("Hotel cannot be null");
+        }
+        if (journaledHotels.add(hotel.getHotelId())) {
+            append(JournalFormat.HOTEL, out -> {
+                out.writeUTF(hotel.getHotelId());
+                out.writeUTF(hotel.getName());
+                out.writeUTF(hotel.getAddress());
+            });
+            for (Room room : hotel.getRooms()) {
+                roomAdded(hotel, room);
+                for (Booking booking : room.getBookings()) {
+                    bookingAdded(hotel, booking);
+                }
+            }
+            awaitOwed();
+        }
+        hotel.addListener(this);
+    }
+
+    /**
+     * Stops journaling a hotel
+     * @param hotel The hotel to detach
+     */
+    public void detach(Hotel hotel) {
+        if (hotel != null) {
+            hotel.removeListener(this);
+        }
+    }
+
+    /**
+     * Gets the sequence number of the last record queued.
+     * Every change with a lower or equal sequence has already been applied to its hotel.
+     * @return Last queued sequence
+     */
+    public long getLastSequence() {
+        lock.lock();
+        try {
+            return lastQueued;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the sequence number of the last record handed to the file system.
+     * Under {@link FsyncPolicy#EVERY_BATCH} that record has also been forced to disk.
+     * @return Last written sequence
+     */
+    public long getWrittenSequence() {
+        lock.lock();
+        try {
+            return lastDurable;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every record queued so far has been written by the writer thread
+     * @param timeout Maximum time to wait
+     * @param unit Unit of the timeout
+     * @return true if all queued records were written in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitWritten(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            long target = lastQueued;
+            while (lastDurable < target) {
+                checkFailure();
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = written.awaitNanos(remaining);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void addressChanged(Hotel hotel, String previous) {
+        String address = hotel.getAddress();
+        append(JournalFormat.ADDRESS_CHANGED, out -> {
+            out.writeUTF(hotel.getHotelId());
+            out.writeUTF(address);
+        });
+    }
+
+    @Override
+    public void roomAdded(Hotel hotel, Room room) {
+        appendRoom(JournalFormat.ROOM_ADDED, hotel, room);
+        LocalDate ratesFrom = room.getRatesFrom();
+        if (ratesFrom != null) {
+            ratesChanged(hotel, room, ratesFrom, room.getRatesTo());
+        }
+    }
+
+    @Override
+    public void roomUpdated(Hotel hotel, Room room) {
+        appendRoom(JournalFormat.ROOM_UPDATED, hotel, room);
+    }
+
+    @Override
+    public void ratesChanged(Hotel hotel, Room room, LocalDate from, LocalDate to) {
+        long[] rates = room.getRatesMinor(from, to);
+        append(JournalFormat.RATES_CHANGED, out -> {
+            out.writeUTF(hotel.getHotelId());
+            out.writeUTF(room.getRoomId());
+            out.writeInt((int) from.toEpochDay());
+            out.writeInt(rates.length);
+            for (long rate : rates) {
+                out.writeLong(rate);
+            }
+        });
+    }
+
+    @Override
+    public void roomRemoved(Hotel hotel, Room room) {
+        append(JournalFormat.ROOM_REMOVED, out -> {
+            out.writeUTF(hotel.getHotelId());
+            out.writeUTF(room.getRoomId());
+        });
+    }
+
+    @Override
+    public void bookingAdded(Hotel hotel, Booking booking) {
+        append(JournalFormat.BOOKING_ADDED, out -> {
+            Customer customer = booking.getCustomer();
+            out.writeUTF(hotel.getHotelId());
+            out.writeUTF(booking.getRoom().getRoomId());
+            out.writeUTF(booking.getBookingId());
+            out.writeUTF(customer.getCustomerId());
+            out.writeUTF(customer.getName());
+            out.writeUTF(customer.getEmail());
+            out.writeUTF(customer.getPhone());
+            out.writeInt((int) booking.getCheckInDate().toEpochDay());
+            out.writeInt((int) booking.getCheckOutDate().toEpochDay());
+            out.writeLong(booking.getTotalPriceMinor());
+            out.writeByte(booking.getStatus().ordinal());
+        });
+    }
+
+    @Override
+    public void bookingStatusChanged(Hotel hotel, Booking booking, BookingStatus previous) {
+        append(JournalFormat.STATUS_CHANGED, out -> {
+            out.writeUTF(hotel.getHotelId());
+            out.writeUTF(booking.getRoom().getRoomId());
+            out.writeUTF(booking.getBookingId());
+            out.writeByte(booking.getStatus().ordinal());
+        });
+    }
+
+    @Override
+    public void changesReleased(Hotel hotel) {
+        awaitOwed();
+    }
+
+    /**
+     * Flushes queued records, forces them to disk and stops the writer thread
+     * @throws IOException if the final write or force fails
+     */
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queued.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.force(false);
+        } finally {
+            channel.close();
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private void appendRoom(byte type, Hotel hotel, Room room) {
+        append(type, out -> {
+            out.writeUTF(hotel.getHotelId());
+            out.writeUTF(room.getRoomId());
+            out.writeUTF(room.getRoomNumber());
+            out.writeByte(room.getType().ordinal());
+            out.writeLong(room.getPricePerNightMinor());
+            out.writeInt(room.getCapacity());
+        });
+    }
+
+    private void append(byte type, PayloadWriter payloadWriter) {
+        byte[] payload;
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+            DataOutputStream out = new DataOutputStream(bytes);
+            payloadWriter.write(out);
+            out.flush();
+            payload = bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Journal is closed");
+            }
+            checkFailure();
+            long sequence = ++lastQueued;
+            byte[] frame = JournalFormat.frame(sequence, type, payload);
+            pending.write(frame, 0, frame.length);
+            queued.signal();
+            if (policy == FsyncPolicy.EVERY_BATCH) {
+                owed.get()[0] = sequence;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until every record this thread queued is durable. Called once the hotel's
+     * locks are released, so other reservations are not held up by the force.
+     */
+    private void awaitOwed() {
+        long[] mine = owed.get();
+        long sequence = mine[0];
+        if (sequence == 0L) {
+            return;
+        }
+        lock.lock();
+        try {
+            while (lastDurable < sequence) {
+                checkFailure();
+                written.awaitUninterruptibly();
+            }
+            mine[0] = 0L;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkFailure() {
+        if (failure != null) {
+            throw new UncheckedIOException("Journal write failed", failure);
+        }
+    }
+
+    private void writeLoop() {
+        long lastForce = System.nanoTime();
+        boolean unforced = false;
+        while (true) {
+            ByteArrayOutputStream batch;
+            long batchEnd;
+            boolean stopping;
+            lock.lock();
+            try {
+                while (pending.size() == 0 && !closed) {
+                    if (unforced && policy == FsyncPolicy.INTERVAL) {
+                        long wait = fsyncIntervalNanos - (System.nanoTime() - lastForce);
+                        if (wait <= 0) {
+                            break;
+                        }
+                        queued.awaitNanos(wait);
+                    } else {
+                        queued.awaitUninterruptibly();
+                    }
+                }
+                batch = pending;
+                batchEnd = lastQueued;
+                stopping = closed;
+                pending = new ByteArrayOutputStream(Math.max(256, batch.size()));
+            } catch (InterruptedException e) {
+                continue;
+            } finally {
+                lock.unlock();
+            }
+
+            try {
+                if (batch.size() > 0) {
+                    ByteBuffer buffer = ByteBuffer.wrap(batch.toByteArray());
+                    while (buffer.hasRemaining()) {
+                        channel.write(buffer);
+                    }
+                    unforced = true;
+                }
+                boolean force = unforced && (policy == FsyncPolicy.EVERY_BATCH
+                    || (policy == FsyncPolicy.INTERVAL
+                        && System.nanoTime() - lastForce >= fsyncIntervalNanos));
+                if (force) {
+                    channel.force(false);
+                    lastForce = System.nanoTime();
+                    unforced = false;
+                }
+                markDurable(batchEnd);
+            } catch (IOException e) {
+                lock.lock();
+                try {
+                    failure = e;
+                    written.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+                return;
+            }
+            if (stopping) {
+                return;
+            }
+        }
+    }
+
+    private void markDurable(long sequence) {
+        lock.lock();
+        try {
+            lastDurable = Math.max(lastDurable, sequence);
+            written.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @FunctionalInterface
+    private interface PayloadWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+}
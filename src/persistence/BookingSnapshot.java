@@ -0,0 +1,226 @@
+package persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import domain.Booking;
+import domain.BookingRegistry;
+import domain.Customer;
+import domain.Hotel;
+import domain.Room;
+
+/**
+ * Compact binary snapshot of hotels, rooms, customers and bookings.
+ * <p>
+ * A snapshot is loaded by mapping the file into memory and decoding only its hotel
+ * directory; a hotel's rooms and bookings are built the first time that hotel is
+ * requested. Together with the tail of a {@link BookingJournal} this replaces a full
+ * journal replay at startup.
+ * <p>
+ * Layout, all integers big-endian and all offsets absolute:
+ * <pre>
+ * header   magic, version, long lastSequence, customerCount, hotelCount,
+ *          customerTableOffset, hotelTableOffset
+ * customer id, name, email, phone
+ * hotel    id, name, address, roomCount, then per room:
+ *          id, number, byte type, long price in minor units, capacity,
+ *          rateCount, then if rateCount is positive firstRateDay and one long rate in
+ *          minor units per night, -1 for a night at the price, then bookingCount,
+ *          then per booking:
+ *          id, customerIndex, checkInDay, checkOutDay, long total in minor units, byte status
+ * tables   one offset per customer, then one offset per hotel
+ * </pre>
+ * Strings are stored as a length followed by UTF-8 bytes. Snapshots are limited to 2 GiB.
+ */
+public final class BookingSnapshot {
+    static final int MAGIC = 0x48525353;
+    static final int VERSION = 4;
+    static final int HEADER_BYTES = 32;
+    static final int BOOKING_FIXED_BYTES = 3 * Integer.BYTES + Long.BYTES + 1;
+
+    private BookingSnapshot() {
+    }
+
+    /**
+     * Writes a snapshot, replacing the file atomically once it is complete.
+     * To combine the snapshot with a journal, read the journal's
+     * {@link BookingJournal#getLastSequence()} before calling this method: every change
+     * up to that sequence is then captured, and replaying later records is harmless.
+     * @param file The snapshot file
+     * @param hotels Hotels to capture
+     * @param lastSequence Journal sequence the snapshot covers
+     * @throws IOException if the snapshot cannot be written or exceeds 2 GiB
+     * @throws IllegalArgumentException if file or hotels is null, or lastSequence is negative
+     */
+    public static void write(Path file, Collection<Hotel> hotels, long lastSequence) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Snapshot file cannot be null");
+        }
+        if (hotels == null) {
+            throw new IllegalArgumentException("Hotels cannot be null");
+        }
+        if (lastSequence < 0) {
+            throw new IllegalArgumentException("Last sequence cannot be negative");
+        }
+
+        Path absolute = file.toAbsolutePath();
+        Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                writeTo(channel, new ArrayList<>(hotels), lastSequence);
+                channel.force(true);
+            }
+            Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Loads a snapshot. Only the hotel directory is read; hotels are built on first access.
+     * @param file The snapshot file
+     * @return State backed by the snapshot
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     * @throws IllegalArgumentException if file is null
+     */
+    public static RecoveredState load(Path file) throws IOException {
+        return load(file, null);
+    }
+
+    /**
+     * Loads a snapshot whose hotels index their bookings in a shared registry, as
+     * {@link Hotel#Hotel(String, String, String, BookingRegistry)} does
+     * @param file The snapshot file
+     * @param registry Registry to bind the hotels to, or null to generate IDs per hotel
+     * @return State backed by the snapshot
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     * @throws IllegalArgumentException if file is null
+     */
+    public static RecoveredState load(Path file, BookingRegistry registry) throws IOException {
+        if (file == null) {
+            throw new IllegalArgumentException("Snapshot file cannot be null");
+        }
+        return new RecoveredState(SnapshotImage.open(file), registry);
+    }
+
+    private static void writeTo(FileChannel channel, List<Hotel> hotels, long lastSequence) throws IOException {
+        channel.position(HEADER_BYTES);
+        DataOutputStream out = new DataOutputStream(
+            new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16));
+
+        List<List<Room>> roomsByHotel = new ArrayList<>(hotels.size());
+        List<List<Booking>> bookingsByRoom = new ArrayList<>();
+        Map<Customer, Integer> customerIndexes = new IdentityHashMap<>();
+        List<Integer> customerOffsets = new ArrayList<>();
+        for (Hotel hotel : hotels) {
+            List<Room> rooms = new ArrayList<>(hotel.getRooms());
+            roomsByHotel.add(rooms);
+            for (Room room : rooms) {
+                List<Booking> bookings = room.getBookings();
+                bookingsByRoom.add(bookings);
+                for (Booking booking : bookings) {
+                    Customer customer = booking.getCustomer();
+                    if (customerIndexes.putIfAbsent(customer, customerOffsets.size()) == null) {
+                        customerOffsets.add(offset(out));
+                        writeString(out, customer.getCustomerId());
+                        writeString(out, customer.getName());
+                        writeString(out, customer.getEmail());
+                        writeString(out, customer.getPhone());
+                    }
+                }
+            }
+        }
+
+        List<Integer> hotelOffsets = new ArrayList<>(hotels.size());
+        int roomIndex = 0;
+        for (int h = 0; h < hotels.size(); h++) {
+            Hotel hotel = hotels.get(h);
+            hotelOffsets.add(offset(out));
+            writeString(out, hotel.getHotelId());
+            writeString(out, hotel.getName());
+            writeString(out, hotel.getAddress());
+            List<Room> rooms = roomsByHotel.get(h);
+            out.writeInt(rooms.size());
+            for (Room room : rooms) {
+                writeString(out, room.getRoomId());
+                writeString(out, room.getRoomNumber());
+                out.writeByte(room.getType().ordinal());
+                out.writeLong(room.getPricePerNightMinor());
+                out.writeInt(room.getCapacity());
+                writeRates(out, room);
+                List<Booking> bookings = bookingsByRoom.get(roomIndex++);
+                out.writeInt(bookings.size());
+                for (Booking booking : bookings) {
+                    writeString(out, booking.getBookingId());
+                    out.writeInt(customerIndexes.get(booking.getCustomer()));
+                    out.writeInt((int) booking.getCheckInDate().toEpochDay());
+                    out.writeInt((int) booking.getCheckOutDate().toEpochDay());
+                    out.writeLong(booking.getTotalPriceMinor());
+                    out.writeByte(booking.getStatus().ordinal());
+                }
+            }
+        }
+
+        int customerTable = offset(out);
+        for (int offset : customerOffsets) {
+            out.writeInt(offset);
+        }
+        int hotelTable = offset(out);
+        for (int offset : hotelOffsets) {
+            out.writeInt(offset);
+        }
+        offset(out);
+        out.flush();
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).putLong(lastSequence)
+            .putInt(customerOffsets.size()).putInt(hotels.size())
+            .putInt(customerTable).putInt(hotelTable).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+    }
+
+    private static void writeRates(DataOutputStream out, Room room) throws IOException {
+        LocalDate from = room.getRatesFrom();
+        if (from == null) {
+            out.writeInt(0);
+            return;
+        }
+        long[] rates = room.getRatesMinor(from, room.getRatesTo());
+        out.writeInt(rates.length);
+        out.writeInt((int) from.toEpochDay());
+        for (long rate : rates) {
+            out.writeLong(rate);
+        }
+    }
+
+    private static int offset(DataOutputStream out) throws IOException {
+        long offset = (long) HEADER_BYTES + out.size();
+        if (out.size() == Integer.MAX_VALUE || offset > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot exceeds 2 GiB");
+        }
+        return (int) offset;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
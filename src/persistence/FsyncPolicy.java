@@ -0,0 +1,23 @@
+package persistence;
+
+/**
+ * Controls when the booking journal forces appended records to stable storage
+ */
+public enum FsyncPolicy {
+    /** Force after every batch; appends return once their batch is durable */
+    EVERY_BATCH("Force every batch"),
+    /** Force at most once per configured interval; appends return once queued */
+    INTERVAL("Force on interval"),
+    /** Never force explicitly and leave flushing to the operating system */
+    NONE("Operating system flush");
+    
+    private final String displayName;
+    
+    FsyncPolicy(String displayName) {
+        this.displayName = displayName;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+}
@@ -0,0 +1,150 @@
+package persistence;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Binary layout of journal records.
+ * A journal starts with {@code [int magic][int version]}, followed by records framed as
+ * {@code [int length][long sequence][byte type][payload][int crc]}, where length counts
+ * the payload bytes and the CRC covers sequence, type and payload.
+ * A torn or corrupted frame marks the end of the usable journal.
+ * <p>
+ * Version 2 stores room prices as a {@code long} count of minor units; version 3
+ * adds each booking's total price, so a replay never reprices a stay; version 4 adds
+ * the nightly rates of rooms and changes of hotel address.
+ */
+final class JournalFormat {
+    static final int MAGIC = 0x484A524E;
+    static final int VERSION = 4;
+    static final int FILE_HEADER_BYTES = 2 * Integer.BYTES;
+
+    static final byte HOTEL = 1;
+    static final byte ROOM_ADDED = 2;
+    static final byte ROOM_UPDATED = 3;
+    static final byte ROOM_REMOVED = 4;
+    static final byte BOOKING_ADDED = 5;
+    static final byte STATUS_CHANGED = 6;
+    static final byte RATES_CHANGED = 7;
+    static final byte ADDRESS_CHANGED = 8;
+
+    static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + 1;
+    static final int MAX_PAYLOAD_BYTES = 1 << 20;
+
+    private JournalFormat() {
+    }
+
+    /**
+     * Receives each intact record while a journal is scanned
+     */
+    interface RecordHandler {
+        void record(long sequence, byte type, DataInputStream payload) throws IOException;
+    }
+
+    /**
+     * Frames a record
+     * @param sequence Record sequence number
+     * @param type Record type
+     * @param payload Encoded payload
+     * @return Bytes ready to be appended to the journal
+     */
+    static byte[] frame(long sequence, byte type, byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + payload.length + Integer.BYTES);
+        buffer.putInt(payload.length).putLong(sequence).put(type).put(payload);
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.array(), Integer.BYTES, Long.BYTES + 1 + payload.length);
+        buffer.putInt((int) crc.getValue());
+        return buffer.array();
+    }
+
+    /**
+     * Builds the header a journal file starts with
+     * @return Magic and version, ready to be written at offset 0
+     */
+    static ByteBuffer fileHeader() {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_BYTES);
+        header.putInt(MAGIC).putInt(VERSION).flip();
+        return header;
+    }
+
+    /**
+     * Reads every intact record of a journal file in order
+     * @param file The journal file; a missing file, or one too short to hold a
+     *        complete header, is treated as empty
+     * @param handler Receives each record
+     * @return Byte offset just past the last intact record, or 0 if the journal is empty
+     *         and has no header yet
+     * @throws IOException if the file cannot be read, or is not a journal of this version
+     */
+    static long scan(Path file, RecordHandler handler) throws IOException {
+        if (!Files.exists(file)) {
+            return 0L;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer fileHeader = ByteBuffer.allocate(FILE_HEADER_BYTES);
+            if (!readFully(channel, fileHeader, 0L)) {
+                return 0L;
+            }
+            fileHeader.flip();
+            if (fileHeader.getInt() != MAGIC) {
+                throw new IOException("Not a booking journal");
+            }
+            int version = fileHeader.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported journal version " + version);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            long position = FILE_HEADER_BYTES;
+            while (true) {
+                header.clear();
+                if (!readFully(channel, header, position)) {
+                    return position;
+                }
+                header.flip();
+                int length = header.getInt();
+                long sequence = header.getLong();
+                byte type = header.get();
+                if (length < 0 || length > MAX_PAYLOAD_BYTES) {
+                    return position;
+                }
+                ByteBuffer body = ByteBuffer.allocate(length + Integer.BYTES);
+                if (!readFully(channel, body, position + HEADER_BYTES)) {
+                    return position;
+                }
+                byte[] bytes = body.array();
+                CRC32C crc = new CRC32C();
+                crc.update(header.array(), Integer.BYTES, Long.BYTES + 1);
+                crc.update(bytes, 0, length);
+                if ((int) crc.getValue() != ByteBuffer.wrap(bytes, length, Integer.BYTES).getInt()) {
+                    return position;
+                }
+                try {
+                    handler.record(sequence, type, new DataInputStream(new ByteArrayInputStream(bytes, 0, length)));
+                } catch (EOFException e) {
+                    return position;
+                }
+                position += HEADER_BYTES + length + Integer.BYTES;
+            }
+        }
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                return false;
+            }
+            offset += read;
+        }
+        return true;
+    }
+}
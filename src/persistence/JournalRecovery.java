@@ -0,0 +1,97 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import domain.BookingRegistry;
+
+/**
+ * Rebuilds hotels, rooms, customers and bookings from a snapshot and a booking journal
+ */
+public final class JournalRecovery {
+
+    private JournalRecovery() {
+    }
+
+    /**
+     * Replays every intact record of a journal into a fresh object graph
+     * @param journalFile The journal file; a missing file yields an empty state
+     * @return The recovered state
+     * @throws IOException if the journal cannot be read
+     * @throws IllegalArgumentException if journalFile is null
+     */
+    public static RecoveredState replay(Path journalFile) throws IOException {
+        return replay(journalFile, (BookingRegistry) null);
+    }
+
+    /**
+     * Replays every intact record of a journal into a fresh object graph whose hotels
+     * index their bookings in a shared registry
+     * @param journalFile The journal file; a missing file yields an empty state
+     * @param registry Registry to bind the hotels to, or null to generate IDs per hotel
+     * @return The recovered state
+     * @throws IOException if the journal cannot be read
+     * @throws IllegalArgumentException if journalFile is null
+     */
+    public static RecoveredState replay(Path journalFile, BookingRegistry registry) throws IOException {
+        return replay(journalFile, new RecoveredState(registry));
+    }
+
+    /**
+     * Loads a snapshot if one exists and replays the journal records it does not cover
+     * @param snapshotFile The snapshot file; a missing file means the whole journal is replayed
+     * @param journalFile The journal file; a missing file yields the snapshot alone
+     * @return The recovered state
+     * @throws IOException if either file cannot be read
+     * @throws IllegalArgumentException if either file is null
+     */
+    public static RecoveredState recover(Path snapshotFile, Path journalFile) throws IOException {
+        return recover(snapshotFile, journalFile, null);
+    }
+
+    /**
+     * Loads a snapshot if one exists and replays the journal records it does not cover,
+     * binding the hotels to a shared registry
+     * @param snapshotFile The snapshot file; a missing file means the whole journal is replayed
+     * @param journalFile The journal file; a missing file yields the snapshot alone
+     * @param registry Registry to bind the hotels to, or null to generate IDs per hotel
+     * @return The recovered state
+     * @throws IOException if either file cannot be read
+     * @throws IllegalArgumentException if either file is null
+     */
+    public static RecoveredState recover(Path snapshotFile, Path journalFile, BookingRegistry registry)
+            throws IOException {
+        if (snapshotFile == null) {
+            throw new IllegalArgumentException("Snapshot file cannot be null");
+        }
+        RecoveredState state = Files.exists(snapshotFile)
+            ? BookingSnapshot.load(snapshotFile, registry)
+            : new RecoveredState(registry);
+        return replay(journalFile, state);
+    }
+
+    /**
+     * Replays the records of a journal that are newer than the given state
+     * @param journalFile The journal file
+     * @param state State to extend, such as one loaded from a snapshot
+     * @return The same state, with newer records applied
+     * @throws IOException if the journal cannot be read
+     * @throws IllegalArgumentException if journalFile or state is null
+     */
+    static RecoveredState replay(Path journalFile, RecoveredState state) throws IOException {
+        if (journalFile == null) {
+            throw new IllegalArgumentException("Journal file cannot be null");
+        }
+        if (state == null) {
+            throw new IllegalArgumentException("State cannot be null");
+        }
+        long after = state.getLastSequence();
+        JournalFormat.scan(journalFile, (sequence, type, payload) -> {
+            if (sequence > after) {
+                state.apply(sequence, type, payload);
+            }
+        });
+        return state;
+    }
+}
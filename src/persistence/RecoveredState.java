@@ -0,0 +1,272 @@
+package persistence;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import domain.Booking;
+import domain.BookingRegistry;
+import domain.BookingStatus;
+import domain.Customer;
+import domain.Hotel;
+import domain.Room;
+import domain.RoomType;
+
+/**
+ * Object graph rebuilt from persisted records.
+ * Applying a record is idempotent, so a record that repeats state already present
+ * (for example a booking captured both by a baseline and by a live event) is ignored.
+ * <p>
+ * A state loaded from a {@link BookingSnapshot} builds each hotel the first time it is
+ * looked up, so a single hotel can serve queries before the rest are decoded. A
+ * customer's booking list is complete once every hotel has been built, which
+ * {@link #getHotels()} and {@link #getCustomers()} force.
+ */
+public final class RecoveredState {
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    private final Map<String, Hotel> hotels;
+    private final Map<String, Customer> customers;
+    private final Map<String, Booking> bookings;
+    private final SnapshotImage snapshot;
+    private final BookingRegistry registry;
+    private long lastSequence;
+
+    RecoveredState(BookingRegistry registry) {
+        this(null, registry);
+    }
+
+    RecoveredState(SnapshotImage snapshot, BookingRegistry registry) {
+        this.registry = registry;
+        this.hotels = new LinkedHashMap<>();
+        this.customers = new LinkedHashMap<>();
+        this.bookings = new HashMap<>();
+        this.snapshot = snapshot;
+        this.lastSequence = snapshot == null ? 0L : snapshot.lastSequence();
+    }
+
+    /**
+     * Gets a recovered hotel, building it from the snapshot if needed
+     * @param hotelId Hotel ID
+     * @return The hotel if found, null otherwise
+     */
+    public synchronized Hotel getHotel(String hotelId) {
+        return hotel(hotelId);
+    }
+
+    /**
+     * Gets every recovered hotel by hotel ID, building any not yet loaded
+     * @return Unmodifiable map of hotels
+     */
+    public synchronized Map<String, Hotel> getHotels() {
+        materializeAll();
+        return Collections.unmodifiableMap(hotels);
+    }
+
+    /**
+     * Gets every recovered customer by customer ID, building any hotel not yet loaded
+     * @return Unmodifiable map of customers
+     */
+    public synchronized Map<String, Customer> getCustomers() {
+        materializeAll();
+        return Collections.unmodifiableMap(customers);
+    }
+
+    /**
+     * Finds a recovered booking
+     * @param hotelId Hotel of the booking
+     * @param roomId Room of the booking
+     * @param bookingId Booking ID
+     * @return The booking if found, null otherwise
+     */
+    public synchronized Booking findBooking(String hotelId, String roomId, String bookingId) {
+        hotel(hotelId);
+        return bookings.get(bookingKey(hotelId, roomId, bookingId));
+    }
+
+    /**
+     * Gets the sequence number of the last record applied
+     * @return Last applied sequence, or 0 if nothing was recovered
+     */
+    public synchronized long getLastSequence() {
+        return lastSequence;
+    }
+
+    synchronized void apply(long sequence, byte type, DataInputStream in) throws IOException {
+        switch (type) {
+            case JournalFormat.HOTEL:
+                applyHotel(in.readUTF(), in.readUTF(), in.readUTF());
+                break;
+            case JournalFormat.ADDRESS_CHANGED:
+                applyAddress(in.readUTF(), in.readUTF());
+                break;
+            case JournalFormat.ROOM_ADDED:
+            case JournalFormat.ROOM_UPDATED:
+                applyRoom(in.readUTF(), in.readUTF(), in.readUTF(), ROOM_TYPES[in.readByte()],
+                    in.readLong(), in.readInt());
+                break;
+            case JournalFormat.RATES_CHANGED:
+                applyRates(in.readUTF(), in.readUTF(), in.readInt(), readRates(in));
+                break;
+            case JournalFormat.ROOM_REMOVED:
+                applyRoomRemoved(in.readUTF(), in.readUTF());
+                break;
+            case JournalFormat.BOOKING_ADDED:
+                applyBooking(in.readUTF(), in.readUTF(), in.readUTF(),
+                    in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF(),
+                    in.readInt(), in.readInt(), in.readLong(), STATUSES[in.readByte()]);
+                break;
+            case JournalFormat.STATUS_CHANGED:
+                applyStatus(in.readUTF(), in.readUTF(), in.readUTF(), STATUSES[in.readByte()]);
+                break;
+            default:
+                throw new IOException("Unknown journal record type " + type);
+        }
+        lastSequence = Math.max(lastSequence, sequence);
+    }
+
+    void applyHotel(String hotelId, String name, String address) {
+        if (hotel(hotelId) == null) {
+            hotels.put(hotelId, newHotel(hotelId, name, address));
+        }
+    }
+
+    void applyAddress(String hotelId, String address) {
+        Hotel hotel = hotel(hotelId);
+        if (hotel != null && !hotel.getAddress().equals(address)) {
+            hotel.setAddress(address);
+        }
+    }
+
+    void applyRoom(String hotelId, String roomId, String number, RoomType type, long priceMinor, int capacity) {
+        Hotel hotel = hotel(hotelId);
+        if (hotel == null) {
+            return;
+        }
+        Room room = hotel.getRoom(roomId);
+        if (room == null) {
+            hotel.addRoom(Room.ofMinorPrice(roomId, number, type, priceMinor, capacity));
+            return;
+        }
+        room.setRoomNumber(number);
+        room.setType(type);
+        room.setPricePerNightMinor(priceMinor);
+        room.setCapacity(capacity);
+    }
+
+    void applyRates(String hotelId, String roomId, int fromDay, long[] ratesMinor) {
+        Hotel hotel = hotel(hotelId);
+        Room room = hotel == null ? null : hotel.getRoom(roomId);
+        if (room != null) {
+            room.setRatesMinor(LocalDate.ofEpochDay(fromDay), ratesMinor);
+        }
+    }
+
+    private static long[] readRates(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        if (count < 0 || count > JournalFormat.MAX_PAYLOAD_BYTES / Long.BYTES) {
+            throw new IOException("Invalid rate count " + count);
+        }
+        long[] rates = new long[count];
+        for (int i = 0; i < count; i++) {
+            rates[i] = in.readLong();
+        }
+        return rates;
+    }
+
+    void applyRoomRemoved(String hotelId, String roomId) {
+        Hotel hotel = hotel(hotelId);
+        if (hotel != null) {
+            hotel.removeRoom(roomId);
+        }
+    }
+
+    void applyBooking(String hotelId, String roomId, String bookingId,
+                      String customerId, String name, String email, String phone,
+                      int checkInDay, int checkOutDay, long totalPriceMinor, BookingStatus status) {
+        String key = bookingKey(hotelId, roomId, bookingId);
+        Hotel hotel = hotel(hotelId);
+        Room room = hotel == null ? null : hotel.getRoom(roomId);
+        if (room == null || bookings.containsKey(key)) {
+            return;
+        }
+        Customer customer = customer(customerId);
+        if (customer == null) {
+            customer = new Customer(customerId, name, email, phone);
+            customers.put(customerId, customer);
+        }
+        Booking booking = Booking.ofTotalPriceMinor(bookingId, customer, room,
+            LocalDate.ofEpochDay(checkInDay), LocalDate.ofEpochDay(checkOutDay), totalPriceMinor);
+        if (status != BookingStatus.PENDING) {
+            booking.setStatus(status);
+        }
+        room.addBooking(booking);
+        customer.addBooking(booking);
+        bookings.put(key, booking);
+    }
+
+    void applyStatus(String hotelId, String roomId, String bookingId, BookingStatus status) {
+        hotel(hotelId);
+        Booking booking = bookings.get(bookingKey(hotelId, roomId, bookingId));
+        if (booking != null && booking.getStatus() != status) {
+            booking.setStatus(status);
+        }
+    }
+
+    /**
+     * Creates a recovered hotel, bound to the registry recovery was given if any, so
+     * its replayed bookings are registered and new ones take their IDs from it
+     */
+    Hotel newHotel(String hotelId, String name, String address) {
+        return new Hotel(hotelId, name, address, registry);
+    }
+
+    /**
+     * Records a booking decoded from the snapshot
+     * @param hotelId Hotel of the booking
+     * @param booking The booking
+     */
+    void restored(String hotelId, Booking booking) {
+        Customer customer = booking.getCustomer();
+        customers.putIfAbsent(customer.getCustomerId(), customer);
+        bookings.put(bookingKey(hotelId, booking.getRoom().getRoomId(), booking.getBookingId()), booking);
+    }
+
+    private Hotel hotel(String hotelId) {
+        Hotel hotel = hotels.get(hotelId);
+        if (hotel == null && snapshot != null && snapshot.containsHotel(hotelId)) {
+            hotel = snapshot.materializeHotel(hotelId, this);
+            hotels.put(hotelId, hotel);
+        }
+        return hotel;
+    }
+
+    private Customer customer(String customerId) {
+        Customer customer = customers.get(customerId);
+        if (customer == null && snapshot != null) {
+            int index = snapshot.customerIndex(customerId);
+            if (index >= 0) {
+                customer = snapshot.customer(index);
+                customers.put(customerId, customer);
+            }
+        }
+        return customer;
+    }
+
+    private void materializeAll() {
+        if (snapshot != null) {
+            for (String hotelId : snapshot.hotelIds()) {
+                hotel(hotelId);
+            }
+        }
+    }
+
+    private static String bookingKey(String hotelId, String roomId, String bookingId) {
+        return hotelId + '\u0000' + roomId + '\u0000' + bookingId;
+    }
+}
@@ -0,0 +1,204 @@
+package persistence;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import domain.Booking;
+import domain.BookingStatus;
+import domain.Customer;
+import domain.Hotel;
+import domain.Room;
+import domain.RoomType;
+
+/**
+ * Read-only view of a snapshot file mapped into memory.
+ * Only the hotel directory is decoded when the image is opened; hotels and
+ * customers are decoded from the mapping the first time they are asked for.
+ * See {@link BookingSnapshot} for the layout.
+ */
+final class SnapshotImage {
+    private static final BookingStatus[] STATUSES = BookingStatus.values();
+    private static final RoomType[] ROOM_TYPES = RoomType.values();
+
+    private final ByteBuffer buffer;
+    private final long lastSequence;
+    private final int customerTable;
+    private final int customerCount;
+    private final Map<String, Integer> hotelOffsets;
+    private final Customer[] customers;
+    private Map<String, Integer> customerIndexes;
+
+    private SnapshotImage(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != BookingSnapshot.MAGIC) {
+            throw new IOException("Not a booking snapshot");
+        }
+        if (buffer.getInt(4) != BookingSnapshot.VERSION) {
+            throw new IOException("Unsupported snapshot version " + buffer.getInt(4));
+        }
+        this.lastSequence = buffer.getLong(8);
+        this.customerCount = buffer.getInt(16);
+        int hotelCount = buffer.getInt(20);
+        this.customerTable = buffer.getInt(24);
+        int hotelTable = buffer.getInt(28);
+        this.customers = new Customer[customerCount];
+        this.hotelOffsets = new LinkedHashMap<>();
+        for (int i = 0; i < hotelCount; i++) {
+            int offset = buffer.getInt(hotelTable + i * Integer.BYTES);
+            hotelOffsets.put(readString(buffer.duplicate().position(offset)), offset);
+        }
+    }
+
+    /**
+     * Maps a snapshot file
+     * @param file The snapshot file
+     * @return The image
+     * @throws IOException if the file cannot be read or is not a valid snapshot
+     */
+    static SnapshotImage open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < BookingSnapshot.HEADER_BYTES || channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Invalid snapshot size " + channel.size());
+            }
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new SnapshotImage(mapped);
+        }
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Gets the IDs of the hotels in the snapshot, in the order they were written
+     * @return Hotel IDs
+     */
+    List<String> hotelIds() {
+        return new ArrayList<>(hotelOffsets.keySet());
+    }
+
+    boolean containsHotel(String hotelId) {
+        return hotelOffsets.containsKey(hotelId);
+    }
+
+    /**
+     * Decodes a hotel with its rooms and bookings, handing each booking to the state
+     * @param hotelId The hotel to decode
+     * @param state State that receives the decoded bookings and resolves customers
+     * @return The hotel, or null if it is not in the snapshot
+     */
+    Hotel materializeHotel(String hotelId, RecoveredState state) {
+        Integer offset = hotelOffsets.get(hotelId);
+        if (offset == null) {
+            return null;
+        }
+        ByteBuffer in = buffer.duplicate().position(offset);
+        Hotel hotel = state.newHotel(readString(in), readString(in), readString(in));
+        int roomCount = in.getInt();
+        List<Room> rooms = new ArrayList<>(roomCount);
+        List<Integer> bookingOffsets = new ArrayList<>(roomCount);
+        for (int i = 0; i < roomCount; i++) {
+            Room room = Room.ofMinorPrice(readString(in), readString(in), ROOM_TYPES[in.get()], in.getLong(), in.getInt());
+            int rateCount = in.getInt();
+            if (rateCount > 0) {
+                LocalDate ratesFrom = LocalDate.ofEpochDay(in.getInt());
+                long[] rates = new long[rateCount];
+                in.asLongBuffer().get(rates);
+                in.position(in.position() + rateCount * Long.BYTES);
+                room.setRatesMinor(ratesFrom, rates);
+            }
+            rooms.add(room);
+            bookingOffsets.add(in.position());
+            int bookingCount = in.getInt();
+            for (int b = 0; b < bookingCount; b++) {
+                skipString(in);
+                in.position(in.position() + BookingSnapshot.BOOKING_FIXED_BYTES);
+            }
+        }
+        hotel.addRooms(rooms);
+
+        for (int i = 0; i < roomCount; i++) {
+            Room room = rooms.get(i);
+            in.position(bookingOffsets.get(i));
+            int bookingCount = in.getInt();
+            for (int b = 0; b < bookingCount; b++) {
+                String bookingId = readString(in);
+                Customer customer = customer(in.getInt());
+                LocalDate checkIn = LocalDate.ofEpochDay(in.getInt());
+                LocalDate checkOut = LocalDate.ofEpochDay(in.getInt());
+                long totalPriceMinor = in.getLong();
+                BookingStatus status = STATUSES[in.get()];
+                Booking booking = Booking.ofTotalPriceMinor(bookingId, customer, room, checkIn, checkOut, totalPriceMinor);
+                if (status != BookingStatus.PENDING) {
+                    booking.setStatus(status);
+                }
+                room.addBooking(booking);
+                customer.addBooking(booking);
+                state.restored(hotelId, booking);
+            }
+        }
+        return hotel;
+    }
+
+    /**
+     * Finds the index of a customer by ID, decoding the customer IDs on first use
+     * @param customerId Customer ID
+     * @return The index, or -1 if the customer is not in the snapshot
+     */
+    int customerIndex(String customerId) {
+        if (customerIndexes == null) {
+            Map<String, Integer> indexes = new HashMap<>(customerCount * 2);
+            for (int i = 0; i < customerCount; i++) {
+                indexes.putIfAbsent(readString(customerRecord(i)), i);
+            }
+            customerIndexes = indexes;
+        }
+        return customerIndexes.getOrDefault(customerId, -1);
+    }
+
+    int customerCount() {
+        return customerCount;
+    }
+
+    /**
+     * Gets a customer, decoding it on first use
+     * @param index Customer index
+     * @return The customer
+     */
+    Customer customer(int index) {
+        Customer customer = customers[index];
+        if (customer == null) {
+            ByteBuffer in = customerRecord(index);
+            customer = new Customer(readString(in), readString(in), readString(in), readString(in));
+            customers[index] = customer;
+        }
+        return customer;
+    }
+
+    private ByteBuffer customerRecord(int index) {
+        return buffer.duplicate().position(buffer.getInt(customerTable + index * Integer.BYTES));
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void skipString(ByteBuffer in) {
+        int length = in.getInt();
+        in.position(in.position() + length);
+    }
+}
@@ -0,0 +1,197 @@
+package test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import domain.AvailabilityCache;
+import domain.Booking;
+import domain.Customer;
+import domain.Hotel;
+import domain.Room;
+import domain.RoomType;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for cached availability searches
+ */
+public class AvailabilityCacheTest {
+
+    private Hotel hotel;
+    private Room room1;
+    private Room room2;
+    private Customer customer;
+    private LocalDate checkIn;
+    private AvailabilityCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        hotel = new Hotel("H001", "Grand Hotel", "123 Main St");
+        room1 = new Room("R001", "101", RoomType.SINGLE, 100.0, 1);
+        room2 = new Room("R002", "102", RoomType.DOUBLE, 150.0, 2);
+        hotel.addRoom(room1);
+        hotel.addRoom(room2);
+        customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        checkIn = LocalDate.now().plusDays(10);
+        cache = hotel.enableAvailabilityCache(100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    public void testFindAvailableRooms_RepeatedSearch_AnsweredFromCache() {
+        // Arrange
+        List<Room> first = hotel.findAvailableRooms(checkIn, checkIn.plusDays(2));
+
+        // Act
+        List<Room> second = hotel.findAvailableRooms(checkIn, checkIn.plusDays(2));
+
+        // Assert
+        assertEquals(first, second);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRatio(), 1e-9);
+    }
+
+    @Test
+    public void testReserve_OverlappingStay_DropsOnlyOverlappingResults() {
+        // Arrange
+        hotel.findAvailableRooms(checkIn, checkIn.plusDays(2));
+        hotel.findAvailableRooms(checkIn.plusDays(20), checkIn.plusDays(22));
+        hotel.findCheapestAvailableRooms(checkIn.plusDays(1), checkIn.plusDays(3), 1);
+
+        // Act
+        hotel.reserve(customer, "R001", checkIn.plusDays(2), checkIn.plusDays(4));
+        List<Room> overlapping = hotel.findAvailableRooms(checkIn, checkIn.plusDays(2));
+        List<Room> cheapest = hotel.findCheapestAvailableRooms(checkIn.plusDays(1), checkIn.plusDays(3), 1);
+        hotel.findAvailableRooms(checkIn.plusDays(20), checkIn.plusDays(22));
+
+        // Assert
+        assertEquals(List.of(room2), overlapping);
+        assertEquals(List.of(room2), cheapest);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getInvalidationCount());
+        assertEquals(2, cache.getInvalidatedEntryCount());
+    }
+
+    @Test
+    public void testCancel_CachedBookedRange_RoomAvailableAgain() {
+        // Arrange
+        Booking booking = hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(2));
+        assertEquals(List.of(room2), hotel.findAvailableRooms(checkIn, checkIn.plusDays(2), null, 1, 500.0));
+
+        // Act
+        booking.cancel();
+
+        // Assert
+        assertEquals(List.of(room1, room2), hotel.findAvailableRooms(checkIn, checkIn.plusDays(2), null, 1, 500.0));
+    }
+
+    @Test
+    public void testReserve_InsideLongCachedStay_DropsLongStay() {
+        // Arrange
+        hotel.findAvailableRooms(checkIn, checkIn.plusDays(40));
+        hotel.findAvailableRooms(checkIn.plusDays(30), checkIn.plusDays(31));
+
+        // Act
+        hotel.reserve(customer, "R001", checkIn.plusDays(35), checkIn.plusDays(36));
+        List<Room> longStay = hotel.findAvailableRooms(checkIn, checkIn.plusDays(40));
+
+        // Assert
+        assertEquals(List.of(room2), longStay);
+        assertEquals(1, cache.getInvalidatedEntryCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testReserve_ConcurrentSearches_NeverKeepStaleResult() throws InterruptedException {
+        // Arrange
+        AtomicBoolean done = new AtomicBoolean();
+        List<Thread> searchers = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            Thread searcher = new Thread(() -> {
+                while (!done.get()) {
+                    for (int day = 0; day < 20; day += 2) {
+                        hotel.findAvailableRooms(checkIn.plusDays(day), checkIn.plusDays(day + 1));
+                    }
+                }
+            });
+            searchers.add(searcher);
+            searcher.start();
+        }
+
+        // Act
+        for (int day = 0; day < 20; day += 2) {
+            hotel.reserve(customer, "R001", checkIn.plusDays(day), checkIn.plusDays(day + 1));
+            Thread.yield();
+        }
+        done.set(true);
+        for (Thread searcher : searchers) {
+            searcher.join();
+        }
+
+        // Assert
+        for (int day = 0; day < 20; day += 2) {
+            assertEquals(List.of(room2), hotel.findAvailableRooms(checkIn.plusDays(day), checkIn.plusDays(day + 1)));
+        }
+    }
+
+    @Test
+    public void testAddRoom_CachedResults_AllDropped() {
+        // Arrange
+        hotel.findAvailableRooms(checkIn, checkIn.plusDays(2));
+        hotel.findAvailableRooms(checkIn.plusDays(20), checkIn.plusDays(22));
+        Room room3 = new Room("R003", "103", RoomType.SUITE, 300.0, 4);
+
+        // Act
+        hotel.addRoom(room3);
+
+        // Assert
+        assertEquals(0, cache.size());
+        assertTrue(hotel.findAvailableRooms(checkIn.plusDays(20), checkIn.plusDays(22)).contains(room3));
+    }
+
+    @Test
+    public void testFindAvailableRooms_MoreWindowsThanEntries_EvictsLeastRecentlyUsed() {
+        // Arrange
+        cache = hotel.enableAvailabilityCache(2, Duration.ofMinutes(5));
+        hotel.findAvailableRooms(checkIn, checkIn.plusDays(1));
+        hotel.findAvailableRooms(checkIn.plusDays(5), checkIn.plusDays(6));
+        hotel.findAvailableRooms(checkIn, checkIn.plusDays(1));
+
+        // Act
+        hotel.findAvailableRooms(checkIn.plusDays(9), checkIn.plusDays(10));
+        hotel.findAvailableRooms(checkIn, checkIn.plusDays(1));
+
+        // Assert
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.getHitCount());
+    }
+
+    @Test
+    public void testFindAvailableRooms_ExpiredResult_Recomputed() {
+        // Arrange
+        cache = hotel.enableAvailabilityCache(10, Duration.ofNanos(1));
+        hotel.findAvailableRooms(checkIn, checkIn.plusDays(2));
+
+        // Act
+        hotel.findAvailableRooms(checkIn, checkIn.plusDays(2));
+
+        // Assert
+        assertEquals(0, cache.getHitCount());
+        assertEquals(1, cache.getExpirationCount());
+    }
+
+    @Test
+    public void testEnableAvailabilityCache_InvalidSettings_ThrowsException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> hotel.enableAvailabilityCache(0, Duration.ofMinutes(1)));
+        assertThrows(IllegalArgumentException.class, () -> hotel.enableAvailabilityCache(10, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> hotel.enableAvailabilityCache(10, null));
+    }
+}
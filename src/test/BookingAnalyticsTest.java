@@ -0,0 +1,160 @@
+package test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import domain.Booking;
+import domain.BookingAnalytics;
+import domain.BookingCompactor;
+import domain.BookingReport;
+import domain.BookingStatus;
+import domain.Customer;
+import domain.Hotel;
+import domain.HotelPortfolio;
+import domain.Room;
+import domain.RoomType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for BookingAnalytics
+ */
+public class BookingAnalyticsTest {
+
+    private Hotel hotel;
+    private Customer alice;
+    private Customer bob;
+    private LocalDate start;
+    private BookingAnalytics analytics;
+
+    @BeforeEach
+    public void setUp() {
+        hotel = new Hotel("H001", "Grand Hotel", "123 Main St");
+        hotel.addRoom(new Room("R001", "101", RoomType.DOUBLE, 100.0, 2));
+        hotel.addRoom(new Room("R002", "201", RoomType.SUITE, 300.0, 4));
+        alice = new Customer("C001", "Alice", "alice@example.com", "123-456-7890");
+        bob = new Customer("C002", "Bob", "bob@example.com", "123-456-7891");
+        start = LocalDate.of(2030, 1, 1);
+        analytics = new BookingAnalytics();
+    }
+
+    @Test
+    public void testAnalyze_MixedBookings_ComputesEveryFigure() {
+        // Arrange
+        hotel.reserve(alice, "R001", start, start.plusDays(3)).confirm();
+        hotel.reserve(bob, "R001", start.plusDays(5), start.plusDays(6)).cancel();
+        hotel.reserve(bob, "R002", start.plusDays(8), start.plusDays(12)).confirm();
+        hotel.reserve(alice, "R002", start.plusDays(20), start.plusDays(21));
+
+        // Act
+        BookingReport report = analytics.analyze(List.of(hotel), start, start.plusDays(10));
+
+        // Assert
+        assertEquals(4, report.getBookingCount(null));
+        assertEquals(0.5, report.getCancellationRate(RoomType.DOUBLE), 1e-9);
+        assertEquals(0.0, report.getCancellationRate(RoomType.SUITE), 1e-9);
+        assertEquals(5, report.getRoomNightsSold());
+        assertEquals(20, report.getAvailableRoomNights());
+        assertEquals(0.25, report.getOccupancyRate(), 1e-9);
+        long[] stays = report.getLengthOfStayCounts();
+        assertEquals(1, stays[3]);
+        assertEquals(1, stays[4]);
+        assertEquals(30000, report.getRevenueMinor("C001"));
+        assertEquals(120000, report.getRevenueMinor("C002"));
+        assertEquals(2, report.getRevenueByCustomer().size());
+    }
+
+    @Test
+    public void testAnalyze_ArchivedBookings_StillCounted() {
+        // Arrange
+        hotel.reserve(alice, "R001", start, start.plusDays(2)).cancel();
+        Booking completed = hotel.reserve(alice, "R001", start.plusDays(4), start.plusDays(5));
+        completed.setStatus(BookingStatus.COMPLETED);
+        new BookingCompactor(hotel).compact(10);
+
+        // Act
+        BookingReport report = analytics.analyze(List.of(hotel), start, start.plusDays(10));
+
+        // Assert
+        assertEquals(2, report.getBookingCount(RoomType.DOUBLE));
+        assertEquals(1, report.getCancelledCount(null));
+        assertEquals(10000, report.getRevenueMinor("C001"));
+    }
+
+    @Test
+    public void testAnalyze_ManyHotelsOnOwnPool_MatchesSequentialTally() {
+        // Arrange
+        HotelPortfolio portfolio = new HotelPortfolio();
+        Random random = new Random(7);
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            customers.add(new Customer("C" + i, "Guest " + i, "guest" + i + "@example.com", "123-456-7890"));
+        }
+        List<Booking> all = new ArrayList<>();
+        for (int h = 0; h < 6; h++) {
+            Hotel chainHotel = new Hotel("H" + h, "Hotel " + h, h + " Main St, Lahore");
+            for (int r = 0; r < 5; r++) {
+                chainHotel.addRoom(new Room("R" + r, "10" + r, RoomType.values()[r % 4], 50.0 + r, 2));
+                LocalDate day = start;
+                for (int b = 0; b < 400; b++) {
+                    int nights = 1 + random.nextInt(6);
+                    Customer customer = customers.get(random.nextInt(customers.size()));
+                    Booking booking = chainHotel.reserve(customer, "R" + r, day, day.plusDays(nights));
+                    int roll = random.nextInt(3);
+                    if (roll == 0) {
+                        booking.cancel();
+                    } else if (roll == 1) {
+                        booking.confirm();
+                    }
+                    all.add(booking);
+                    day = day.plusDays(nights + 1);
+                }
+            }
+            portfolio.addHotel(chainHotel);
+        }
+        ForkJoinPool pool = new ForkJoinPool(4);
+
+        // Act
+        BookingReport report = new BookingAnalytics(pool).analyze(portfolio, start, start.plusDays(365));
+        pool.shutdown();
+
+        // Assert
+        long cancelled = 0;
+        long nightsInYear = 0;
+        Map<String, Long> revenue = new HashMap<>();
+        for (Booking booking : all) {
+            if (booking.getStatus() == BookingStatus.CANCELLED) {
+                cancelled++;
+            }
+            if (booking.getStatus().isSold()) {
+                revenue.merge(booking.getCustomer().getCustomerId(), booking.getTotalPriceMinor(), Long::sum);
+                LocalDate end = booking.getCheckOutDate().isAfter(start.plusDays(365))
+                    ? start.plusDays(365) : booking.getCheckOutDate();
+                if (end.isAfter(booking.getCheckInDate())) {
+                    nightsInYear += end.toEpochDay() - booking.getCheckInDate().toEpochDay();
+                }
+            }
+        }
+        assertEquals(all.size(), report.getBookingCount(null));
+        assertEquals(cancelled, report.getCancelledCount(null));
+        assertEquals(nightsInYear, report.getRoomNightsSold());
+        assertEquals(revenue, report.getRevenueByCustomer());
+        assertEquals(30L * 365, report.getAvailableRoomNights());
+    }
+
+    @Test
+    public void testAnalyze_InvalidArguments_ThrowsException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> analytics.analyze((List<Hotel>) null, start, start.plusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> analytics.analyze(List.of(hotel), start, start));
+        assertThrows(IllegalArgumentException.class, () -> new BookingAnalytics(null));
+    }
+}
@@ -0,0 +1,203 @@
+package test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import domain.Booking;
+import domain.BookingCompactor;
+import domain.BookingStatus;
+import domain.Customer;
+import domain.Hotel;
+import domain.Room;
+import domain.RoomType;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for BookingCompactor
+ */
+public class BookingCompactorTest {
+
+    private Hotel hotel;
+    private Room room;
+    private Customer customer;
+    private LocalDate checkIn;
+    private BookingCompactor compactor;
+
+    @BeforeEach
+    public void setUp() {
+        hotel = new Hotel("H001", "Grand Hotel", "123 Main St");
+        room = new Room("R001", "101", RoomType.DOUBLE, 150.0, 2);
+        hotel.addRoom(room);
+        customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        checkIn = LocalDate.now().plusDays(10);
+        compactor = new BookingCompactor(hotel);
+    }
+
+    @Test
+    public void testCompact_FinishedBookings_ArchivedButStillListed() {
+        // Arrange
+        Booking cancelled = hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(2));
+        cancelled.cancel();
+        Booking completed = hotel.reserve(customer, "R001", checkIn.plusDays(5), checkIn.plusDays(6));
+        completed.setStatus(BookingStatus.COMPLETED);
+        Booking active = hotel.reserve(customer, "R001", checkIn.plusDays(8), checkIn.plusDays(9));
+
+        // Act
+        int archived = compactor.compact(10);
+
+        // Assert
+        assertEquals(2, archived);
+        assertEquals(0, compactor.compact(10));
+        List<Booking> history = room.getBookings();
+        assertEquals(3, history.size());
+        assertEquals(cancelled.getBookingId(), history.get(0).getBookingId());
+        assertEquals(BookingStatus.CANCELLED, history.get(0).getStatus());
+        assertEquals(BookingStatus.COMPLETED, history.get(1).getStatus());
+        assertSame(active, history.get(2));
+        assertTrue(room.isAvailable(checkIn, checkIn.plusDays(2)));
+        assertFalse(room.isAvailable(checkIn.plusDays(8), checkIn.plusDays(9)));
+    }
+
+    @Test
+    public void testCompact_PastStay_StillBlocksPastDates() {
+        // Arrange
+        LocalDate pastCheckIn = LocalDate.now().minusDays(10);
+        Booking past = hotel.reserve(customer, "R001", pastCheckIn, pastCheckIn.plusDays(3));
+        past.confirm();
+
+        // Act
+        compactor.compact(10);
+
+        // Assert
+        assertFalse(room.isAvailable(pastCheckIn.plusDays(1), pastCheckIn.plusDays(2)));
+        assertThrows(IllegalStateException.class,
+            () -> hotel.reserve(customer, "R001", pastCheckIn.plusDays(2), pastCheckIn.plusDays(5)));
+        past.cancel();
+        assertTrue(room.isAvailable(pastCheckIn.plusDays(1), pastCheckIn.plusDays(2)));
+    }
+
+    @Test
+    public void testSetStatus_ArchivedBookingBlocksAgain_BlocksRoomAgain() {
+        // Arrange
+        Booking booking = hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(2));
+        booking.cancel();
+        compactor.compact(10);
+
+        // Act
+        booking.setStatus(BookingStatus.PENDING);
+
+        // Assert
+        assertEquals(List.of(booking), room.getBookings());
+        assertFalse(room.isAvailable(checkIn, checkIn.plusDays(2)));
+    }
+
+    @Test
+    public void testGetBookings_ArchivedBookings_SameObjectsAsCustomer() {
+        // Arrange
+        Booking booking = hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(2));
+        booking.confirm();
+        booking.setStatus(BookingStatus.COMPLETED);
+        compactor.compact(10);
+
+        // Act
+        Booking listed = room.getBookings().get(0);
+        listed.setStatus(BookingStatus.CONFIRMED);
+
+        // Assert
+        assertSame(booking, listed);
+        assertTrue(customer.getBookings().contains(listed));
+        assertEquals(BookingStatus.CONFIRMED, booking.getStatus());
+        assertEquals(1, hotel.getSalesStatistics().getActiveBookings(RoomType.DOUBLE));
+        assertFalse(room.isAvailable(checkIn, checkIn.plusDays(2)));
+    }
+
+    @Test
+    public void testCompact_RepeatedCompactions_KeepsEveryArchivedBooking() {
+        // Arrange
+        List<Booking> finished = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Booking booking = hotel.reserve(customer, "R001", checkIn.plusDays(3 * i), checkIn.plusDays(3 * i + 1));
+            booking.cancel();
+            finished.add(booking);
+        }
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            compactor.compact(10);
+            Booking booking = hotel.reserve(customer, "R001", checkIn.plusDays(3 * i), checkIn.plusDays(3 * i + 1));
+            booking.cancel();
+            finished.add(booking);
+        }
+        compactor.compact(10);
+
+        // Assert
+        assertEquals(finished.size(), room.getBookings().size());
+        assertTrue(room.getBookings().containsAll(finished));
+    }
+
+    @Test
+    public void testCompact_ArchivedBookingCompleted_StatusWrittenToArchive() {
+        // Arrange
+        Booking booking = hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(2));
+        booking.cancel();
+        compactor.compact(10);
+
+        // Act
+        booking.setStatus(BookingStatus.COMPLETED);
+
+        // Assert
+        assertEquals(BookingStatus.COMPLETED, room.getBookings().get(0).getStatus());
+    }
+
+    @Test
+    public void testCompact_RoomLimit_VisitsRoomsInTurn() {
+        // Arrange
+        hotel.addRoom(new Room("R002", "102", RoomType.DOUBLE, 150.0, 2));
+        hotel.addRoom(new Room("R003", "103", RoomType.DOUBLE, 150.0, 2));
+        for (String roomId : List.of("R001", "R002", "R003")) {
+            hotel.reserve(customer, roomId, checkIn, checkIn.plusDays(2)).cancel();
+        }
+
+        // Act
+        int first = compactor.compact(1);
+        int second = compactor.compact(2);
+        int third = compactor.compact(3);
+
+        // Assert
+        assertEquals(1, first);
+        assertEquals(2, second);
+        assertEquals(0, third);
+        assertEquals(3, compactor.getArchivedCount());
+        assertEquals(6, compactor.getRoomsVisited());
+        assertThrows(IllegalArgumentException.class, () -> compactor.compact(0));
+    }
+
+    @Test
+    public void testSchedule_PeriodicSteps_ArchiveInBackground() throws InterruptedException {
+        // Arrange
+        hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(2)).cancel();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+        // Act
+        ScheduledFuture<?> task = compactor.schedule(scheduler, Duration.ofMillis(5), 8);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (compactor.getArchivedCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        task.cancel(false);
+        scheduler.shutdown();
+
+        // Assert
+        assertEquals(1, compactor.getArchivedCount());
+        assertEquals(BookingStatus.CANCELLED, room.getBookings().get(0).getStatus());
+    }
+}
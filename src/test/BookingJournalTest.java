@@ -0,0 +1,319 @@
+package test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import domain.Booking;
+import domain.BookingRegistry;
+import domain.BookingStatus;
+import domain.Customer;
+import domain.Hotel;
+import domain.Room;
+import domain.RoomType;
+import persistence.BookingJournal;
+import persistence.FsyncPolicy;
+import persistence.JournalRecovery;
+import persistence.RecoveredState;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the booking journal and its replay
+ */
+public class BookingJournalTest {
+
+    private Path file;
+    private Hotel hotel;
+    private Customer customer;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        file = Files.createTempFile("bookings", ".journal");
+        hotel = new Hotel("H001", "Grand Hotel", "123 Main St");
+        hotel.addRoom(new Room("R001", "101", RoomType.SINGLE, 100.0, 1));
+        hotel.addRoom(new Room("R002", "102", RoomType.DOUBLE, 150.0, 2));
+        customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        checkIn = LocalDate.now().plusDays(10);
+        checkOut = LocalDate.now().plusDays(13);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testReplay_JournaledChanges_RebuildsHotel() throws IOException {
+        // Arrange
+        Booking confirmed;
+        Booking cancelled;
+        try (BookingJournal journal = BookingJournal.open(file)) {
+            journal.attach(hotel);
+            confirmed = hotel.reserve(customer, "R001", checkIn, checkOut);
+            confirmed.confirm();
+            cancelled = hotel.reserve(customer, "R002", checkIn, checkOut);
+            cancelled.cancel();
+            hotel.getRoom("R002").setPricePerNight(175.0);
+            hotel.addRoom(new Room("R003", "103", RoomType.SUITE, 300.0, 4));
+        }
+
+        // Act
+        RecoveredState state = JournalRecovery.replay(file);
+
+        // Assert
+        Hotel recovered = state.getHotels().get("H001");
+        assertNotNull(recovered);
+        assertEquals("Grand Hotel", recovered.getName());
+        assertEquals(3, recovered.getRooms().size());
+        assertEquals(175.0, recovered.getRoom("R002").getPricePerNight(), 0.01);
+        Booking booking = state.findBooking("H001", "R001", confirmed.getBookingId());
+        assertNotNull(booking);
+        assertEquals(BookingStatus.CONFIRMED, booking.getStatus());
+        assertEquals(checkIn, booking.getCheckInDate());
+        assertEquals(checkOut, booking.getCheckOutDate());
+        assertEquals(BookingStatus.CANCELLED,
+            state.findBooking("H001", "R002", cancelled.getBookingId()).getStatus());
+        assertEquals(2, state.getCustomers().get("C001").getBookings().size());
+        assertFalse(recovered.getRoom("R001").isAvailable(checkIn, checkOut));
+        assertTrue(recovered.getRoom("R002").isAvailable(checkIn, checkOut));
+    }
+
+    @Test
+    public void testAttach_ExistingBookings_WrittenAsBaseline() throws IOException {
+        // Arrange
+        Booking booking = hotel.reserve(customer, "R001", checkIn, checkOut);
+
+        // Act
+        try (BookingJournal journal = BookingJournal.open(file, FsyncPolicy.NONE, Duration.ZERO)) {
+            journal.attach(hotel);
+        }
+        RecoveredState state = JournalRecovery.replay(file);
+
+        // Assert
+        assertNotNull(state.findBooking("H001", "R001", booking.getBookingId()));
+        assertEquals(4, state.getLastSequence());
+    }
+
+    @Test
+    public void testReplay_TornTail_StopsAtLastIntactRecord() throws IOException {
+        // Arrange
+        try (BookingJournal journal = BookingJournal.open(file)) {
+            journal.attach(hotel);
+            hotel.reserve(customer, "R001", checkIn, checkOut);
+        }
+        long intact = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(intact - 3);
+        }
+
+        // Act
+        RecoveredState state = JournalRecovery.replay(file);
+
+        // Assert
+        assertEquals(3, state.getLastSequence());
+        assertEquals(2, state.getHotels().get("H001").getRooms().size());
+        assertTrue(state.getCustomers().isEmpty());
+    }
+
+    @Test
+    public void testOpen_AfterTornTail_AppendsAfterLastIntactRecord() throws IOException {
+        // Arrange
+        try (BookingJournal journal = BookingJournal.open(file)) {
+            journal.attach(hotel);
+            hotel.reserve(customer, "R001", checkIn, checkOut);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(file) - 3);
+        }
+        RecoveredState first = JournalRecovery.replay(file);
+        Hotel reopened = first.getHotels().get("H001");
+
+        // Act
+        try (BookingJournal journal = BookingJournal.open(file)) {
+            journal.attach(reopened);
+            reopened.reserve(customer, "R002", checkIn, checkOut);
+        }
+        RecoveredState second = JournalRecovery.replay(file);
+
+        // Assert
+        assertEquals(4, second.getLastSequence());
+        assertFalse(second.getHotels().get("H001").getRoom("R002").isAvailable(checkIn, checkOut));
+        assertTrue(second.getHotels().get("H001").getRoom("R001").isAvailable(checkIn, checkOut));
+    }
+
+    @Test
+    public void testReserve_AfterRecovery_DoesNotReuseBookingIds() throws IOException {
+        // Arrange
+        Booking original;
+        try (BookingJournal journal = BookingJournal.open(file)) {
+            journal.attach(hotel);
+            original = hotel.reserve(customer, "R001", checkIn, checkOut);
+        }
+        Hotel recovered = JournalRecovery.replay(file).getHotels().get("H001");
+
+        // Act
+        Booking next = recovered.reserve(customer, "R002", checkIn, checkOut);
+
+        // Assert
+        assertNotEquals(original.getBookingId(), next.getBookingId());
+    }
+
+    @Test
+    public void testReplay_MinorUnitPrices_RestoredExactly() throws IOException {
+        // Arrange
+        try (BookingJournal journal = BookingJournal.open(file)) {
+            journal.attach(hotel);
+            hotel.addRoom(Room.ofMinorPrice("R003", "103", RoomType.SUITE, 9_007_199_254_740_993L, 4));
+            hotel.getRoom("R001").setPricePerNightMinor(14_999);
+        }
+
+        // Act
+        Hotel recovered = JournalRecovery.replay(file).getHotels().get("H001");
+
+        // Assert
+        assertEquals(9_007_199_254_740_993L, recovered.getRoom("R003").getPricePerNightMinor());
+        assertEquals(14_999, recovered.getRoom("R001").getPricePerNightMinor());
+    }
+
+    @Test
+    public void testReplay_RatedStay_KeepsBookedTotal() throws IOException {
+        // Arrange
+        hotel.getRoom("R001").setRate(checkIn, checkIn.plusDays(1), 180.0);
+        Booking booking;
+        try (BookingJournal journal = BookingJournal.open(file)) {
+            journal.attach(hotel);
+            booking = hotel.reserve(customer, "R001", checkIn, checkOut);
+        }
+
+        // Act
+        Hotel recovered = JournalRecovery.replay(file).getHotels().get("H001");
+
+        // Assert
+        assertEquals(38_000L, booking.getTotalPriceMinor());
+        assertEquals(38_000L, recovered.getRoom("R001").getBookings().get(0).getTotalPriceMinor());
+    }
+
+    @Test
+    public void testReplay_RatesSetBeforeAndAfterAttach_RestoresRates() throws IOException {
+        // Arrange
+        hotel.getRoom("R001").setRate(checkIn, checkIn.plusDays(2), 180.0);
+        try (BookingJournal journal = BookingJournal.open(file)) {
+            journal.attach(hotel);
+            hotel.getRoom("R001").clearRate(checkIn, checkIn.plusDays(1));
+            hotel.setRates(List.of("R001", "R002"), checkOut, checkOut.plusDays(7), 90.0);
+        }
+
+        // Act
+        Hotel recovered = JournalRecovery.replay(file).getHotels().get("H001");
+
+        // Assert
+        Room single = recovered.getRoom("R001");
+        assertEquals(100.0, single.getRate(checkIn), 0.001);
+        assertEquals(180.0, single.getRate(checkIn.plusDays(1)), 0.001);
+        assertEquals(90.0, single.getRate(checkOut.plusDays(6)), 0.001);
+        assertEquals(90.0, recovered.getRoom("R002").getRate(checkOut), 0.001);
+        assertEquals(150.0, recovered.getRoom("R002").getRate(checkIn), 0.001);
+        assertEquals(hotel.getRoom("R001").calculateTotalPriceMinor(checkIn, checkOut.plusDays(7)),
+            single.calculateTotalPriceMinor(checkIn, checkOut.plusDays(7)));
+    }
+
+    @Test
+    public void testReserve_JournalCannotRecord_BookingNotAdded() throws IOException {
+        // Arrange
+        BookingJournal journal = BookingJournal.open(file);
+        journal.attach(hotel);
+        journal.close();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> hotel.reserve(customer, "R001", checkIn, checkOut));
+        assertTrue(hotel.getRoom("R001").getBookings().isEmpty());
+        assertTrue(hotel.getRoom("R001").isAvailable(checkIn, checkOut));
+        assertTrue(customer.getBookings().isEmpty());
+        assertEquals(0L, hotel.getSalesStatistics().getPendingBookings(null));
+    }
+
+    @Test
+    public void testReplay_AddressChanged_RestoresNewAddress() throws IOException {
+        // Arrange
+        try (BookingJournal journal = BookingJournal.open(file)) {
+            journal.attach(hotel);
+            hotel.setAddress("7 Canal Bank, Lahore");
+        }
+
+        // Act
+        Hotel recovered = JournalRecovery.replay(file).getHotels().get("H001");
+
+        // Assert
+        assertEquals("7 Canal Bank, Lahore", recovered.getAddress());
+    }
+
+    @Test
+    public void testReplay_WithRegistry_RecoveredBookingsFoundAndConfirmedById() throws IOException {
+        // Arrange
+        Booking booking;
+        try (BookingJournal journal = BookingJournal.open(file)) {
+            Hotel bound = new Hotel("H002", "Plaza", "1 Mall Road", new BookingRegistry());
+            bound.addRoom(new Room("R001", "101", RoomType.SINGLE, 100.0, 1));
+            journal.attach(bound);
+            booking = bound.reserve(customer, "R001", checkIn, checkOut);
+        }
+        BookingRegistry registry = new BookingRegistry();
+
+        // Act
+        Hotel recovered = JournalRecovery.replay(file, registry).getHotels().get("H002");
+
+        // Assert
+        Booking restored = registry.findBooking(booking.getBookingId());
+        assertSame(recovered.getRoom("R001").getBookings().get(0), restored);
+        assertTrue(registry.confirm(booking.getBookingId()));
+        assertEquals(BookingStatus.CONFIRMED, restored.getStatus());
+        assertTrue(recovered.reserve(customer, "R001", checkOut.plusDays(5), checkOut.plusDays(6))
+            .getBookingId().startsWith("BK-"));
+    }
+
+    @Test
+    public void testOpen_NotAJournal_ThrowsException() throws IOException {
+        // Arrange
+        Files.write(file, new byte[64]);
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> BookingJournal.open(file));
+        assertThrows(IOException.class, () -> JournalRecovery.replay(file));
+    }
+
+    @Test
+    public void testReserveRooms_EveryBatch_DurableOnReturn() throws IOException {
+        // Arrange
+        List<String> roomIds = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            hotel.addRoom(new Room("G" + i, "3" + i, RoomType.DOUBLE, 150.0, 2));
+            roomIds.add("G" + i);
+        }
+
+        try (BookingJournal journal = BookingJournal.open(file)) {
+            journal.attach(hotel);
+            long before = journal.getLastSequence();
+
+            // Act
+            hotel.reserveRooms(customer, roomIds, checkIn, checkOut);
+
+            // Assert
+            assertEquals(before + 50, journal.getLastSequence());
+            assertEquals(journal.getLastSequence(), journal.getWrittenSequence());
+        }
+        assertEquals(50, JournalRecovery.replay(file).getCustomers().get("C001").getBookings().size());
+    }
+}
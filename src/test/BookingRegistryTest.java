@@ -0,0 +1,230 @@
+package test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import domain.Booking;
+import domain.BookingCompactor;
+import domain.BookingRegistry;
+import domain.BookingStatus;
+import domain.Customer;
+import domain.Hotel;
+import domain.Room;
+import domain.RoomType;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for BookingRegistry
+ */
+public class BookingRegistryTest {
+
+    private BookingRegistry registry;
+    private Customer customer;
+    private Room room;
+
+    @BeforeEach
+    public void setUp() {
+        registry = new BookingRegistry();
+        customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        room = new Room("R001", "101", RoomType.DOUBLE, 150.0, 2);
+    }
+
+    @Test
+    public void testNextBookingId_ManyThreads_AllUnique() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<List<String>>> futures = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < 8; t++) {
+            futures.add(executor.submit(() -> {
+                List<String> ids = new ArrayList<>();
+                for (int i = 0; i < 5000; i++) {
+                    ids.add(registry.nextBookingId());
+                }
+                return ids;
+            }));
+        }
+        Set<String> unique = new HashSet<>();
+        for (Future<List<String>> future : futures) {
+            unique.addAll(future.get(10, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(40000, unique.size());
+    }
+
+    @Test
+    public void testRegister_GeneratedAndHandAssignedIds_BothFound() {
+        // Arrange
+        LocalDate checkIn = LocalDate.of(2025, 2, 1);
+        Booking generated = new Booking(registry.nextBookingId(), customer, room, checkIn, checkIn.plusDays(2));
+        Booking manual = new Booking("B501", customer, room, checkIn.plusDays(5), checkIn.plusDays(7));
+
+        // Act
+        registry.register(generated);
+        registry.register(manual);
+
+        // Assert
+        assertSame(generated, registry.findBooking(generated.getBookingId()));
+        assertSame(manual, registry.findBooking("B501"));
+        assertNull(registry.findBooking("B502"));
+        assertNull(registry.findBooking(null));
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    public void testRegister_DuplicateId_KeepsFirstBooking() {
+        // Arrange
+        LocalDate checkIn = LocalDate.of(2025, 2, 1);
+        Booking first = new Booking("B001", customer, room, checkIn, checkIn.plusDays(2));
+        Booking second = new Booking("B001", customer, room, checkIn.plusDays(5), checkIn.plusDays(7));
+        registry.register(first);
+
+        // Act & Assert
+        assertTrue(registry.register(first));
+        assertFalse(registry.register(second));
+        assertSame(first, registry.findBooking("B001"));
+    }
+
+    @Test
+    public void testCancelAndConfirm_ById_ChangeStatus() {
+        // Arrange
+        LocalDate checkIn = LocalDate.of(2025, 2, 1);
+        Booking first = new Booking(registry.nextBookingId(), customer, room, checkIn, checkIn.plusDays(2));
+        Booking second = new Booking(registry.nextBookingId(), customer, room, checkIn.plusDays(5), checkIn.plusDays(7));
+        registry.register(first);
+        registry.register(second);
+
+        // Act
+        boolean confirmed = registry.confirm(first.getBookingId());
+        boolean cancelled = registry.cancel(second.getBookingId());
+
+        // Assert
+        assertTrue(confirmed);
+        assertTrue(cancelled);
+        assertEquals(BookingStatus.CONFIRMED, first.getStatus());
+        assertEquals(BookingStatus.CANCELLED, second.getStatus());
+        assertFalse(registry.cancel("BK-UNKNOWN"));
+        assertThrows(IllegalStateException.class, () -> registry.confirm(second.getBookingId()));
+    }
+
+    @Test
+    public void testHotelWithRegistry_Reserve_BookingFoundById() {
+        // Arrange
+        Hotel hotel = new Hotel("H001", "Grand Hotel", "123 Main St", registry);
+        hotel.addRoom(room);
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+
+        // Act
+        Booking booking = hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(3));
+
+        // Assert
+        assertTrue(booking.getBookingId().startsWith("BK-"));
+        assertSame(booking, registry.findBooking(booking.getBookingId()));
+    }
+
+    @Test
+    public void testRegister_ManyBookingsConcurrently_AllFound() throws Exception {
+        // Arrange
+        LocalDate checkIn = LocalDate.of(2025, 2, 1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<Booking>>> futures = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(() -> {
+                List<Booking> bookings = new ArrayList<>();
+                for (int i = 0; i < 10000; i++) {
+                    Booking booking = new Booking(registry.nextBookingId(), customer, room, checkIn, checkIn.plusDays(1));
+                    registry.register(booking);
+                    bookings.add(booking);
+                }
+                return bookings;
+            }));
+        }
+        List<Booking> all = new ArrayList<>();
+        for (Future<List<Booking>> future : futures) {
+            all.addAll(future.get(10, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(40000, registry.size());
+        for (Booking booking : all) {
+            assertSame(booking, registry.findBooking(booking.getBookingId()));
+        }
+    }
+
+    @Test
+    public void testUnregister_ManyBookingsRemovedAndAdded_OnlyLiveOnesFound() {
+        // Arrange
+        LocalDate checkIn = LocalDate.of(2025, 2, 1);
+        List<Booking> kept = new ArrayList<>();
+        List<Booking> removed = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            Booking booking = new Booking(registry.nextBookingId(), customer, room, checkIn, checkIn.plusDays(1));
+            registry.register(booking);
+            if (i % 3 == 0) {
+                kept.add(booking);
+            } else {
+                assertTrue(registry.unregister(booking));
+                removed.add(booking);
+            }
+        }
+        Booking named = new Booking("B501", customer, room, checkIn, checkIn.plusDays(1));
+        Booking impostor = new Booking("B501", customer, room, checkIn, checkIn.plusDays(1));
+        registry.register(named);
+
+        // Act
+        boolean impostorRemoved = registry.unregister(impostor);
+        boolean removedAgain = registry.unregister(removed.get(0));
+
+        // Assert
+        assertFalse(impostorRemoved);
+        assertFalse(removedAgain);
+        assertEquals(kept.size() + 1, registry.size());
+        assertSame(named, registry.findBooking("B501"));
+        for (Booking booking : kept) {
+            assertSame(booking, registry.findBooking(booking.getBookingId()));
+        }
+        for (Booking booking : removed) {
+            assertNull(registry.findBooking(booking.getBookingId()));
+        }
+    }
+
+    @Test
+    public void testHotelWithRegistry_ArchivedOrRoomRemoved_BookingsUnregistered() {
+        // Arrange
+        Hotel hotel = new Hotel("H001", "Grand Hotel", "123 Main St", registry);
+        Room other = new Room("R002", "102", RoomType.DOUBLE, 150.0, 2);
+        hotel.addRooms(List.of(room, other));
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        Booking cancelled = hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(3));
+        Booking live = hotel.reserve(customer, "R001", checkIn.plusDays(5), checkIn.plusDays(6));
+        Booking inRemovedRoom = hotel.reserve(customer, "R002", checkIn, checkIn.plusDays(3));
+        cancelled.cancel();
+
+        // Act
+        new BookingCompactor(hotel).compact(10);
+        hotel.removeRoom("R002");
+
+        // Assert
+        assertNull(registry.findBooking(cancelled.getBookingId()));
+        assertNull(registry.findBooking(inRemovedRoom.getBookingId()));
+        assertSame(live, registry.findBooking(live.getBookingId()));
+        assertEquals(1, registry.size());
+    }
+}
@@ -0,0 +1,192 @@
+package test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import domain.Booking;
+import domain.BookingRegistry;
+import domain.BookingStatus;
+import domain.Customer;
+import domain.Hotel;
+import domain.Room;
+import domain.RoomType;
+import persistence.BookingJournal;
+import persistence.BookingSnapshot;
+import persistence.JournalRecovery;
+import persistence.RecoveredState;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for memory-mapped snapshots
+ */
+public class BookingSnapshotTest {
+
+    private Path directory;
+    private Path snapshotFile;
+    private Path journalFile;
+    private Hotel grand;
+    private Hotel plaza;
+    private Customer customer;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("snapshot");
+        snapshotFile = directory.resolve("hotels.snapshot");
+        journalFile = directory.resolve("bookings.journal");
+        grand = new Hotel("H001", "Grand Hotel", "123 Main St");
+        grand.addRoom(new Room("R001", "101", RoomType.SINGLE, 100.0, 1));
+        grand.addRoom(new Room("R002", "102", RoomType.DOUBLE, 150.0, 2));
+        plaza = new Hotel("H002", "Plaza", "1 Central Sq");
+        plaza.addRoom(new Room("R001", "201", RoomType.SUITE, 400.0, 4));
+        customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        checkIn = LocalDate.now().plusDays(10);
+        checkOut = LocalDate.now().plusDays(13);
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(snapshotFile);
+        Files.deleteIfExists(journalFile);
+        Files.deleteIfExists(directory);
+    }
+
+    @Test
+    public void testLoad_WrittenSnapshot_RestoresHotelsAndBookings() throws IOException {
+        // Arrange
+        Booking confirmed = grand.reserve(customer, "R001", checkIn, checkOut);
+        confirmed.confirm();
+        Booking cancelled = plaza.reserve(customer, "R001", checkIn, checkOut);
+        cancelled.cancel();
+        grand.getRoom("R002").setPricePerNightMinor(9_007_199_254_740_993L);
+        BookingSnapshot.write(snapshotFile, List.of(grand, plaza), 42);
+
+        // Act
+        RecoveredState state = BookingSnapshot.load(snapshotFile);
+
+        // Assert
+        assertEquals(42, state.getLastSequence());
+        Hotel hotel = state.getHotel("H001");
+        assertEquals("Grand Hotel", hotel.getName());
+        assertEquals(2, hotel.getRooms().size());
+        assertEquals(RoomType.DOUBLE, hotel.getRoom("R002").getType());
+        assertEquals(9_007_199_254_740_993L, hotel.getRoom("R002").getPricePerNightMinor());
+        assertFalse(hotel.getRoom("R001").isAvailable(checkIn, checkOut));
+        assertEquals(BookingStatus.CONFIRMED,
+            state.findBooking("H001", "R001", confirmed.getBookingId()).getStatus());
+        assertEquals(BookingStatus.CANCELLED,
+            state.findBooking("H002", "R001", cancelled.getBookingId()).getStatus());
+        assertTrue(state.getHotel("H002").getRoom("R001").isAvailable(checkIn, checkOut));
+        assertNull(state.getHotel("H999"));
+    }
+
+    @Test
+    public void testLoad_RatedStay_KeepsBookedTotal() throws IOException {
+        // Arrange
+        grand.getRoom("R001").setRate(checkIn, checkIn.plusDays(1), 180.0);
+        Booking booking = grand.reserve(customer, "R001", checkIn, checkOut);
+        BookingSnapshot.write(snapshotFile, List.of(grand), 0);
+
+        // Act
+        RecoveredState state = BookingSnapshot.load(snapshotFile);
+
+        // Assert
+        assertEquals(38_000L, booking.getTotalPriceMinor());
+        assertEquals(38_000L,
+            state.findBooking("H001", "R001", booking.getBookingId()).getTotalPriceMinor());
+    }
+
+    @Test
+    public void testLoad_RoomWithRates_RestoresRates() throws IOException {
+        // Arrange
+        Room room = grand.getRoom("R001");
+        room.setRate(checkIn, checkIn.plusDays(2), 180.0);
+        room.setRate(checkOut.plusDays(30), checkOut.plusDays(31), 60.0);
+        BookingSnapshot.write(snapshotFile, List.of(grand), 0);
+
+        // Act
+        Room restored = BookingSnapshot.load(snapshotFile).getHotel("H001").getRoom("R001");
+
+        // Assert
+        assertEquals(checkIn, restored.getRatesFrom());
+        assertEquals(checkOut.plusDays(31), restored.getRatesTo());
+        assertArrayEquals(room.getRatesMinor(checkIn, checkOut.plusDays(31)),
+            restored.getRatesMinor(checkIn, checkOut.plusDays(31)));
+        assertEquals(room.calculateTotalPriceMinor(checkIn, checkOut.plusDays(31)),
+            restored.calculateTotalPriceMinor(checkIn, checkOut.plusDays(31)));
+        assertEquals(60.0, restored.getRate(checkOut.plusDays(30)), 0.001);
+    }
+
+    @Test
+    public void testLoad_WithRegistry_RestoredBookingsFoundById() throws IOException {
+        // Arrange
+        Booking booking = grand.reserve(customer, "R001", checkIn, checkOut);
+        BookingSnapshot.write(snapshotFile, List.of(grand), 0);
+        BookingRegistry registry = new BookingRegistry();
+
+        // Act
+        Hotel restored = BookingSnapshot.load(snapshotFile, registry).getHotel("H001");
+
+        // Assert
+        assertSame(restored.getRoom("R001").getBookings().get(0), registry.findBooking(booking.getBookingId()));
+    }
+
+    @Test
+    public void testLoad_SharedCustomer_RestoredOnceWithAllBookings() throws IOException {
+        // Arrange
+        grand.reserve(customer, "R001", checkIn, checkOut);
+        plaza.reserve(customer, "R001", checkIn, checkOut);
+        BookingSnapshot.write(snapshotFile, List.of(grand, plaza), 0);
+
+        // Act
+        RecoveredState state = BookingSnapshot.load(snapshotFile);
+
+        // Assert
+        Customer restored = state.getCustomers().get("C001");
+        assertEquals(1, state.getCustomers().size());
+        assertEquals("john@example.com", restored.getEmail());
+        assertEquals(2, restored.getBookings().size());
+        assertSame(restored, state.getHotel("H002").getRoom("R001").getBookings().get(0).getCustomer());
+    }
+
+    @Test
+    public void testRecover_SnapshotAndJournalTail_AppliesOnlyNewerRecords() throws IOException {
+        // Arrange
+        Booking early;
+        Booking late;
+        try (BookingJournal journal = BookingJournal.open(journalFile)) {
+            journal.attach(grand);
+            early = grand.reserve(customer, "R001", checkIn, checkOut);
+            BookingSnapshot.write(snapshotFile, List.of(grand), journal.getLastSequence());
+            early.confirm();
+            late = grand.reserve(customer, "R002", checkIn, checkOut);
+        }
+
+        // Act
+        RecoveredState state = JournalRecovery.recover(snapshotFile, journalFile);
+
+        // Assert
+        assertEquals(BookingStatus.CONFIRMED,
+            state.findBooking("H001", "R001", early.getBookingId()).getStatus());
+        assertNotNull(state.findBooking("H001", "R002", late.getBookingId()));
+        assertEquals(2, state.getCustomers().get("C001").getBookings().size());
+    }
+
+    @Test
+    public void testLoad_NotASnapshot_ThrowsException() throws IOException {
+        // Arrange
+        Files.write(snapshotFile, new byte[64]);
+
+        // Act & Assert
+        assertThrows(IOException.class, () -> BookingSnapshot.load(snapshotFile));
+    }
+}
@@ -0,0 +1,129 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+
+import domain.Booking;
+import domain.BookingStatus;
+import domain.BookingStore;
+import domain.Customer;
+import domain.Room;
+import domain.RoomType;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the columnar BookingStore
+ */
+public class BookingStoreTest {
+    
+    private BookingStore store;
+    private Customer customer;
+    private Room room;
+    
+    @BeforeEach
+    public void setUp() {
+        store = new BookingStore();
+        customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        room = new Room("R001", "101", RoomType.DOUBLE, 150.0, 2);
+    }
+    
+    @Test
+    public void testAppend_ValidBooking_ViewMatchesOriginal() {
+        // Arrange
+        Booking booking = new Booking("B001", customer, room, LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 5));
+        booking.confirm();
+        
+        // Act
+        int row = store.append(booking);
+        Booking view = store.get(row);
+        
+        // Assert
+        assertEquals(1, store.size());
+        assertEquals("B001", view.getBookingId());
+        assertSame(customer, view.getCustomer());
+        assertSame(room, view.getRoom());
+        assertEquals(LocalDate.of(2025, 2, 1), view.getCheckInDate());
+        assertEquals(LocalDate.of(2025, 2, 5), view.getCheckOutDate());
+        assertEquals(4, view.calculateNights());
+        assertEquals(600.0, view.getTotalPrice(), 0.01);
+        assertEquals(BookingStatus.CONFIRMED, view.getStatus());
+    }
+    
+    @Test
+    public void testGet_StatusChangedThroughView_WrittenBackToStore() {
+        // Arrange
+        Booking booking = new Booking("B001", customer, room, LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 5));
+        int row = store.append(booking);
+        
+        // Act
+        store.get(row).cancel();
+        
+        // Assert
+        assertEquals(BookingStatus.CANCELLED, store.get(row).getStatus());
+        assertEquals(store.get(row), store.get(row));
+    }
+    
+    @Test
+    public void testAppend_ManyBookings_AllRowsReadable() {
+        // Arrange
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        int count = 40000;
+        
+        // Act
+        for (int i = 0; i < count; i++) {
+            Room r = new Room("R" + (i % 50), "1" + (i % 50), RoomType.SINGLE, 100.0, 1);
+            store.append(new Booking("B" + i, customer, r, start.plusDays(i % 300), start.plusDays(i % 300 + 2)));
+        }
+        
+        // Assert
+        assertEquals(count, store.size());
+        assertEquals("B39999", store.get(count - 1).getBookingId());
+        assertEquals(start.plusDays(39999 % 300), store.get(count - 1).getCheckInDate());
+    }
+    
+    @Test
+    public void testGet_InvalidRow_ThrowsException() {
+        // Assert
+        assertThrows(IndexOutOfBoundsException.class, () -> {
+            store.get(0);
+        });
+    }
+    
+    @Test
+    public void testAddBooking_StoredView_ThrowsException() {
+        // Arrange
+        int row = store.append(new Booking("B001", customer, room, LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 5)));
+        
+        // Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            room.addBooking(store.get(row));
+        });
+    }
+    
+    @Test
+    public void testSumTotalPrices_ManyChunks_ExactPerStatus() {
+        // Arrange
+        Room cheap = new Room("R002", "102", RoomType.SINGLE, 0.1, 1);
+        LocalDate checkIn = LocalDate.of(2025, 2, 1);
+        for (int i = 0; i < 40000; i++) {
+            Booking booking = new Booking("B" + i, customer, cheap, checkIn, checkIn.plusDays(1));
+            if (i % 4 == 0) {
+                booking.cancel();
+            }
+            store.append(booking);
+        }
+        
+        // Act
+        long all = store.sumTotalPrices(null);
+        long cancelled = store.sumTotalPrices(BookingStatus.CANCELLED);
+        long pending = store.sumTotalPrices(BookingStatus.PENDING);
+        
+        // Assert
+        assertEquals(400000, all);
+        assertEquals(100000, cancelled);
+        assertEquals(300000, pending);
+    }
+}
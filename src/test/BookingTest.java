@@ -161,4 +161,15 @@ public class BookingTest {
         // Assert
         assertEquals(600.0, totalPrice, 0.01); // 4 nights * 150 per night
     }
-}
\ No newline at end of file
+    
+    @Test
+    public void testOfTotalPriceMinor_GivenTotal_KeptInsteadOfRoomPrice() {
+        // Arrange & Act
+        Booking booking = Booking.ofTotalPriceMinor("B001", customer, room, checkIn, checkOut, 51_234);
+        
+        // Assert
+        assertEquals(51_234L, booking.getTotalPriceMinor());
+        assertThrows(IllegalArgumentException.class,
+            () -> Booking.ofTotalPriceMinor("B002", customer, room, checkIn, checkOut, -1));
+    }
+}
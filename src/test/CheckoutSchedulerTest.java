@@ -0,0 +1,118 @@
+package test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import domain.Booking;
+import domain.BookingStatus;
+import domain.CheckoutScheduler;
+import domain.Customer;
+import domain.Hotel;
+import domain.Room;
+import domain.RoomType;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for CheckoutScheduler
+ */
+public class CheckoutSchedulerTest {
+
+    private Hotel hotel;
+    private Room room;
+    private Customer customer;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+    private SettableClock clock;
+
+    @BeforeEach
+    public void setUp() {
+        hotel = new Hotel("H001", "Grand Hotel", "123 Main St");
+        room = new Room("R001", "101", RoomType.DOUBLE, 150.0, 2);
+        hotel.addRoom(room);
+        customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        checkIn = LocalDate.now().plusDays(10);
+        checkOut = LocalDate.now().plusDays(13);
+        clock = new SettableClock(LocalDate.now());
+    }
+
+    @Test
+    public void testCompleteDue_AfterCheckOutDate_CompletesAndArchives() {
+        // Arrange
+        CheckoutScheduler scheduler = CheckoutScheduler.start(hotel, clock);
+        Booking booking = hotel.reserve(customer, "R001", checkIn, checkOut);
+        booking.confirm();
+
+        // Act
+        clock.setDay(checkOut);
+        int onCheckOutDay = scheduler.completeDue();
+        clock.setDay(checkOut.plusDays(1));
+        int dayAfter = scheduler.completeDue();
+
+        // Assert
+        assertEquals(0, onCheckOutDay);
+        assertEquals(1, dayAfter);
+        assertEquals(BookingStatus.COMPLETED, booking.getStatus());
+        assertEquals(BookingStatus.COMPLETED, room.getBookings().get(0).getStatus());
+        assertSame(booking, room.getBookings().get(0));
+        assertEquals(1, scheduler.getCompletedCount());
+        assertEquals(0, scheduler.getScheduledCount());
+    }
+
+    @Test
+    public void testCompleteDue_CancelledOrPendingBookings_Skipped() {
+        // Arrange
+        CheckoutScheduler scheduler = CheckoutScheduler.start(hotel, clock);
+        Booking cancelled = hotel.reserve(customer, "R001", checkIn, checkOut);
+        cancelled.confirm();
+        cancelled.cancel();
+        Booking pending = hotel.reserve(customer, "R001", checkIn, checkOut);
+
+        // Act
+        clock.setDay(checkOut.plusDays(1));
+        int count = scheduler.completeDue();
+
+        // Assert
+        assertEquals(0, count);
+        assertEquals(BookingStatus.CANCELLED, cancelled.getStatus());
+        assertEquals(BookingStatus.PENDING, pending.getStatus());
+    }
+
+    @Test
+    public void testConstructor_AlreadyConfirmedBookings_Filed() {
+        // Arrange
+        Booking early = hotel.reserve(customer, "R001", checkIn, checkOut);
+        early.confirm();
+        Booking late = hotel.reserve(customer, "R001", checkOut.plusDays(5), checkOut.plusDays(7));
+        late.confirm();
+
+        // Act
+        CheckoutScheduler scheduler = CheckoutScheduler.start(hotel, clock);
+        clock.setDay(checkOut.plusDays(1));
+        int count = scheduler.completeDue();
+
+        // Assert
+        assertEquals(1, count);
+        assertEquals(BookingStatus.COMPLETED, early.getStatus());
+        assertEquals(BookingStatus.CONFIRMED, late.getStatus());
+        assertEquals(1, scheduler.getScheduledCount());
+    }
+
+    @Test
+    public void testClose_LaterConfirmations_NotFiled() {
+        // Arrange
+        CheckoutScheduler scheduler = CheckoutScheduler.start(hotel, clock);
+        scheduler.close();
+        Booking booking = hotel.reserve(customer, "R001", checkIn, checkOut);
+
+        // Act
+        booking.confirm();
+        clock.setDay(checkOut.plusDays(1));
+
+        // Assert
+        assertEquals(0, scheduler.completeDue());
+        assertEquals(BookingStatus.CONFIRMED, booking.getStatus());
+    }
+}
@@ -15,6 +15,11 @@ import domain.RoomType;
 import org.junit.jupiter.params.provider.CsvSource;
 
 import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -79,6 +84,50 @@ public class CustomerTest {
         assertTrue(customer.getBookings().contains(booking));
     }
     
+    @Test
+    public void testGetBookings_LaterAddition_SnapshotUnchanged() {
+        // Arrange
+        Room room = new Room("R001", "101", RoomType.DOUBLE, 150.0, 2);
+        LocalDate checkIn = LocalDate.of(2025, 2, 1);
+        customer.addBooking(new Booking("B001", customer, room, checkIn, checkIn.plusDays(2)));
+        List<Booking> snapshot = customer.getBookings();
+        
+        // Act
+        customer.addBooking(new Booking("B002", customer, room, checkIn.plusDays(5), checkIn.plusDays(7)));
+        
+        // Assert
+        assertEquals(1, snapshot.size());
+        assertEquals(2, customer.getBookings().size());
+        assertThrows(UnsupportedOperationException.class, () -> {
+            snapshot.add(null);
+        });
+    }
+    
+    @Test
+    public void testGetBookings_IteratedWhileAdding_NoConcurrentModification() throws Exception {
+        // Arrange
+        Room room = new Room("R001", "101", RoomType.DOUBLE, 150.0, 2);
+        LocalDate checkIn = LocalDate.of(2025, 2, 1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        
+        // Act
+        Future<?> writer = executor.submit(() -> {
+            for (int i = 0; i < 5000; i++) {
+                customer.addBooking(new Booking("B" + i, customer, room, checkIn, checkIn.plusDays(1)));
+            }
+        });
+        while (!writer.isDone()) {
+            for (Booking booking : customer.getBookings()) {
+                assertNotNull(booking);
+            }
+        }
+        writer.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+        
+        // Assert
+        assertEquals(5000, customer.getBookings().size());
+    }
+    
     @Test
     public void testAddBooking_NullBooking_ThrowsException() {
         // Assert
@@ -112,4 +161,72 @@ public class CustomerTest {
         // Assert
         assertFalse(result);
     }
+    
+    @Test
+    public void testAddBooking_OtherCustomersBooking_ThrowsException() {
+        // Arrange
+        Customer other = new Customer("C002", "Jane Smith", "jane@test.com", "555-1234");
+        Room room = new Room("R001", "101", RoomType.DOUBLE, 150.0, 2);
+        Booking booking = new Booking("B001", other, room, LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 5));
+        
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            customer.addBooking(booking);
+        });
+    }
+    
+    @Test
+    public void testGetBooking_ExistingId_ReturnsBooking() {
+        // Arrange
+        Room room = new Room("R001", "101", RoomType.DOUBLE, 150.0, 2);
+        Booking booking = new Booking("B001", customer, room, LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 5));
+        customer.addBooking(booking);
+        
+        // Act & Assert
+        assertSame(booking, customer.getBooking("B001"));
+        assertNull(customer.getBooking("B999"));
+    }
+    
+    @Test
+    public void testStatusPartitions_StatusChanges_BookingsMoveBetweenViews() {
+        // Arrange
+        Room room = new Room("R001", "101", RoomType.DOUBLE, 150.0, 2);
+        LocalDate checkIn = LocalDate.of(2025, 2, 1);
+        Booking first = new Booking("B001", customer, room, checkIn, checkIn.plusDays(2));
+        Booking second = new Booking("B002", customer, room, checkIn.plusDays(5), checkIn.plusDays(7));
+        Booking third = new Booking("B003", customer, room, checkIn.plusDays(10), checkIn.plusDays(12));
+        customer.addBooking(first);
+        customer.addBooking(second);
+        customer.addBooking(third);
+        
+        // Act
+        second.confirm();
+        customer.cancelBooking("B001");
+        third.setStatus(BookingStatus.COMPLETED);
+        
+        // Assert
+        assertEquals(List.of(second), customer.getActiveBookings());
+        assertEquals(List.of(first), customer.getCancelledBookings());
+        assertEquals(List.of(third), customer.getCompletedBookings());
+        assertEquals(3, customer.getBookings().size());
+    }
+    
+    @Test
+    public void testGetActiveBookings_AddedInOrder_KeepsInsertionOrder() {
+        // Arrange
+        Room room = new Room("R001", "101", RoomType.DOUBLE, 150.0, 2);
+        LocalDate checkIn = LocalDate.of(2025, 2, 1);
+        for (int i = 0; i < 100; i++) {
+            customer.addBooking(new Booking("B" + i, customer, room, checkIn.plusDays(i * 3), checkIn.plusDays(i * 3 + 1)));
+        }
+        
+        // Act
+        customer.cancelBooking("B50");
+        List<Booking> active = customer.getActiveBookings();
+        
+        // Assert
+        assertEquals(99, active.size());
+        assertEquals("B0", active.get(0).getBookingId());
+        assertEquals("B51", active.get(50).getBookingId());
+    }
 }
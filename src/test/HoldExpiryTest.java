@@ -0,0 +1,178 @@
+package test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import domain.Booking;
+import domain.BookingStatus;
+import domain.Customer;
+import domain.Hotel;
+import domain.HoldExpiry;
+import domain.Room;
+import domain.RoomType;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for HoldExpiry
+ */
+public class HoldExpiryTest {
+
+    private Hotel hotel;
+    private Room room;
+    private Customer customer;
+    private LocalDate checkIn;
+    private SettableClock clock;
+    private HoldExpiry expiry;
+
+    @BeforeEach
+    public void setUp() {
+        hotel = new Hotel("H001", "Grand Hotel", "123 Main St");
+        room = new Room("R001", "101", RoomType.DOUBLE, 150.0, 2);
+        hotel.addRoom(room);
+        customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        checkIn = LocalDate.now().plusDays(10);
+        clock = new SettableClock(LocalDate.now());
+        expiry = HoldExpiry.start(hotel, Duration.ofMinutes(15), Duration.ofSeconds(1), clock);
+    }
+
+    @Test
+    public void testExpireDue_HoldRunOut_CancelsAndFreesRoom() {
+        // Arrange
+        Booking booking = hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(2));
+
+        // Act
+        clock.advance(Duration.ofMinutes(14));
+        int early = expiry.expireDue();
+        clock.advance(Duration.ofMinutes(1));
+        int due = expiry.expireDue();
+
+        // Assert
+        assertEquals(0, early);
+        assertEquals(1, due);
+        assertEquals(BookingStatus.CANCELLED, booking.getStatus());
+        assertTrue(room.isAvailable(checkIn, checkIn.plusDays(2)));
+        assertEquals(1, expiry.getExpiredCount());
+        assertEquals(0, expiry.getHeldCount());
+    }
+
+    @Test
+    public void testExpireDue_ConfirmedInTime_KeepsBooking() {
+        // Arrange
+        Booking booking = hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(2));
+        booking.confirm();
+
+        // Act
+        clock.advance(Duration.ofHours(1));
+        int count = expiry.expireDue();
+
+        // Assert
+        assertEquals(0, count);
+        assertEquals(BookingStatus.CONFIRMED, booking.getStatus());
+        assertFalse(room.isAvailable(checkIn, checkIn.plusDays(2)));
+    }
+
+    @Test
+    public void testExpireDue_PendingAgain_GetsFullNewHold() {
+        // Arrange
+        Booking booking = hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(2));
+        clock.advance(Duration.ofMinutes(10));
+        booking.confirm();
+        booking.setStatus(BookingStatus.PENDING);
+
+        // Act
+        clock.advance(Duration.ofMinutes(6));
+        int early = expiry.expireDue();
+        clock.advance(Duration.ofMinutes(9));
+        int due = expiry.expireDue();
+
+        // Assert
+        assertEquals(0, early);
+        assertEquals(1, due);
+        assertEquals(BookingStatus.CANCELLED, booking.getStatus());
+        assertEquals(0, expiry.getHeldCount());
+    }
+
+    @Test
+    public void testConfirm_AfterExpiry_Throws() {
+        // Arrange
+        Booking booking = hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(2));
+        clock.advance(Duration.ofMinutes(20));
+        expiry.expireDue();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> booking.confirm());
+    }
+
+    @Test
+    public void testExpireDue_ManyTurnsOfTheWheelLater_ExpiresEveryHold() {
+        // Arrange
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            bookings.add(hotel.reserve(customer, "R001", checkIn.plusDays(2L * i), checkIn.plusDays(2L * i + 1)));
+            clock.advance(Duration.ofMillis(1700));
+        }
+        expiry.expireDue();
+
+        // Act
+        clock.advance(Duration.ofDays(2));
+        expiry.expireDue();
+
+        // Assert
+        for (Booking booking : bookings) {
+            assertEquals(BookingStatus.CANCELLED, booking.getStatus());
+        }
+        assertEquals(1000, expiry.getExpiredCount());
+    }
+
+    @Test
+    public void testExpireDue_RacingConfirmations_ExactlyOneWinsPerBooking() throws Exception {
+        // Arrange
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            bookings.add(hotel.reserve(customer, "R001", checkIn.plusDays(2L * i), checkIn.plusDays(2L * i + 1)));
+        }
+        clock.advance(Duration.ofMinutes(30));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // Act
+        Future<Integer> confirmed = executor.submit(() -> {
+            int wins = 0;
+            for (Booking booking : bookings) {
+                try {
+                    booking.confirm();
+                    wins++;
+                } catch (IllegalStateException e) {
+                    // The hold expired first
+                }
+            }
+            return wins;
+        });
+        Future<Integer> expired = executor.submit(() -> expiry.expireDue());
+        int confirmedCount = confirmed.get(10, TimeUnit.SECONDS);
+        int expiredCount = expired.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // Assert
+        assertEquals(2000, confirmedCount + expiredCount);
+        for (Booking booking : bookings) {
+            assertNotEquals(BookingStatus.PENDING, booking.getStatus());
+        }
+    }
+
+    @Test
+    public void testStart_InvalidHoldTime_ThrowsException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> HoldExpiry.start(hotel, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> HoldExpiry.start(null, Duration.ofMinutes(1)));
+    }
+}
@@ -0,0 +1,205 @@
+package test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import domain.Customer;
+import domain.Hotel;
+import domain.HotelPortfolio;
+import domain.Room;
+import domain.RoomType;
+
+import metrics.MetricsRegistry;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for HotelPortfolio
+ */
+public class HotelPortfolioTest {
+
+    private ForkJoinPool pool;
+    private MetricsRegistry metrics;
+    private HotelPortfolio portfolio;
+    private Customer customer;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+
+    @BeforeEach
+    public void setUp() {
+        pool = new ForkJoinPool(4);
+        metrics = new MetricsRegistry();
+        portfolio = new HotelPortfolio(pool, metrics);
+        customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        checkIn = LocalDate.now().plusDays(10);
+        checkOut = LocalDate.now().plusDays(13);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    private Hotel hotelWithRooms(String hotelId, String address, int roomCount) {
+        Hotel hotel = new Hotel(hotelId, "Hotel " + hotelId, address);
+        for (int i = 0; i < roomCount; i++) {
+            hotel.addRoom(new Room("R" + i, String.valueOf(100 + i), RoomType.DOUBLE, 100.0 + i, 2));
+        }
+        return hotel;
+    }
+
+    @Test
+    public void testAddHotel_AddressesWithCities_IndexedByLastPartIgnoringCase() {
+        // Arrange
+        Hotel karachi = hotelWithRooms("H001", "123 Main Street, Karachi", 1);
+        Hotel lahore = hotelWithRooms("H002", "1 Mall Road, Gulberg, Lahore ", 1);
+        Hotel nowhere = hotelWithRooms("H003", "Somewhere", 1);
+
+        // Act
+        portfolio.addHotel(karachi);
+        portfolio.addHotel(lahore);
+        portfolio.addHotel(nowhere);
+
+        // Assert
+        assertEquals(List.of(karachi), portfolio.getHotelsInCity("KARACHI"));
+        assertEquals(List.of(lahore), portfolio.getHotelsInCity("lahore"));
+        assertTrue(portfolio.getHotelsInCity("Gulberg").isEmpty());
+        assertEquals(3, portfolio.getHotels().size());
+        assertThrows(IllegalArgumentException.class, () -> portfolio.addHotel(hotelWithRooms("H001", "x, Karachi", 0)));
+    }
+
+    @Test
+    public void testSetAddress_CityChanged_HotelMovesToNewCity() {
+        // Arrange
+        Hotel hotel = hotelWithRooms("H001", "123 Main Street, Karachi", 1);
+        portfolio.addHotel(hotel);
+
+        // Act
+        hotel.setAddress("7 Canal Bank, Lahore");
+
+        // Assert
+        assertTrue(portfolio.getHotelsInCity("Karachi").isEmpty());
+        assertEquals(List.of(hotel), portfolio.getHotelsInCity("Lahore"));
+    }
+
+    @Test
+    public void testAddressChanged_EventArrivesAfterAddHotelReadNewAddress_IndexedOnce() {
+        // Arrange
+        Hotel hotel = hotelWithRooms("H001", "7 Canal Bank, Lahore", 1);
+        portfolio.addHotel(hotel);
+
+        // Act
+        portfolio.addressChanged(hotel, "123 Main Street, Karachi");
+
+        // Assert
+        assertEquals(List.of(hotel), portfolio.getHotelsInCity("Lahore"));
+        assertEquals(1, portfolio.findAvailableRooms("Lahore", checkIn, checkOut, 10).size());
+        assertTrue(portfolio.removeHotel("H001"));
+        assertTrue(portfolio.getHotelsInCity("Lahore").isEmpty());
+    }
+
+    @Test
+    public void testRemoveHotel_Existing_NoLongerIndexedOrSearched() {
+        // Arrange
+        Hotel hotel = hotelWithRooms("H001", "123 Main Street, Karachi", 2);
+        portfolio.addHotel(hotel);
+
+        // Act
+        boolean removed = portfolio.removeHotel("H001");
+        hotel.setAddress("7 Canal Bank, Lahore");
+
+        // Assert
+        assertTrue(removed);
+        assertFalse(portfolio.removeHotel("H001"));
+        assertNull(portfolio.getHotel("H001"));
+        assertTrue(portfolio.getHotelsInCity("Lahore").isEmpty());
+        assertTrue(portfolio.findAvailableRooms("Karachi", checkIn, checkOut, 10).isEmpty());
+    }
+
+    @Test
+    public void testFindAvailableRooms_ManyHotels_StopsAtLimitWithoutDuplicates() {
+        // Arrange
+        for (int h = 0; h < 40; h++) {
+            portfolio.addHotel(hotelWithRooms("H" + h, h + " Main Street, Karachi", 5));
+        }
+        Hotel lahore = hotelWithRooms("L1", "1 Mall Road, Lahore", 5);
+        portfolio.addHotel(lahore);
+
+        // Act
+        List<Room> rooms = portfolio.findAvailableRooms("karachi", checkIn, checkOut, 23);
+
+        // Assert
+        assertEquals(23, rooms.size());
+        assertEquals(23, new HashSet<>(rooms).size());
+        for (Room room : lahore.getRooms()) {
+            assertFalse(rooms.contains(room));
+        }
+    }
+
+    @Test
+    public void testFindAvailableRooms_BookedRooms_Excluded() {
+        // Arrange
+        Hotel first = hotelWithRooms("H001", "123 Main Street, Karachi", 2);
+        Hotel second = hotelWithRooms("H002", "9 Beach Road, Karachi", 1);
+        portfolio.addHotel(first);
+        portfolio.addHotel(second);
+        first.reserve(customer, "R0", checkIn, checkOut);
+        second.reserve(customer, "R0", checkIn, checkOut);
+
+        // Act
+        List<Room> rooms = portfolio.findAvailableRooms("Karachi", checkIn, checkOut, 10, Duration.ofSeconds(10));
+
+        // Assert
+        assertEquals(List.of(first.getRoom("R1")), rooms);
+    }
+
+    @Test
+    public void testFindAvailableRooms_NullCity_SearchesEveryHotel() {
+        // Arrange
+        Hotel karachi = hotelWithRooms("H001", "123 Main Street, Karachi", 1);
+        Hotel nowhere = hotelWithRooms("H002", "Somewhere", 1);
+        portfolio.addHotel(karachi);
+        portfolio.addHotel(nowhere);
+
+        // Act
+        List<Room> rooms = portfolio.findAvailableRooms(null, checkIn, checkOut, 10);
+
+        // Assert
+        assertEquals(Set.of(karachi.getRoom("R0"), nowhere.getRoom("R0")), new HashSet<>(rooms));
+    }
+
+    @Test
+    public void testFindAvailableRooms_InvalidArguments_ThrowsException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> portfolio.findAvailableRooms("Karachi", checkOut, checkIn, 10));
+        assertThrows(IllegalArgumentException.class,
+            () -> portfolio.findAvailableRooms("Karachi", checkIn, checkOut, 0));
+        assertThrows(IllegalArgumentException.class,
+            () -> portfolio.findAvailableRooms("Karachi", checkIn, checkOut, 10, Duration.ofSeconds(-1)));
+    }
+
+    @Test
+    public void testAddHotel_RegistersGaugesUntilRemoved() {
+        // Arrange
+        Hotel hotel = hotelWithRooms("H001", "123 Main Street, Karachi", 3);
+        hotel.reserve(customer, "R0", checkIn, checkOut);
+
+        // Act
+        portfolio.addHotel(hotel);
+
+        // Assert
+        assertEquals(3L, metrics.getGauges().get("hotel.H001.rooms").getAsLong());
+        assertEquals(1L, metrics.getGauges().get("hotel.H001.pendingHolds").getAsLong());
+        portfolio.removeHotel("H001");
+        assertTrue(metrics.getGauges().isEmpty());
+    }
+}
@@ -6,13 +6,28 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import domain.AvailabilityCache;
+import domain.Booking;
+import domain.BookingStatus;
+import domain.Customer;
 import domain.Hotel;
+import domain.HotelListener;
 import domain.Room;
 import domain.RoomType;
 
 import org.junit.jupiter.params.provider.CsvSource;
 
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -111,6 +126,43 @@ public class HotelTest {
         });
     }
     
+    @Test
+    public void testAddRooms_ValidRooms_AllRoomsAdded() {
+        // Act
+        hotel.addRooms(List.of(room1, room2));
+        
+        // Assert
+        assertEquals(2, hotel.getRooms().size());
+        assertEquals(room1, hotel.getRoom("R001"));
+        assertEquals(room2, hotel.getRoom("R002"));
+    }
+    
+    @Test
+    public void testAddRooms_DuplicateWithinBatch_NothingAdded() {
+        // Arrange
+        Room duplicate = new Room("R001", "105", RoomType.SINGLE, 100.0, 1);
+        
+        // Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            hotel.addRooms(List.of(room1, room2, duplicate));
+        });
+        assertEquals(0, hotel.getRooms().size());
+        assertNull(hotel.getRoom("R001"));
+    }
+    
+    @Test
+    public void testAddRooms_DuplicateOfExistingRoom_ThrowsException() {
+        // Arrange
+        hotel.addRoom(room1);
+        Room duplicate = new Room("R001", "105", RoomType.SINGLE, 100.0, 1);
+        
+        // Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            hotel.addRooms(List.of(room2, duplicate));
+        });
+        assertEquals(1, hotel.getRooms().size());
+    }
+    
     // ========== Remove Room Tests ==========
     
     @Test
@@ -126,6 +178,38 @@ public class HotelTest {
         assertEquals(0, hotel.getRooms().size());
     }
     
+    @Test
+    public void testRemoveRoom_ExistingRoom_NoLongerFound() {
+        // Arrange
+        hotel.addRoom(room1);
+        
+        // Act
+        hotel.removeRoom("R001");
+        
+        // Assert
+        assertNull(hotel.getRoom("R001"));
+    }
+    
+    @Test
+    public void testRemoveRoom_SamePriceRooms_RemovesOnlyThatRoom() {
+        // Arrange
+        Room room3 = new Room("R003", "103", RoomType.DOUBLE, 150.0, 2);
+        Room room4 = new Room("R004", "104", RoomType.DOUBLE, 150.0, 2);
+        hotel.addRooms(List.of(room1, room2, room3, room4));
+        List<Room> before = hotel.getRooms();
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+
+        // Act
+        hotel.removeRoom("R003");
+
+        // Assert
+        assertEquals(List.of(room1, room2, room3, room4), before);
+        assertEquals(List.of(room1, room2, room4), hotel.getRooms());
+        assertEquals(List.of(room1, room4),
+            hotel.findAvailableRooms(checkIn, checkIn.plusDays(2), RoomType.DOUBLE, 1, 1000.0));
+        assertEquals(List.of(room1, room4, room2), hotel.findCheapestAvailableRooms(checkIn, checkIn.plusDays(2), 5));
+    }
+
     @Test
     public void testRemoveRoom_NonExistingRoom_ReturnsFalse() {
         // Arrange & Act
@@ -171,4 +255,667 @@ public class HotelTest {
             hotel.findAvailableRooms(null, LocalDate.now());
         });
     }
+    
+    @Test
+    public void testFindAvailableRooms_UpcomingBooking_BookedRoomExcluded() {
+        // Arrange
+        hotel.addRoom(room1);
+        hotel.addRoom(room2);
+        Customer customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+        LocalDate checkOut = checkIn.plusDays(4);
+        Booking booking = new Booking("B001", customer, room1, checkIn, checkOut);
+        booking.confirm();
+        room1.addBooking(booking);
+        
+        // Act
+        var availableRooms = hotel.findAvailableRooms(checkIn.plusDays(2), checkOut.plusDays(2));
+        
+        // Assert
+        assertEquals(1, availableRooms.size());
+        assertEquals(room2, availableRooms.get(0));
+    }
+    
+    @Test
+    public void testFindAvailableRooms_UpcomingBookingCancelled_RoomAvailableAgain() {
+        // Arrange
+        hotel.addRoom(room1);
+        Customer customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+        LocalDate checkOut = checkIn.plusDays(4);
+        Booking booking = new Booking("B001", customer, room1, checkIn, checkOut);
+        room1.addBooking(booking);
+        
+        // Act
+        booking.cancel();
+        
+        // Assert
+        assertEquals(1, hotel.findAvailableRooms(checkIn, checkOut).size());
+    }
+    
+    @Test
+    public void testFindAvailableRooms_RemovedRoom_NotReturned() {
+        // Arrange
+        hotel.addRoom(room1);
+        hotel.addRoom(room2);
+        hotel.removeRoom("R001");
+        LocalDate checkIn = LocalDate.now().plusDays(1);
+        
+        // Act
+        var availableRooms = hotel.findAvailableRooms(checkIn, checkIn.plusDays(3));
+        
+        // Assert
+        assertEquals(1, availableRooms.size());
+        assertEquals(room2, availableRooms.get(0));
+    }
+    
+    @Test
+    public void testAddRoom_RoomOfAnotherHotel_ThrowsException() {
+        // Arrange
+        hotel.addRoom(room1);
+        Hotel other = new Hotel("H002", "Other Hotel", "456 Side Street");
+        
+        // Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            other.addRoom(room1);
+        });
+    }
+    
+    // ========== Reserve Tests ==========
+    
+    @Test
+    public void testReserve_AvailableRoom_CreatesPendingBooking() {
+        // Arrange
+        hotel.addRoom(room1);
+        Customer customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        LocalDate checkIn = LocalDate.of(2025, 2, 1);
+        LocalDate checkOut = LocalDate.of(2025, 2, 5);
+        
+        // Act
+        Booking booking = hotel.reserve(customer, "R001", checkIn, checkOut);
+        
+        // Assert
+        assertEquals(BookingStatus.PENDING, booking.getStatus());
+        assertEquals(room1, booking.getRoom());
+        assertTrue(room1.getBookings().contains(booking));
+        assertTrue(customer.getBookings().contains(booking));
+        assertFalse(room1.isAvailable(checkIn, checkOut));
+    }
+    
+    @Test
+    public void testReserve_OverlappingDates_ThrowsException() {
+        // Arrange
+        hotel.addRoom(room1);
+        Customer customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        hotel.reserve(customer, "R001", LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 5));
+        
+        // Assert
+        assertThrows(IllegalStateException.class, () -> {
+            hotel.reserve(customer, "R001", LocalDate.of(2025, 2, 3), LocalDate.of(2025, 2, 8));
+        });
+        assertEquals(1, room1.getBookings().size());
+    }
+    
+    @Test
+    public void testReserve_UnknownRoom_ThrowsException() {
+        // Arrange
+        Customer customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        
+        // Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            hotel.reserve(customer, "R999", LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 5));
+        });
+    }
+    
+    @Test
+    public void testReserve_ConcurrentRequestsForSameDates_OnlyOneSucceeds() throws Exception {
+        // Arrange
+        hotel.addRoom(room1);
+        int threads = 16;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        List<Future<?>> futures = new ArrayList<>();
+        
+        // Act
+        for (int i = 0; i < threads; i++) {
+            Customer customer = new Customer("C" + i, "Guest " + i, "guest" + i + "@example.com", "555-000" + i);
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(3));
+                    successes.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    // Lost the race for the room
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        // Assert
+        assertEquals(1, successes.get());
+        assertEquals(1, room1.getBookings().size());
+        assertEquals(0, hotel.findAvailableRooms(checkIn, checkIn.plusDays(3)).size());
+    }
+    
+    // ========== Batch Reserve Tests ==========
+    
+    @Test
+    public void testReserveRooms_ByIds_BooksEveryRoom() {
+        // Arrange
+        hotel.addRooms(List.of(room1, room2));
+        Customer customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        
+        // Act
+        List<Booking> bookings = hotel.reserveRooms(customer, List.of("R002", "R001"), checkIn, checkIn.plusDays(3));
+        
+        // Assert
+        assertEquals(2, bookings.size());
+        assertSame(room2, bookings.get(0).getRoom());
+        assertSame(room1, bookings.get(1).getRoom());
+        assertEquals(2, customer.getBookings().size());
+        assertTrue(hotel.findAvailableRooms(checkIn, checkIn.plusDays(3)).isEmpty());
+    }
+    
+    @Test
+    public void testReserveRooms_OneRoomTaken_BooksNothing() {
+        // Arrange
+        hotel.addRooms(List.of(room1, room2));
+        Customer customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        hotel.reserve(customer, "R002", checkIn.plusDays(1), checkIn.plusDays(2));
+        
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> {
+            hotel.reserveRooms(customer, List.of("R001", "R002"), checkIn, checkIn.plusDays(3));
+        });
+        assertTrue(room1.getBookings().isEmpty());
+        assertEquals(1, room2.getBookings().size());
+        assertEquals(1, customer.getBookings().size());
+    }
+    
+    @Test
+    public void testReserveRooms_DuplicateOrUnknownId_ThrowsException() {
+        // Arrange
+        hotel.addRooms(List.of(room1, room2));
+        Customer customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        
+        // Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            hotel.reserveRooms(customer, List.of("R001", "R001"), checkIn, checkIn.plusDays(3));
+        });
+        assertThrows(IllegalArgumentException.class, () -> {
+            hotel.reserveRooms(customer, List.of("R001", "R999"), checkIn, checkIn.plusDays(3));
+        });
+        assertTrue(room1.getBookings().isEmpty());
+    }
+    
+    @Test
+    public void testReserveRooms_ByType_BooksRequestedCount() {
+        // Arrange
+        List<Room> doubles = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            doubles.add(new Room("D" + i, "2" + i, RoomType.DOUBLE, 150.0, 2));
+        }
+        hotel.addRooms(doubles);
+        hotel.addRoom(room2);
+        Customer customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        hotel.reserve(customer, "D0", checkIn, checkIn.plusDays(1));
+        
+        // Act
+        List<Booking> bookings = hotel.reserveRooms(customer, RoomType.DOUBLE, 7, checkIn, checkIn.plusDays(3));
+        
+        // Assert
+        assertEquals(7, bookings.size());
+        for (Booking booking : bookings) {
+            assertEquals(RoomType.DOUBLE, booking.getRoom().getType());
+            assertNotEquals("D0", booking.getRoom().getRoomId());
+        }
+        assertEquals(3, hotel.findAvailableRooms(checkIn, checkIn.plusDays(3)).size());
+    }
+    
+    @Test
+    public void testReserveRooms_ByTypeNotEnoughRooms_BooksNothing() {
+        // Arrange
+        hotel.addRooms(List.of(room1, room2));
+        Customer customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> {
+            hotel.reserveRooms(customer, RoomType.SUITE, 2, checkIn, checkIn.plusDays(3));
+        });
+        assertTrue(room2.getBookings().isEmpty());
+    }
+    
+    @Test
+    public void testReserveRooms_ConcurrentOverlappingBatches_NoRoomDoubleBooked() throws Exception {
+        // Arrange
+        List<Room> rooms = new ArrayList<>();
+        List<String> roomIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            rooms.add(new Room("G" + i, "3" + i, RoomType.DOUBLE, 150.0, 2));
+            roomIds.add("G" + i);
+        }
+        hotel.addRooms(rooms);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger successes = new AtomicInteger();
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        List<Future<?>> futures = new ArrayList<>();
+        
+        // Act
+        for (int i = 0; i < threads; i++) {
+            Customer customer = new Customer("C" + i, "Guest " + i, "guest" + i + "@example.com", "555-000" + i);
+            List<String> window = roomIds.subList(i * 2, i * 2 + 6);
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    hotel.reserveRooms(customer, window, checkIn, checkIn.plusDays(2));
+                    successes.incrementAndGet();
+                } catch (IllegalStateException e) {
+                    // Another batch holds one of the rooms
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+        
+        // Assert
+        int booked = 0;
+        for (Room room : rooms) {
+            assertTrue(room.getBookings().size() <= 1);
+            booked += room.getBookings().size();
+        }
+        assertEquals(successes.get() * 6, booked);
+    }
+    
+    @Test
+    public void testSearchAndReserve_ConcurrentAddAndRemoveRooms_NeverSeeMissingRooms() throws Exception {
+        // Arrange
+        int searchers = 3;
+        ExecutorService executor = Executors.newFixedThreadPool(searchers + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger changes = new AtomicInteger();
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        futures.add(executor.submit(() -> {
+            start.await();
+            for (int batch = 0; batch < 60; batch++) {
+                List<Room> added = new ArrayList<>();
+                for (int i = 0; i < 25; i++) {
+                    added.add(new Room("A" + batch + "-" + i, batch + "-" + i, RoomType.DOUBLE, 100.0 + i, 2));
+                }
+                hotel.addRooms(added);
+                for (int i = 0; i < 25; i += 2) {
+                    hotel.removeRoom("A" + batch + "-" + i);
+                }
+                changes.incrementAndGet();
+            }
+            return null;
+        }));
+        for (int t = 0; t < searchers; t++) {
+            Customer customer = new Customer("C" + t, "Guest " + t, "guest" + t + "@example.com", "555-000" + t);
+            futures.add(executor.submit(() -> {
+                start.await();
+                while (changes.get() < 60) {
+                    for (Room room : hotel.findAvailableRooms(checkIn, checkIn.plusDays(2))) {
+                        assertNotNull(room);
+                    }
+                    try {
+                        for (Booking booking : hotel.reserveRooms(customer, RoomType.DOUBLE, 2, checkIn, checkIn.plusDays(1))) {
+                            assertNotNull(booking.getRoom());
+                        }
+                    } catch (IllegalStateException e) {
+                        // Too few rooms yet, or they kept changing
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(60 * 12, hotel.getRooms().size());
+        for (Room room : hotel.findAvailableRooms(checkIn, checkIn.plusDays(2))) {
+            assertNotNull(hotel.getRoom(room.getRoomId()));
+        }
+    }
+
+    @Test
+    public void testReserveRooms_Listener_ToldOnceLocksAreReleased() throws Exception {
+        // Arrange
+        List<Room> rooms = new ArrayList<>();
+        List<String> roomIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            rooms.add(new Room("G" + i, "3" + i, RoomType.DOUBLE, 150.0, 2));
+            roomIds.add("G" + i);
+        }
+        hotel.addRooms(rooms);
+        Customer guest = new Customer("C001", "Guest", "guest@example.com", "555-0001");
+        Customer other = new Customer("C002", "Other", "other@example.com", "555-0002");
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        AtomicInteger added = new AtomicInteger();
+        List<Integer> addedWhenReleased = new ArrayList<>();
+        List<Boolean> othersCouldReserve = new ArrayList<>();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        hotel.addListener(new HotelListener() {
+            @Override
+            public void bookingAdded(Hotel hotel, Booking booking) {
+                added.incrementAndGet();
+            }
+
+            @Override
+            public void changesReleased(Hotel hotel) {
+                if (added.get() < 5 || !addedWhenReleased.isEmpty()) {
+                    return;
+                }
+                addedWhenReleased.add(added.get());
+                Future<Booking> attempt = executor.submit(() ->
+                    hotel.reserve(other, "G0", checkIn.plusDays(5), checkIn.plusDays(6)));
+                try {
+                    othersCouldReserve.add(attempt.get(5, TimeUnit.SECONDS) != null);
+                } catch (Exception e) {
+                    othersCouldReserve.add(false);
+                }
+            }
+        });
+
+        // Act
+        hotel.reserveRooms(guest, roomIds, checkIn, checkIn.plusDays(2));
+        executor.shutdown();
+
+        // Assert
+        assertEquals(List.of(5), addedWhenReleased);
+        assertEquals(List.of(true), othersCouldReserve);
+    }
+
+    // ========== Filtered Search Tests ==========
+    
+    @Test
+    public void testFindAvailableRooms_ByTypeCapacityAndPrice_ReturnsMatchingRooms() {
+        // Arrange
+        Room small = new Room("D1", "201", RoomType.DOUBLE, 120.0, 2);
+        Room large = new Room("D2", "202", RoomType.DOUBLE, 180.0, 4);
+        Room pricey = new Room("D3", "203", RoomType.DOUBLE, 400.0, 4);
+        Room cheapLarge = new Room("D4", "204", RoomType.DOUBLE, 160.0, 3);
+        hotel.addRooms(List.of(small, large, pricey, cheapLarge, room2));
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        
+        // Act
+        List<Room> result = hotel.findAvailableRooms(checkIn, checkIn.plusDays(3), RoomType.DOUBLE, 3, 200.0);
+        
+        // Assert
+        assertEquals(List.of(cheapLarge, large), result);
+    }
+    
+    @Test
+    public void testFindAvailableRooms_Filtered_ExcludesBookedRooms() {
+        // Arrange
+        Room first = new Room("D1", "201", RoomType.DOUBLE, 120.0, 2);
+        Room second = new Room("D2", "202", RoomType.DOUBLE, 130.0, 2);
+        hotel.addRooms(List.of(first, second));
+        Customer customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        hotel.reserve(customer, "D1", checkIn, checkIn.plusDays(2));
+        
+        // Act
+        List<Room> result = hotel.findAvailableRooms(checkIn, checkIn.plusDays(3), null, 1, Double.MAX_VALUE);
+        
+        // Assert
+        assertEquals(List.of(second), result);
+    }
+    
+    @Test
+    public void testFindAvailableRooms_RoomChanged_SearchSeesNewValues() {
+        // Arrange
+        hotel.addRooms(List.of(room1, room2));
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        
+        // Act
+        room1.setType(RoomType.SUITE);
+        room1.setCapacity(5);
+        room2.setPricePerNight(500.0);
+        
+        // Assert
+        assertEquals(List.of(room1), hotel.findAvailableRooms(checkIn, checkIn.plusDays(2), RoomType.SUITE, 5, 300.0));
+        assertTrue(hotel.findAvailableRooms(checkIn, checkIn.plusDays(2), RoomType.DOUBLE, 1, 1000.0).isEmpty());
+        assertEquals(List.of(room2, room1),
+            hotel.findAvailableRooms(checkIn, checkIn.plusDays(2), RoomType.SUITE, 1, 1000.0));
+    }
+    
+    @Test
+    public void testFindAvailableRooms_RoomRemoved_NotReturned() {
+        // Arrange
+        hotel.addRooms(List.of(room1, room2));
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        
+        // Act
+        hotel.removeRoom("R002");
+        
+        // Assert
+        assertTrue(hotel.findAvailableRooms(checkIn, checkIn.plusDays(2), RoomType.SUITE, 1, 1000.0).isEmpty());
+    }
+
+    @Test
+    public void testFindAvailableRooms_ManyRoomsAddedAndRemovedOneByOne_ReturnsEachRemainingRoomOnce() {
+        // Arrange
+        List<Room> expected = new ArrayList<>();
+        List<Room> larger = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            Room room = new Room("D" + i, "D" + i, RoomType.DOUBLE, 100.0 + i % 3, 2 + i % 2);
+            hotel.addRoom(room);
+            if (i % 4 == 0) {
+                hotel.removeRoom(room.getRoomId());
+            } else if (i % 3 == 0) {
+                (i % 2 == 0 ? expected : larger).add(room);
+            }
+        }
+        expected.addAll(larger);
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+
+        // Act
+        List<Room> result = hotel.findAvailableRooms(checkIn, checkIn.plusDays(2), RoomType.DOUBLE, 2, 100.0);
+        List<Room> cheapest = hotel.findCheapestAvailableRooms(checkIn, checkIn.plusDays(2), 1000);
+
+        // Assert
+        assertEquals(expected, result);
+        assertEquals(150, cheapest.size());
+        assertEquals(150, new HashSet<>(cheapest).size());
+    }
+
+    @Test
+    public void testAddRoom_AfterRemoval_TakesRemovedRoomsPlaceWithItsOwnStays() {
+        // Arrange
+        Room room3 = new Room("R003", "103", RoomType.DOUBLE, 150.0, 2);
+        Room room4 = new Room("R004", "104", RoomType.DOUBLE, 150.0, 2);
+        hotel.addRooms(List.of(room1, room3, room2));
+        Customer customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        hotel.reserve(customer, "R003", checkIn, checkIn.plusDays(2));
+        
+        // Act
+        hotel.removeRoom("R003");
+        hotel.addRoom(room4);
+        
+        // Assert
+        assertEquals(List.of(room1, room4, room2), hotel.getRooms());
+        assertEquals(List.of(room1, room4, room2), hotel.findAvailableRooms(checkIn, checkIn.plusDays(2)));
+    }
+
+    @Test
+    public void testAddRoom_RoomWithStaysFromAnotherHotel_StaysInHorizonBlockIt() {
+        // Arrange
+        Hotel other = new Hotel("H002", "Other Hotel", "456 Test Ave");
+        other.addRoom(room1);
+        Customer customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        other.reserve(customer, "R001", checkIn, checkIn.plusDays(2));
+        other.reserve(customer, "R001", checkIn.plusDays(300), checkIn.plusDays(302));
+        other.reserve(customer, "R001", checkIn.plusDays(1000), checkIn.plusDays(1002));
+        other.removeRoom("R001");
+        
+        // Act
+        hotel.addRoom(room1);
+        
+        // Assert
+        assertTrue(hotel.findAvailableRooms(checkIn.plusDays(1), checkIn.plusDays(3)).isEmpty());
+        assertTrue(hotel.findAvailableRooms(checkIn.plusDays(301), checkIn.plusDays(303)).isEmpty());
+        assertTrue(hotel.findAvailableRooms(checkIn.plusDays(1001), checkIn.plusDays(1003)).isEmpty());
+        assertEquals(List.of(room1), hotel.findAvailableRooms(checkIn.plusDays(3), checkIn.plusDays(5)));
+    }
+
+    @Test
+    public void testFindAvailableRooms_ClockMovesForward_HorizonFollowsClock() {
+        // Arrange
+        SettableClock clock = new SettableClock(LocalDate.of(2020, 1, 1));
+        Hotel h = new Hotel("H002", "Test Hotel", "456 Test Ave", null, clock);
+        h.addRooms(List.of(room1, room2));
+        Customer customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        LocalDate checkIn = LocalDate.of(2020, 2, 1);
+        h.reserve(customer, "R001", checkIn, checkIn.plusDays(2));
+        h.reserve(customer, "R002", LocalDate.of(2022, 3, 1), LocalDate.of(2022, 3, 3));
+        
+        // Act
+        List<Room> before = h.findAvailableRooms(checkIn, checkIn.plusDays(2));
+        clock.setDay(LocalDate.of(2021, 6, 1));
+        List<Room> after = h.findAvailableRooms(LocalDate.of(2022, 3, 2), LocalDate.of(2022, 3, 4));
+        
+        // Assert
+        assertEquals(List.of(room2), before);
+        assertEquals(List.of(room1), after);
+    }
+
+    @Test
+    public void testConstructor_NullClock_ThrowsException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new Hotel("H002", "Test Hotel", "456 Test Ave", null, null));
+    }
+
+    @Test
+    public void testFindCheapestAvailableRooms_SkipsBookedRooms_ReturnsCheapestInPriceOrder() {
+        // Arrange
+        Room suite = new Room("S1", "301", RoomType.SUITE, 90.0, 4);
+        Room single = new Room("S2", "302", RoomType.SINGLE, 60.0, 1);
+        Room booked = new Room("S3", "303", RoomType.DOUBLE, 50.0, 2);
+        Room pricey = new Room("S4", "304", RoomType.DOUBLE, 500.0, 2);
+        hotel.addRooms(List.of(suite, single, booked, pricey));
+        Customer customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        hotel.reserve(customer, "S3", checkIn, checkIn.plusDays(2));
+        
+        // Act
+        List<Room> result = hotel.findCheapestAvailableRooms(checkIn, checkIn.plusDays(3), 2);
+        
+        // Assert
+        assertEquals(List.of(single, suite), result);
+    }
+    
+    @Test
+    public void testFindCheapestAvailableRooms_PriceChangedAndBeyondHorizon_UsesNewOrder() {
+        // Arrange
+        Room first = new Room("D1", "201", RoomType.DOUBLE, 100.0, 2);
+        Room second = new Room("D2", "202", RoomType.DOUBLE, 200.0, 2);
+        hotel.addRooms(List.of(first, second));
+        second.setPricePerNight(80.0);
+        LocalDate checkIn = LocalDate.now().plusYears(5);
+        
+        // Act
+        List<Room> result = hotel.findCheapestAvailableRooms(checkIn, checkIn.plusDays(3), 1);
+        
+        // Assert
+        assertEquals(List.of(second), result);
+        assertThrows(IllegalArgumentException.class,
+            () -> hotel.findCheapestAvailableRooms(checkIn, checkIn.plusDays(3), 0));
+    }
+    
+    @Test
+    public void testFindCheapestAvailableRooms_NightlyRates_RankedByStayTotal() {
+        // Arrange
+        Room discounted = new Room("D1", "201", RoomType.DOUBLE, 150.0, 2);
+        Room plain = new Room("D2", "202", RoomType.DOUBLE, 100.0, 2);
+        Room surcharged = new Room("D3", "203", RoomType.DOUBLE, 90.0, 2);
+        hotel.addRooms(List.of(discounted, plain, surcharged));
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        hotel.enableAvailabilityCache(10, Duration.ofMinutes(5));
+        assertEquals(List.of(surcharged, plain), hotel.findCheapestAvailableRooms(checkIn, checkIn.plusDays(2), 2));
+        discounted.setRate(checkIn, checkIn.plusDays(2), 50.0);
+        surcharged.setRate(checkIn, checkIn.plusDays(1), 400.0);
+        
+        // Act
+        List<Room> result = hotel.findCheapestAvailableRooms(checkIn, checkIn.plusDays(2), 2);
+        
+        // Assert
+        assertEquals(List.of(discounted, plain), result);
+        assertEquals(3, hotel.getRooms().size());
+    }
+    
+    @Test
+    public void testSetRates_SeveralRooms_ChangesEachAndInvalidatesCacheOnce() {
+        // Arrange
+        List<String> roomIds = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            hotel.addRoom(new Room("D" + i, "2" + i, RoomType.DOUBLE, 100.0 + i, 2));
+            roomIds.add("D" + i);
+        }
+        Room pricey = new Room("S1", "301", RoomType.SUITE, 300.0, 4);
+        hotel.addRoom(pricey);
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        AvailabilityCache cache = hotel.enableAvailabilityCache(10, Duration.ofMinutes(5));
+        assertEquals(List.of(hotel.getRoom("D0")), hotel.findCheapestAvailableRooms(checkIn, checkIn.plusDays(2), 1));
+        List<LocalDate> reported = new ArrayList<>();
+        hotel.addListener(new HotelListener() {
+            @Override
+            public void ratesChanged(Hotel changed, Room room, LocalDate from, LocalDate to) {
+                reported.add(from);
+                reported.add(to);
+            }
+        });
+        
+        // Act
+        hotel.setRates(roomIds, checkIn, checkIn.plusDays(1), 500.0);
+        
+        // Assert
+        assertEquals(1L, cache.getInvalidationCount());
+        assertEquals(40, reported.size());
+        assertEquals(checkIn.plusDays(1), reported.get(39));
+        assertEquals(List.of(pricey), hotel.findCheapestAvailableRooms(checkIn, checkIn.plusDays(2), 1));
+        assertEquals(619.0, hotel.getRoom("D19").calculateTotalPrice(checkIn, checkIn.plusDays(2)), 0.001);
+    }
+    
+    @Test
+    public void testSetRates_UnknownRoom_ChangesNoRoom() {
+        // Arrange
+        hotel.addRooms(List.of(room1, room2));
+        LocalDate checkIn = LocalDate.now().plusDays(10);
+        
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+            () -> hotel.setRates(List.of("R001", "R999"), checkIn, checkIn.plusDays(1), 90.0));
+        assertThrows(IllegalArgumentException.class,
+            () -> hotel.setRates(List.of("R001"), checkIn, checkIn, 90.0));
+        assertNull(room1.getRatesFrom());
+        hotel.clearRates(List.of("R001", "R002"), checkIn, checkIn.plusDays(1));
+        assertNull(room1.getRatesFrom());
+    }
 }
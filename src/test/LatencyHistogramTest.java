@@ -0,0 +1,91 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+
+import metrics.LatencyHistogram;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for LatencyHistogram
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void testPercentiles_UniformValues_WithinBucketPrecision() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Act
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos);
+        }
+
+        // Assert
+        assertEquals(100_000, histogram.getCount());
+        assertEquals(50_000.5, histogram.getMeanNanos(), 0.001);
+        assertEquals(100_000, histogram.getMaxNanos());
+        assertEquals(50_000, histogram.getValueAtPercentile(50), 50_000 * 0.07);
+        assertEquals(99_000, histogram.getValueAtPercentile(99), 99_000 * 0.07);
+        assertEquals(100_000, histogram.getValueAtPercentile(100));
+        assertEquals(1, histogram.getValueAtPercentile(0));
+    }
+
+    @Test
+    public void testPercentiles_SmallValues_Exact() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Act
+        histogram.record(3);
+        histogram.record(7);
+        histogram.record(12);
+
+        // Assert
+        assertEquals(3, histogram.getValueAtPercentile(10));
+        assertEquals(7, histogram.getValueAtPercentile(50));
+        assertEquals(12, histogram.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void testRecord_NegativeAndHugeValues_Kept() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Act
+        histogram.record(-5);
+        histogram.record(Long.MAX_VALUE);
+
+        // Assert
+        assertEquals(2, histogram.getCount());
+        assertEquals(Long.MAX_VALUE, histogram.getMaxNanos());
+        assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testReset_ClearsEverything() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000);
+
+        // Act
+        histogram.reset();
+
+        // Assert
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMaxNanos());
+        assertEquals(0.0, histogram.getMeanNanos());
+        assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+
+    @Test
+    public void testPercentile_OutOfRange_Throws() {
+        // Arrange
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(-1));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(100.5));
+        assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(Double.NaN));
+    }
+}
@@ -0,0 +1,155 @@
+package test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import domain.Booking;
+import domain.Customer;
+import domain.Hotel;
+import domain.HotelGauges;
+import domain.Room;
+import domain.RoomType;
+import metrics.JmxExporter;
+import metrics.Metrics;
+import metrics.MetricsRegistry;
+import metrics.Operation;
+import metrics.TextExporter;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for the metrics recorded by the domain operations
+ */
+public class MetricsTest {
+
+    private Hotel hotel;
+    private Customer customer;
+    private LocalDate checkIn;
+
+    @BeforeEach
+    public void setUp() {
+        Metrics.setEnabled(true);
+        Metrics.registry().reset();
+        hotel = new Hotel("H001", "Grand Hotel", "123 Main St");
+        hotel.addRoom(new Room("R001", "101", RoomType.DOUBLE, 150.0, 2));
+        hotel.addRoom(new Room("R002", "102", RoomType.SUITE, 400.0, 4));
+        customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        checkIn = LocalDate.of(2030, 5, 1);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        Metrics.setEnabled(true);
+    }
+
+    @Test
+    public void testOperations_Enabled_RecordLatencies() {
+        // Arrange
+        Booking booking = hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(2));
+
+        // Act
+        hotel.findAvailableRooms(checkIn, checkIn.plusDays(1));
+        customer.cancelBooking(booking.getBookingId());
+
+        // Assert
+        MetricsRegistry registry = Metrics.registry();
+        assertEquals(1, registry.histogram(Operation.FIND_AVAILABLE_ROOMS).getCount());
+        assertEquals(1, registry.histogram(Operation.BOOKING_CREATE).getCount());
+        assertEquals(1, registry.histogram(Operation.CUSTOMER_CANCEL_BOOKING).getCount());
+        assertTrue(registry.histogram(Operation.ROOM_IS_AVAILABLE).getCount() > 0);
+        assertTrue(registry.histogram(Operation.BOOKING_CREATE).getMaxNanos() > 0);
+    }
+
+    @Test
+    public void testOperations_Disabled_RecordNothing() {
+        // Arrange
+        Metrics.setEnabled(false);
+
+        // Act
+        Booking booking = hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(2));
+        hotel.findAvailableRooms(checkIn, checkIn.plusDays(1));
+        customer.cancelBooking(booking.getBookingId());
+
+        // Assert
+        for (Operation operation : Operation.values()) {
+            assertEquals(0L, Metrics.registry().histogram(operation).getCount(), operation.getMetricName());
+        }
+    }
+
+    @Test
+    public void testHotelGauges_ReadCurrentValues() {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry();
+        HotelGauges.register(registry, hotel);
+
+        // Act
+        Booking held = hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(2));
+        hotel.reserve(customer, "R001", checkIn.plusDays(4), checkIn.plusDays(5)).confirm();
+        hotel.reserve(customer, "R002", checkIn, checkIn.plusDays(1)).confirm();
+        hotel.reserve(customer, "R002", checkIn.plusDays(5), checkIn.plusDays(6));
+
+        // Assert
+        assertEquals(2, registry.getGauges().get("hotel.H001.rooms").getAsLong());
+        assertEquals(2, registry.getGauges().get("hotel.H001.bookingsPerRoom").getAsLong());
+        assertEquals(2, registry.getGauges().get("hotel.H001.pendingHolds").getAsLong());
+        held.confirm();
+        assertEquals(1, registry.getGauges().get("hotel.H001.pendingHolds").getAsLong());
+        HotelGauges.unregister(registry, hotel);
+        assertTrue(registry.getGauges().isEmpty());
+    }
+
+    @Test
+    public void testTextExporter_FormatsOperationsAndGauges() {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.histogram(Operation.ROOM_IS_AVAILABLE).record(40);
+        registry.registerGauge("hotel.H001.rooms", () -> 2);
+
+        // Act
+        String text = TextExporter.format(registry);
+
+        // Assert
+        assertTrue(text.contains("room.isAvailable count=1 mean_ns=40.0 p50_ns=40 p99_ns=40 max_ns=40"), text);
+        assertTrue(text.contains("hotel.findAvailableRooms count=0"), text);
+        assertTrue(text.contains("hotel.H001.rooms 2"), text);
+    }
+
+    @Test
+    public void testJmxExporter_PublishesRegistry() throws Exception {
+        // Arrange
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.histogram(Operation.BOOKING_CREATE).record(1_000);
+        registry.registerGauge("hotel.H001.rooms", () -> 2);
+        JmxExporter exporter = new JmxExporter("hotel.test:type=Metrics");
+        registry.addExporter(exporter);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName("hotel.test:type=Metrics");
+
+        try {
+            // Act
+            registry.export();
+            registry.histogram(Operation.BOOKING_CREATE).record(3_000);
+
+            // Assert
+            assertEquals(2L, server.getAttribute(name, "booking.create.count"));
+            assertEquals(3_000L, server.getAttribute(name, "booking.create.maxNanos"));
+            assertEquals(2L, server.getAttribute(name, "hotel.H001.rooms"));
+        } finally {
+            exporter.close();
+        }
+        assertFalse(server.isRegistered(name));
+    }
+
+    @Test
+    public void testJmxExporter_InvalidName_Throws() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new JmxExporter("not a name"));
+    }
+}
@@ -0,0 +1,90 @@
+package test;
+
+import org.junit.jupiter.api.Test;
+
+import domain.Booking;
+import domain.Customer;
+import domain.Money;
+import domain.Room;
+import domain.RoomType;
+
+import java.time.LocalDate;
+import java.util.Currency;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for Money and minor-unit pricing
+ */
+public class MoneyTest {
+
+    @Test
+    public void testOfMajor_FractionalAmounts_RoundToNearestMinorUnit() {
+        // Act & Assert
+        assertEquals(14999, Money.ofMajor(149.99));
+        assertEquals(29, Money.ofMajor(0.29));
+        assertEquals(1000, Money.ofMajor(9.999));
+        assertEquals(-250, Money.ofMajor(-2.5));
+        assertEquals(149.99, Money.toMajor(14999));
+    }
+
+    @Test
+    public void testOfMajor_NotFinite_ThrowsException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> Money.ofMajor(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> Money.ofMajor(Double.POSITIVE_INFINITY));
+        assertThrows(IllegalArgumentException.class, () -> Money.ofMajor(1e18));
+    }
+
+    @Test
+    public void testSum_ManyTenths_ExactUnlikeDouble() {
+        // Arrange
+        long[] amounts = new long[1_000_000];
+        double naive = 0;
+        for (int i = 0; i < amounts.length; i++) {
+            amounts[i] = Money.ofMajor(0.1);
+            naive += 0.1;
+        }
+
+        // Act
+        long total = Money.sum(amounts);
+
+        // Assert
+        assertEquals(10_000_000, total);
+        assertNotEquals(100000.0, naive);
+    }
+
+    @Test
+    public void testFormat_PlainAndCurrency_ShowTwoDecimals() {
+        // Act & Assert
+        assertEquals("1499.50", Money.format(149950));
+        assertEquals("-0.05", Money.format(-5));
+        assertEquals("$1,499.50", Money.format(149950, Currency.getInstance("USD"), Locale.US));
+        assertThrows(IllegalArgumentException.class, () -> Money.format(1, null, Locale.US));
+    }
+
+    @Test
+    public void testFormat_CurrencyWithOtherDecimals_UsesCurrencyDigits() {
+        // Act & Assert
+        assertEquals("\uFFE51,500", Money.format(149950, Currency.getInstance("JPY"), Locale.JAPAN));
+        assertTrue(Money.format(149950, Currency.getInstance("BHD"), Locale.US).endsWith("1,499.500"));
+    }
+
+    @Test
+    public void testBooking_PricedInMinorUnits_ExactTotal() {
+        // Arrange
+        Room room = new Room("R001", "101", RoomType.DOUBLE, 33.33, 2);
+        Customer customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        LocalDate checkIn = LocalDate.of(2030, 1, 1);
+
+        // Act
+        Booking booking = new Booking("B001", customer, room, checkIn, checkIn.plusDays(3));
+
+        // Assert
+        assertEquals(3333, room.getPricePerNightMinor());
+        assertEquals(9999, booking.getTotalPriceMinor());
+        assertEquals(99.99, booking.getTotalPrice());
+        assertThrows(IllegalArgumentException.class, () -> room.setPricePerNight(0.004));
+    }
+}
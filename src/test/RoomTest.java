@@ -7,6 +7,7 @@ import org.junit.jupiter.params.provider.NullAndEmptySource;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import domain.Booking;
+import domain.BookingStatus;
 import domain.Customer;
 import domain.Room;
 import domain.RoomType;
@@ -130,6 +131,68 @@ public class RoomTest {
         assertTrue(available);
     }
     
+    @Test
+    public void testIsAvailable_BookingCancelledAfterAdding_ReturnsTrue() {
+        // Arrange
+        LocalDate checkIn = LocalDate.of(2025, 2, 1);
+        LocalDate checkOut = LocalDate.of(2025, 2, 5);
+        Booking booking = new Booking("B001", customer, room, checkIn, checkOut);
+        room.addBooking(booking);
+        
+        // Act
+        booking.cancel();
+        
+        // Assert
+        assertTrue(room.isAvailable(checkIn, checkOut));
+    }
+    
+    @Test
+    public void testIsAvailable_CancelledBookingRestored_ReturnsFalse() {
+        // Arrange
+        LocalDate checkIn = LocalDate.of(2025, 2, 1);
+        LocalDate checkOut = LocalDate.of(2025, 2, 5);
+        Booking booking = new Booking("B001", customer, room, checkIn, checkOut);
+        room.addBooking(booking);
+        booking.cancel();
+        
+        // Act
+        booking.setStatus(BookingStatus.CONFIRMED);
+        
+        // Assert
+        assertFalse(room.isAvailable(LocalDate.of(2025, 2, 4), LocalDate.of(2025, 2, 8)));
+    }
+    
+    @Test
+    public void testIsAvailable_ManyBookings_OnlyOverlappingRangeBlocked() {
+        // Arrange
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < 200; i++) {
+            LocalDate checkIn = start.plusDays(i * 10L);
+            Booking booking = new Booking("B" + i, customer, room, checkIn, checkIn.plusDays(3));
+            booking.confirm();
+            room.addBooking(booking);
+        }
+        
+        // Assert
+        assertFalse(room.isAvailable(start.plusDays(1000), start.plusDays(1001)));
+        assertTrue(room.isAvailable(start.plusDays(1004), start.plusDays(1009)));
+        assertFalse(room.isAvailable(start.plusDays(1004), start.plusDays(1010)));
+        assertTrue(room.isAvailable(start.plusDays(2000), start.plusDays(2010)));
+    }
+    
+    @Test
+    public void testAddBooking_BookingForOtherRoom_ThrowsException() {
+        // Arrange
+        Room other = new Room("R002", "102", RoomType.SINGLE, 100.0, 1);
+        Booking booking = new Booking("B001", customer, other, 
+            LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 5));
+        
+        // Assert
+        assertThrows(IllegalArgumentException.class, () -> {
+            room.addBooking(booking);
+        });
+    }
+    
     // ========== Calculate Total Price Tests ==========
     
     @ParameterizedTest
@@ -155,4 +218,101 @@ public class RoomTest {
             room.calculateTotalPrice(nights);
         });
     }
+    
+    // ========== Rate Calendar Tests ==========
+    
+    @Test
+    public void testCalculateTotalPrice_NoRates_UsesPricePerNight() {
+        // Arrange
+        LocalDate checkIn = LocalDate.of(2030, 3, 1);
+        
+        // Act
+        double total = room.calculateTotalPrice(checkIn, checkIn.plusDays(4));
+        
+        // Assert
+        assertEquals(600.0, total, 0.01);
+    }
+    
+    @Test
+    public void testCalculateTotalPrice_StayAcrossRates_SumsEachNight() {
+        // Arrange
+        LocalDate checkIn = LocalDate.of(2030, 3, 1);
+        room.setRate(checkIn.plusDays(1), checkIn.plusDays(3), 200.0);
+        room.setRate(checkIn.plusDays(2), checkIn.plusDays(5), 100.0);
+        
+        // Act
+        double total = room.calculateTotalPrice(checkIn.minusDays(1), checkIn.plusDays(6));
+        
+        // Assert
+        // 150 + 150 + 200 + 100 + 100 + 100 + 150
+        assertEquals(950.0, total, 0.01);
+        assertEquals(200.0, room.getRate(checkIn.plusDays(1)), 0.01);
+        assertEquals(150.0, room.getRate(checkIn.plusDays(5)), 0.01);
+    }
+    
+    @Test
+    public void testClearRate_PartOfRange_ReturnsNightsToPricePerNight() {
+        // Arrange
+        LocalDate checkIn = LocalDate.of(2030, 3, 1);
+        room.setRate(checkIn, checkIn.plusDays(4), 90.0);
+        
+        // Act
+        room.clearRate(checkIn.plusDays(1), checkIn.plusDays(2));
+        room.setPricePerNight(120.0);
+        
+        // Assert
+        assertEquals(90.0 + 120.0 + 90.0 + 90.0, room.calculateTotalPrice(checkIn, checkIn.plusDays(4)), 0.01);
+    }
+    
+    @Test
+    public void testBookingConstructor_RatesSet_PricesFromCalendar() {
+        // Arrange
+        LocalDate checkIn = LocalDate.of(2030, 3, 1);
+        room.setRate(checkIn.plusDays(1), checkIn.plusDays(2), 300.0);
+        
+        // Act
+        Booking booking = new Booking("B001", customer, room, checkIn, checkIn.plusDays(3));
+        
+        // Assert
+        assertEquals(600.0, booking.getTotalPrice(), 0.01);
+    }
+    
+    @Test
+    public void testSetRate_InvalidArguments_ThrowsException() {
+        // Arrange
+        LocalDate day = LocalDate.of(2030, 3, 1);
+        
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> room.setRate(day, day.plusDays(1), 0.0));
+        assertThrows(IllegalArgumentException.class, () -> room.setRate(day, day, 100.0));
+        assertThrows(IllegalArgumentException.class, () -> room.setRate(null, day, 100.0));
+        assertThrows(IllegalArgumentException.class, () -> room.setRate(day, day.plusYears(200), 100.0));
+        assertThrows(IllegalArgumentException.class, () -> room.calculateTotalPrice(day, day));
+    }
+    
+    @Test
+    public void testCalculateTotalPriceMinor_TotalOverflowsLong_ThrowsException() {
+        // Arrange
+        LocalDate day = LocalDate.of(2030, 3, 1);
+        Room priced = Room.ofMinorPrice("R002", "102", RoomType.SUITE, Long.MAX_VALUE / 2, 4);
+        priced.setRate(day, day.plusDays(1), 100.0);
+        
+        // Act & Assert
+        assertEquals(Long.MAX_VALUE / 2 + 10_000, priced.calculateTotalPriceMinor(day, day.plusDays(2)));
+        assertThrows(ArithmeticException.class, () -> priced.calculateTotalPriceMinor(day, day.plusDays(4)));
+        assertThrows(ArithmeticException.class, () -> room.setRate(day, day.plusDays(2), 5e16));
+    }
+    
+    @Test
+    public void testOfMinorPrice_ValidPrice_KeptExactly() {
+        // Arrange & Act
+        Room priced = Room.ofMinorPrice("R002", "102", RoomType.SINGLE, 14_999, 1);
+        priced.setPricePerNightMinor(15_001);
+        
+        // Assert
+        assertEquals(15_001, priced.getPricePerNightMinor());
+        assertEquals(150.01, priced.getPricePerNight(), 0.0001);
+        assertThrows(IllegalArgumentException.class, () -> Room.ofMinorPrice("R003", "103", RoomType.SINGLE, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> priced.setPricePerNightMinor(-1));
+    }
 }
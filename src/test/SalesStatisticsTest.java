@@ -0,0 +1,180 @@
+package test;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import domain.Booking;
+import domain.BookingStatus;
+import domain.Customer;
+import domain.Hotel;
+import domain.Room;
+import domain.RoomType;
+import domain.SalesStatistics;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test class for SalesStatistics
+ */
+public class SalesStatisticsTest {
+
+    private Hotel hotel;
+    private Customer customer;
+    private LocalDate checkIn;
+    private SalesStatistics sales;
+
+    @BeforeEach
+    public void setUp() {
+        hotel = new Hotel("H001", "Grand Hotel", "123 Main St");
+        hotel.addRoom(new Room("R001", "101", RoomType.DOUBLE, 150.0, 2));
+        hotel.addRoom(new Room("R002", "102", RoomType.DOUBLE, 100.0, 2));
+        hotel.addRoom(new Room("R003", "201", RoomType.SUITE, 400.0, 4));
+        customer = new Customer("C001", "John Doe", "john@example.com", "123-456-7890");
+        checkIn = LocalDate.of(2030, 5, 1);
+        sales = hotel.getSalesStatistics();
+    }
+
+    @Test
+    public void testConfirm_SoldNights_CountedPerNightAndType() {
+        // Arrange
+        Booking pending = hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(2));
+        Booking suite = hotel.reserve(customer, "R003", checkIn.plusDays(1), checkIn.plusDays(3));
+
+        // Act
+        suite.confirm();
+
+        // Assert
+        assertEquals(2, sales.getActiveBookings(null));
+        assertEquals(1, sales.getSoldBookings(null));
+        assertEquals(0, sales.getRoomsSold(checkIn, null));
+        assertEquals(1, sales.getRoomsSold(checkIn.plusDays(1), RoomType.SUITE));
+        assertEquals(0, sales.getRoomsSold(checkIn.plusDays(1), RoomType.DOUBLE));
+        assertEquals(0, sales.getRoomsSold(checkIn.plusDays(3), null));
+        assertEquals(40000, sales.getRevenueMinor(checkIn.plusDays(2), null));
+        assertEquals(80000, sales.getTotalRevenueMinor(RoomType.SUITE));
+        assertEquals(2, sales.getRoomNightsSold(null));
+        assertEquals(BookingStatus.PENDING, pending.getStatus());
+    }
+
+    @Test
+    public void testCancel_ConfirmedBooking_RemovesItsNights() {
+        // Arrange
+        Booking booking = hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(2));
+        booking.confirm();
+
+        // Act
+        booking.cancel();
+
+        // Assert
+        assertEquals(0, sales.getActiveBookings(null));
+        assertEquals(0, sales.getSoldBookings(null));
+        assertEquals(0, sales.getRoomsSold(checkIn, null));
+        assertEquals(0, sales.getTotalRevenueMinor(null));
+    }
+
+    @Test
+    public void testComplete_ConfirmedBooking_StaysSoldButNotActive() {
+        // Arrange
+        Booking booking = hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(2));
+        booking.confirm();
+
+        // Act
+        booking.setStatus(BookingStatus.COMPLETED);
+
+        // Assert
+        assertEquals(0, sales.getActiveBookings(null));
+        assertEquals(1, sales.getSoldBookings(RoomType.DOUBLE));
+        assertEquals(1, sales.getRoomsSold(checkIn.plusDays(1), null));
+    }
+
+    @Test
+    public void testAverageDailyRateAndRevPar_TwoRoomsSold_DividedPerRoom() {
+        // Arrange
+        hotel.reserve(customer, "R001", checkIn, checkIn.plusDays(1)).confirm();
+        hotel.reserve(customer, "R002", checkIn, checkIn.plusDays(1)).confirm();
+
+        // Act
+        long adr = sales.getAverageDailyRateMinor(checkIn, RoomType.DOUBLE);
+        long revPar = sales.getRevParMinor(checkIn, null);
+
+        // Assert
+        assertEquals(12500, adr);
+        assertEquals(8333, revPar);
+        assertEquals(0, sales.getAverageDailyRateMinor(checkIn.plusDays(1), null));
+    }
+
+    @Test
+    public void testRevenue_UnevenTotal_NightsAddUpToTotal() {
+        // Arrange
+        hotel.getRoom("R002").setRate(checkIn, checkIn.plusDays(1), 100.01);
+        Booking booking = hotel.reserve(customer, "R002", checkIn, checkIn.plusDays(3));
+
+        // Act
+        booking.confirm();
+
+        // Assert
+        long nights = 0;
+        for (int i = 0; i < 3; i++) {
+            nights += sales.getRevenueMinor(checkIn.plusDays(i), null);
+        }
+        assertEquals(30001, booking.getTotalPriceMinor());
+        assertEquals(30001, nights);
+    }
+
+    @Test
+    public void testAddAndRemoveRoom_ExistingBookings_CountedAndUncounted() {
+        // Arrange
+        Room room = new Room("R004", "301", RoomType.SINGLE, 80.0, 1);
+        Booking booking = new Booking("B900", customer, room, checkIn, checkIn.plusDays(2));
+        booking.confirm();
+        room.addBooking(booking);
+
+        // Act
+        hotel.addRoom(room);
+        long added = sales.getTotalRevenueMinor(RoomType.SINGLE);
+        hotel.removeRoom("R004");
+
+        // Assert
+        assertEquals(16000, added);
+        assertEquals(0, sales.getTotalRevenueMinor(RoomType.SINGLE));
+        assertEquals(0, sales.getRoomsSold(checkIn, null));
+    }
+
+    @Test
+    public void testRecord_ConcurrentBookings_ExactTotals() throws Exception {
+        // Arrange
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        List<Future<?>> futures = new ArrayList<>();
+
+        // Act
+        for (String roomId : List.of("R001", "R002", "R003")) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 500; i++) {
+                    Booking booking = hotel.reserve(customer, roomId, checkIn.plusDays(2L * i), checkIn.plusDays(2L * i + 1));
+                    booking.confirm();
+                    if (i % 5 == 0) {
+                        booking.cancel();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        // Assert
+        assertEquals(1200, sales.getSoldBookings(null));
+        assertEquals(400 * (15000 + 10000 + 40000), sales.getTotalRevenueMinor(null));
+        assertEquals(3, sales.getRoomsSold(checkIn.plusDays(2), null));
+        assertEquals(0, sales.getRoomsSold(checkIn, null));
+    }
+}
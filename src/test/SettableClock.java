@@ -0,0 +1,42 @@
+package test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * UTC clock that tests move forward by hand
+ */
+final class SettableClock extends Clock {
+    private volatile Instant instant;
+
+    SettableClock(LocalDate day) {
+        setDay(day);
+    }
+
+    void setDay(LocalDate day) {
+        instant = day.atTime(12, 0).toInstant(ZoneOffset.UTC);
+    }
+
+    void advance(Duration duration) {
+        instant = instant.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+        return ZoneOffset.UTC;
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+        return this;
+    }
+
+    @Override
+    public Instant instant() {
+        return instant;
+    }
+}